@@ -2,6 +2,12 @@ package practicos.ABB;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Simulador de Árbol Binario de Búsqueda (ABB)
@@ -12,31 +18,69 @@ import java.awt.*;
  * - View: TreePanel, UI Components
  * - Controller: ABBSimulator
  * 
+ * Las operaciones masivas (insertar N aleatorios, cargar un archivo de
+ * claves con {@link ImportadorClaves}, guardar o abrir un índice binario
+ * con {@link PersistenciaABB}, eliminar un rango y las pruebas)
+ * corren fuera del hilo de eventos. Al terminar cada lote publican una
+ * instantánea del árbol, que es lo único que dibuja el panel mientras
+ * tanto; los controles del árbol quedan deshabilitados hasta que la
+ * operación termina o se cancela.
+ * 
+ * El conjunto puede ser cualquier motor de {@link MotorConjunto}, elegido
+ * al arrancar con {@code --motor=NOMBRE} o con la propiedad
+ * {@value MotorConjunto#PROPIEDAD}. Solo el ABB se dibuja y tiene modo de
+ * balanceo y recorridos PreOrden/PostOrden.
+ * 
  * @author Diana Mabel Garcia
  *         diabegarciamtz@gmail.com  05/12/2025
  */
 public class ABBSimulator extends JFrame {
     
-    private ArbolBusquedaBinario bst;
+    private final MotorConjunto motor;
+    private ConjuntoOrdenado bst;
     private ArbolPanel treePanel;
     private JTextField inputField;
     private JTextArea outputArea;
     private JComboBox<String> testCombo;
+    private JComboBox<ModoBalanceo> balanceoCombo;
     private TestRunner testRunner;
+    private JTextField cantidadField;
+    private JTextField desdeField;
+    private JTextField hastaField;
+    private JProgressBar progressBar;
+    private JButton cancelButton;
+    private final List<JComponent> treeControls = new ArrayList<>();
+    private BulkOperation bulkOperation;
+    
+    /** Valores por lote: cada lote termina con una instantánea para el panel. */
+    private static final int TAMANO_LOTE = 10_000;
     
     /**
-     * Constructor principal
+     * Constructor principal, con el ABB como motor
      */
     public ABBSimulator() {
-        setTitle("Simulador de Árbol Binario de Búsqueda (ABB)");
+        this(MotorConjunto.ABB);
+    }
+    
+    /**
+     * Constructor con el motor del conjunto
+     * @param motor Motor a usar en lugar del ABB
+     */
+    public ABBSimulator(MotorConjunto motor) {
+        this.motor = motor;
+        setTitle("Simulador de Árbol Binario de Búsqueda (ABB)"
+                + (motor == MotorConjunto.ABB ? "" : " - Motor: " + motor));
         setSize(1200, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
         
-        bst = new ArbolBusquedaBinario();
+        bst = motor.crear();
         testRunner = new TestRunner(bst);
         
-        add(createControlPanel(), BorderLayout.NORTH);
+        JPanel controles = new JPanel(new BorderLayout());
+        controles.add(createControlPanel(), BorderLayout.NORTH);
+        controles.add(createBulkPanel(), BorderLayout.SOUTH);
+        add(controles, BorderLayout.NORTH);
         
         treePanel = new ArbolPanel(bst);
         add(treePanel, BorderLayout.CENTER);
@@ -79,9 +123,63 @@ public class ABBSimulator extends JFrame {
             "P4: Casos de Eliminación"
         });
         panel.add(testCombo);
+        treeControls.add(testCombo);
         
         addButton(panel, "Ejecutar Prueba", e -> runTest());
         
+        panel.add(new JSeparator(SwingConstants.VERTICAL));
+        
+        if (bst instanceof ArbolBusquedaBinario) {
+            panel.add(new JLabel("Balanceo:"));
+            balanceoCombo = new JComboBox<>(ModoBalanceo.values());
+            balanceoCombo.addActionListener(e -> changeBalancing());
+            panel.add(balanceoCombo);
+            treeControls.add(balanceoCombo);
+        } else {
+            panel.add(new JLabel("Motor: " + motor));
+        }
+        
+        return panel;
+    }
+    
+    /**
+     * Crea el panel de operaciones masivas
+     */
+    private JPanel createBulkPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        panel.setBorder(BorderFactory.createTitledBorder("Operaciones Masivas"));
+        
+        panel.add(new JLabel("N:"));
+        cantidadField = new JTextField("100000", 8);
+        panel.add(cantidadField);
+        addButton(panel, "Insertar N Aleatorios", e -> insertRandom());
+        addButton(panel, "Cargar Archivo...", e -> loadFromFile());
+        addButton(panel, "Guardar Índice...", e -> saveIndex());
+        addButton(panel, "Abrir Índice...", e -> openIndex());
+        
+        panel.add(new JSeparator(SwingConstants.VERTICAL));
+        
+        panel.add(new JLabel("Desde:"));
+        desdeField = new JTextField(6);
+        panel.add(desdeField);
+        panel.add(new JLabel("Hasta:"));
+        hastaField = new JTextField(6);
+        panel.add(hastaField);
+        addButton(panel, "Eliminar Rango", e -> deleteRange());
+        
+        panel.add(new JSeparator(SwingConstants.VERTICAL));
+        
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        panel.add(progressBar);
+        
+        // No pasa por addButton: es el único control activo durante una operación
+        cancelButton = new JButton("Cancelar");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> cancelBulk());
+        panel.add(cancelButton);
+        
         return panel;
     }
     
@@ -107,6 +205,7 @@ public class ABBSimulator extends JFrame {
         JButton button = new JButton(text);
         button.addActionListener(listener);
         panel.add(button);
+        treeControls.add(button);
     }
     
     private void insertNode() {
@@ -120,7 +219,7 @@ public class ABBSimulator extends JFrame {
                 outputArea.append("✗ Nodo " + value + " ya existe (duplicado ignorado)\n");
             }
             
-            treePanel.repaint();
+            treePanel.arbolModificado();
             inputField.setText("");
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Ingrese un número válido", "Error", JOptionPane.ERROR_MESSAGE);
@@ -138,7 +237,7 @@ public class ABBSimulator extends JFrame {
                 outputArea.append("✗ Nodo " + value + " no encontrado\n");
             }
             
-            treePanel.repaint();
+            treePanel.arbolModificado();
             inputField.setText("");
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Ingrese un número válido", "Error", JOptionPane.ERROR_MESSAGE);
@@ -151,7 +250,8 @@ public class ABBSimulator extends JFrame {
             boolean found = bst.buscar(value);
             
             if (found) {
-                outputArea.append("✓ Nodo " + value + " encontrado (resaltado en rojo)\n");
+                outputArea.append("✓ Nodo " + value + " encontrado"
+                        + (abb() != null ? " (resaltado en rojo)" : "") + "\n");
             } else {
                 outputArea.append("✗ Nodo " + value + " no encontrado\n");
             }
@@ -165,38 +265,287 @@ public class ABBSimulator extends JFrame {
     private void clearTree() {
         bst.limpiar();
         outputArea.setText("");
-        treePanel.repaint();
+        treePanel.arbolModificado();
         outputArea.append("✓ Árbol limpiado\n");
     }
     
+    private void changeBalancing() {
+        ModoBalanceo modo = (ModoBalanceo) balanceoCombo.getSelectedItem();
+        abb().setModoBalanceo(modo);
+        outputArea.append("✓ Modo de balanceo: " + modo + " (altura " + abb().altura() + ")\n");
+        treePanel.arbolModificado();
+    }
+    
     private void inOrder() {
         outputArea.append("InOrden: " + bst.recorridoInOrden() + "\n");
     }
     
     private void preOrder() {
-        outputArea.append("PreOrden: " + bst.recorridoPreOrden() + "\n");
+        outputArea.append("PreOrden: " + (abb() != null ? abb().recorridoPreOrden() : soloABB()) + "\n");
     }
     
     private void postOrder() {
-        outputArea.append("PostOrden: " + bst.recorridoPostOrden() + "\n");
+        outputArea.append("PostOrden: " + (abb() != null ? abb().recorridoPostOrden() : soloABB()) + "\n");
+    }
+    
+    /**
+     * El conjunto como ABB, o null si el motor es otro.
+     */
+    private ArbolBusquedaBinario abb() {
+        return bst instanceof ArbolBusquedaBinario ? (ArbolBusquedaBinario) bst : null;
+    }
+    
+    private String soloABB() {
+        return "no disponible con el motor " + motor + " (solo en el ABB)";
     }
     
     private void runTest() {
-        String result = "";
+        int prueba = testCombo.getSelectedIndex();
+        startBulk(new BulkOperation("Prueba") {
+            @Override
+            protected String doInBackground() {
+                switch (prueba) {
+                    case 0: return testRunner.runP11();
+                    case 1: return testRunner.runP12();
+                    case 2: return testRunner.runP13();
+                    case 3: return testRunner.runP14();
+                    case 4: return testRunner.runP4();
+                    default: return "";
+                }
+            }
+        });
+    }
+    
+    private void insertRandom() {
+        int n;
+        try {
+            n = Integer.parseInt(cantidadField.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Ingrese un número válido", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        startBulk(new BulkOperation("Insertar " + n + " aleatorios") {
+            @Override
+            protected String doInBackground() {
+                int limite = (int) Math.min(Integer.MAX_VALUE, Math.max(100L, 10L * n));
+                int insertados = 0;
+                int hechos = 0;
+                while (hechos < n && !isCancelRequested()) {
+                    int[] lote = new int[Math.min(TAMANO_LOTE, n - hechos)];
+                    for (int i = 0; i < lote.length; i++) {
+                        lote[i] = ThreadLocalRandom.current().nextInt(limite);
+                    }
+                    insertados += bst.insertarLote(lote);
+                    hechos += lote.length;
+                    publishBatch(hechos, n);
+                }
+                return summary(insertados + " nodos insertados (" + (hechos - insertados) + " repetidos)");
+            }
+        });
+    }
+    
+    private void loadFromFile() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File archivo = chooser.getSelectedFile();
+        startBulk(new BulkOperation("Cargar " + archivo.getName()) {
+            @Override
+            protected String doInBackground() throws IOException {
+                ImportadorClaves importador = new ImportadorClaves(bst);
+                importador.setTamanoLote(TAMANO_LOTE);
+                importador.setAvance((leidos, total) -> {
+                    publishBatch(leidos, total);
+                    return !isCancelRequested();
+                });
+                importador.importar(archivo.toPath(), ImportadorClaves.Formato.detectar(archivo.toPath()));
+                return summary(importador.getInsertadas() + " nodos insertados de "
+                        + importador.getClavesLeidas() + " claves leídas de " + archivo.getName());
+            }
+        });
+    }
+    
+    private void saveIndex() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File archivo = chooser.getSelectedFile();
+        startBulk(new BulkOperation("Guardar " + archivo.getName()) {
+            @Override
+            protected String doInBackground() throws IOException {
+                PersistenciaABB.guardar(bst, archivo.toPath());
+                return summary(bst.tamano() + " claves guardadas en " + archivo.getName()
+                        + " (" + archivo.length() + " bytes)");
+            }
+        });
+    }
+    
+    private void openIndex() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File archivo = chooser.getSelectedFile();
+        startBulk(new BulkOperation("Abrir " + archivo.getName()) {
+            @Override
+            protected String doInBackground() throws IOException {
+                int[] claves = PersistenciaABB.leer(archivo.toPath());
+                if (abb() != null) {
+                    abb().cargarOrdenados(claves, claves.length);
+                } else {
+                    bst.limpiar();
+                    bst.insertarLote(claves);
+                }
+                return summary(claves.length + " claves cargadas de " + archivo.getName());
+            }
+        });
+    }
+    
+    private void deleteRange() {
+        int desde;
+        int hasta;
+        try {
+            desde = Integer.parseInt(desdeField.getText().trim());
+            hasta = Integer.parseInt(hastaField.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Ingrese un número válido", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        startBulk(new BulkOperation("Eliminar rango [" + desde + ", " + hasta + "]") {
+            @Override
+            protected String doInBackground() {
+                int[] valores = new int[bst.contarEnRango(desde, hasta)];
+                int[] cuenta = {0};
+                bst.recorrerRango(desde, hasta, dato -> valores[cuenta[0]++] = dato);
+                
+                int eliminados = 0;
+                while (eliminados < valores.length && !isCancelRequested()) {
+                    int fin = Math.min(valores.length, eliminados + TAMANO_LOTE);
+                    for (int i = eliminados; i < fin; i++) {
+                        bst.eliminar(valores[i]);
+                    }
+                    eliminados = fin;
+                    publishBatch(eliminados, valores.length);
+                }
+                return summary(eliminados + " de " + valores.length + " nodos eliminados");
+            }
+        });
+    }
+    
+    private void cancelBulk() {
+        if (bulkOperation != null) {
+            bulkOperation.requestCancel();
+            cancelButton.setEnabled(false);
+            progressBar.setString("Cancelando...");
+        }
+    }
+    
+    /**
+     * Deshabilita los controles del árbol y lanza la operación en segundo plano.
+     * Antes de lanzarla el panel pasa a una instantánea: zoom, desplazamiento
+     * o un cambio de tamaño repintan sin tocar el árbol que se está
+     * modificando, aunque la operación no publique lotes.
+     */
+    private void startBulk(BulkOperation operation) {
+        bulkOperation = operation;
+        if (abb() != null) {
+            treePanel.setArbol(abb().snapshot());
+        }
+        for (JComponent control : treeControls) {
+            control.setEnabled(false);
+        }
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setString(operation.nombre);
+        operation.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        operation.execute();
+    }
+    
+    /**
+     * Operación masiva sobre el árbol, ejecutada fuera del hilo de eventos.
+     * Solo ella modifica el árbol mientras corre; el panel dibuja la
+     * instantánea tomada al empezar y después las que publica al terminar
+     * cada lote (si el motor es el ABB, el único que las tiene y se dibuja),
+     * y vuelve al árbol vivo recién en done().
+     * 
+     * La cancelación es cooperativa (una bandera que se revisa entre lotes)
+     * en lugar de {@link SwingWorker#cancel}: así done() se ejecuta cuando
+     * el hilo de fondo realmente soltó el árbol y no antes.
+     */
+    private abstract class BulkOperation extends SwingWorker<String, ArbolBusquedaBinario> {
+        private final String nombre;
+        private volatile boolean cancelRequested;
+        
+        BulkOperation(String nombre) {
+            this.nombre = nombre;
+        }
         
-        switch (testCombo.getSelectedIndex()) {
-            case 0: result = testRunner.runP11(); break;
-            case 1: result = testRunner.runP12(); break;
-            case 2: result = testRunner.runP13(); break;
-            case 3: result = testRunner.runP14(); break;
-            case 4: result = testRunner.runP4(); break;
+        void requestCancel() {
+            cancelRequested = true;
         }
         
-        outputArea.append(result + "\n");
-        treePanel.repaint();
+        boolean isCancelRequested() {
+            return cancelRequested;
+        }
+        
+        /**
+         * Publica una instantánea del árbol al cerrar un lote.
+         */
+        void publishBatch(long hechos, long total) {
+            if (abb() != null) {
+                publish(abb().snapshot());
+            }
+            setProgress((int) Math.min(100, 100 * hechos / Math.max(1, total)));
+        }
+        
+        String summary(String resultado) {
+            return (cancelRequested ? "✗ " + nombre + " cancelada: " : "✓ ") + resultado;
+        }
+        
+        @Override
+        protected void process(List<ArbolBusquedaBinario> snapshots) {
+            // Solo interesa la más reciente
+            treePanel.setArbol(snapshots.get(snapshots.size() - 1));
+        }
+        
+        @Override
+        protected void done() {
+            bulkOperation = null;
+            treePanel.setConjunto(bst);
+            for (JComponent control : treeControls) {
+                control.setEnabled(true);
+            }
+            cancelButton.setEnabled(false);
+            progressBar.setValue(0);
+            progressBar.setString("");
+            try {
+                outputArea.append(get() + "\n");
+            } catch (ExecutionException ex) {
+                outputArea.append("✗ " + nombre + " falló: " + ex.getCause().getMessage() + "\n");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            outputArea.append("  " + bst.describir() + "\n");
+        }
     }
     
     public static void main(String[] args) {
+        MotorConjunto motor;
+        try {
+            motor = MotorConjunto.elegir(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Motor desconocido. Motores: " + java.util.Arrays.toString(MotorConjunto.values())
+                    + " (use el nombre de la constante, por ejemplo --motor=TREAP)");
+            System.exit(1);
+            return;
+        }
+        
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
@@ -204,7 +553,7 @@ public class ABBSimulator extends JFrame {
         }
         
         SwingUtilities.invokeLater(() -> {
-            ABBSimulator app = new ABBSimulator();
+            ABBSimulator app = new ABBSimulator(motor);
             app.setVisible(true);
         });
     }
@@ -0,0 +1,414 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+
+/**
+ * Árbol B+ de enteros con páginas anchas.
+ *
+ * Cada página guarda hasta {@code capacidad} claves contiguas en un int[],
+ * así que una búsqueda toca O(log_capacidad n) páginas (4 niveles para
+ * millones de claves con la capacidad por defecto) en lugar de un objeto
+ * por nivel como en el ABB, y dentro de cada página la búsqueda binaria
+ * recorre memoria contigua. Las claves viven solo en las hojas, que están
+ * enlazadas en orden para que los recorridos por rango no suban al padre.
+ *
+ * Las páginas internas guardan separadores: el hijo i + 1 contiene las
+ * claves mayores o iguales que {@code claves[i]} y el hijo i las menores.
+ * Una página que se llena se parte en dos; una que queda por debajo de la
+ * mitad pide una clave prestada a un hermano o se fusiona con él.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ArbolB implements ConjuntoOrdenado {
+    private static final int CAPACIDAD_POR_DEFECTO = 64;
+
+    private static final class Pagina {
+        final int[] claves;   // Una posición de sobra antes de partir
+        final Pagina[] hijos; // null en las hojas
+        int n;                // Claves en uso
+        Pagina siguiente;     // Hojas: la hoja de la derecha
+
+        Pagina(int capacidad, boolean hoja) {
+            claves = new int[capacidad + 1];
+            hijos = hoja ? null : new Pagina[capacidad + 2];
+        }
+
+        boolean esHoja() {
+            return hijos == null;
+        }
+    }
+
+    private final int capacidad;
+    private final int minimo;
+    private Pagina raiz;
+    private int cantidad;
+    private int niveles = 1;
+
+    // Resultado de la última inserción o eliminación recursiva
+    private boolean cambio;
+    private int separador; // Primera clave de la página nueva al partir
+
+    /**
+     * Constructor con la capacidad por defecto (64 claves por página).
+     */
+    public ArbolB() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor con la capacidad de página dada.
+     * @param capacidad Claves por página; par y al menos 4.
+     */
+    public ArbolB(int capacidad) {
+        if (capacidad < 4 || capacidad % 2 != 0) {
+            throw new IllegalArgumentException("La capacidad debe ser par y al menos 4: " + capacidad);
+        }
+        this.capacidad = capacidad;
+        this.minimo = capacidad / 2;
+        this.raiz = new Pagina(capacidad, true);
+    }
+
+    // --- Búsqueda dentro de una página ---
+
+    /**
+     * Primera posición con clave mayor o igual que el dato.
+     */
+    private static int posicion(int[] claves, int n, int dato) {
+        int desde = 0;
+        int hasta = n;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (claves[medio] < dato) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    /**
+     * Hijo de una página interna donde estaría el dato: cuántos
+     * separadores son menores o iguales que él.
+     */
+    private static int hijo(Pagina pagina, int dato) {
+        int desde = 0;
+        int hasta = pagina.n;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (pagina.claves[medio] <= dato) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    private Pagina hoja(int dato) {
+        Pagina pagina = raiz;
+        while (!pagina.esHoja()) {
+            pagina = pagina.hijos[hijo(pagina, dato)];
+        }
+        return pagina;
+    }
+
+    @Override
+    public boolean contiene(int dato) {
+        Pagina hoja = hoja(dato);
+        int i = posicion(hoja.claves, hoja.n, dato);
+        return i < hoja.n && hoja.claves[i] == dato;
+    }
+
+    // --- Inserción ---
+
+    @Override
+    public boolean insertar(int dato) {
+        cambio = false;
+        Pagina nueva = insertar(raiz, dato);
+        if (nueva != null) {
+            Pagina nuevaRaiz = new Pagina(capacidad, false);
+            nuevaRaiz.claves[0] = separador;
+            nuevaRaiz.hijos[0] = raiz;
+            nuevaRaiz.hijos[1] = nueva;
+            nuevaRaiz.n = 1;
+            raiz = nuevaRaiz;
+            niveles++;
+        }
+        if (cambio) {
+            cantidad++;
+        }
+        return cambio;
+    }
+
+    /**
+     * Inserta en el subárbol de la página.
+     * @return La página nueva si la página se partió (su primera clave
+     *         queda en {@code separador}), o null.
+     */
+    private Pagina insertar(Pagina pagina, int dato) {
+        if (pagina.esHoja()) {
+            int i = posicion(pagina.claves, pagina.n, dato);
+            if (i < pagina.n && pagina.claves[i] == dato) {
+                return null;
+            }
+            System.arraycopy(pagina.claves, i, pagina.claves, i + 1, pagina.n - i);
+            pagina.claves[i] = dato;
+            pagina.n++;
+            cambio = true;
+            return pagina.n > capacidad ? partirHoja(pagina, i) : null;
+        }
+        int i = hijo(pagina, dato);
+        Pagina nueva = insertar(pagina.hijos[i], dato);
+        if (nueva == null) {
+            return null;
+        }
+        System.arraycopy(pagina.claves, i, pagina.claves, i + 1, pagina.n - i);
+        System.arraycopy(pagina.hijos, i + 1, pagina.hijos, i + 2, pagina.n - i);
+        pagina.claves[i] = separador;
+        pagina.hijos[i + 1] = nueva;
+        pagina.n++;
+        return pagina.n > capacidad ? partirInterna(pagina) : null;
+    }
+
+    /**
+     * Parte una hoja llena por la mitad. Si la clave nueva quedó al final
+     * de la última hoja (inserción en orden ascendente) la hoja se queda
+     * llena y solo esa clave pasa a la nueva, para no dejar hojas a medias.
+     */
+    private Pagina partirHoja(Pagina hoja, int insertada) {
+        int mitad = insertada == hoja.n - 1 && hoja.siguiente == null ? hoja.n - 1 : hoja.n / 2;
+        Pagina nueva = new Pagina(capacidad, true);
+        nueva.n = hoja.n - mitad;
+        System.arraycopy(hoja.claves, mitad, nueva.claves, 0, nueva.n);
+        hoja.n = mitad;
+        nueva.siguiente = hoja.siguiente;
+        hoja.siguiente = nueva;
+        separador = nueva.claves[0];
+        return nueva;
+    }
+
+    /**
+     * Parte una página interna: la clave del medio sube al padre.
+     */
+    private Pagina partirInterna(Pagina pagina) {
+        int mitad = pagina.n / 2;
+        Pagina nueva = new Pagina(capacidad, false);
+        nueva.n = pagina.n - mitad - 1;
+        System.arraycopy(pagina.claves, mitad + 1, nueva.claves, 0, nueva.n);
+        System.arraycopy(pagina.hijos, mitad + 1, nueva.hijos, 0, nueva.n + 1);
+        Arrays.fill(pagina.hijos, mitad + 1, pagina.n + 1, null);
+        separador = pagina.claves[mitad];
+        pagina.n = mitad;
+        return nueva;
+    }
+
+    // --- Eliminación ---
+
+    @Override
+    public boolean eliminar(int dato) {
+        cambio = false;
+        eliminar(raiz, dato);
+        if (!raiz.esHoja() && raiz.n == 0) {
+            raiz = raiz.hijos[0];
+            niveles--;
+        }
+        if (cambio) {
+            cantidad--;
+        }
+        return cambio;
+    }
+
+    private void eliminar(Pagina pagina, int dato) {
+        if (pagina.esHoja()) {
+            int i = posicion(pagina.claves, pagina.n, dato);
+            if (i < pagina.n && pagina.claves[i] == dato) {
+                System.arraycopy(pagina.claves, i + 1, pagina.claves, i, pagina.n - i - 1);
+                pagina.n--;
+                cambio = true;
+            }
+            return;
+        }
+        int i = hijo(pagina, dato);
+        eliminar(pagina.hijos[i], dato);
+        if (cambio && pagina.hijos[i].n < minimo) {
+            reparar(pagina, i);
+        }
+    }
+
+    /**
+     * Completa el hijo i, que quedó con menos de la mitad de las claves:
+     * pide una a un hermano que tenga de sobra o se fusiona con uno.
+     */
+    private void reparar(Pagina padre, int i) {
+        Pagina izquierdo = i > 0 ? padre.hijos[i - 1] : null;
+        Pagina derecho = i < padre.n ? padre.hijos[i + 1] : null;
+        if (izquierdo != null && izquierdo.n > minimo) {
+            pedirIzquierdo(padre, i);
+        } else if (derecho != null && derecho.n > minimo) {
+            pedirDerecho(padre, i);
+        } else if (izquierdo != null) {
+            fusionar(padre, i - 1);
+        } else {
+            fusionar(padre, i);
+        }
+    }
+
+    private static void pedirIzquierdo(Pagina padre, int i) {
+        Pagina pagina = padre.hijos[i];
+        Pagina izquierdo = padre.hijos[i - 1];
+        System.arraycopy(pagina.claves, 0, pagina.claves, 1, pagina.n);
+        if (pagina.esHoja()) {
+            pagina.claves[0] = izquierdo.claves[izquierdo.n - 1];
+            padre.claves[i - 1] = pagina.claves[0];
+        } else {
+            System.arraycopy(pagina.hijos, 0, pagina.hijos, 1, pagina.n + 1);
+            pagina.claves[0] = padre.claves[i - 1];
+            pagina.hijos[0] = izquierdo.hijos[izquierdo.n];
+            izquierdo.hijos[izquierdo.n] = null;
+            padre.claves[i - 1] = izquierdo.claves[izquierdo.n - 1];
+        }
+        izquierdo.n--;
+        pagina.n++;
+    }
+
+    private static void pedirDerecho(Pagina padre, int i) {
+        Pagina pagina = padre.hijos[i];
+        Pagina derecho = padre.hijos[i + 1];
+        if (pagina.esHoja()) {
+            pagina.claves[pagina.n] = derecho.claves[0];
+            System.arraycopy(derecho.claves, 1, derecho.claves, 0, derecho.n - 1);
+            padre.claves[i] = derecho.claves[0];
+        } else {
+            pagina.claves[pagina.n] = padre.claves[i];
+            pagina.hijos[pagina.n + 1] = derecho.hijos[0];
+            padre.claves[i] = derecho.claves[0];
+            System.arraycopy(derecho.claves, 1, derecho.claves, 0, derecho.n - 1);
+            System.arraycopy(derecho.hijos, 1, derecho.hijos, 0, derecho.n);
+            derecho.hijos[derecho.n] = null;
+        }
+        derecho.n--;
+        pagina.n++;
+    }
+
+    /**
+     * Junta los hijos k y k + 1 en el k y quita su separador del padre.
+     */
+    private static void fusionar(Pagina padre, int k) {
+        Pagina izquierdo = padre.hijos[k];
+        Pagina derecho = padre.hijos[k + 1];
+        if (izquierdo.esHoja()) {
+            System.arraycopy(derecho.claves, 0, izquierdo.claves, izquierdo.n, derecho.n);
+            izquierdo.n += derecho.n;
+            izquierdo.siguiente = derecho.siguiente;
+        } else {
+            izquierdo.claves[izquierdo.n] = padre.claves[k];
+            System.arraycopy(derecho.claves, 0, izquierdo.claves, izquierdo.n + 1, derecho.n);
+            System.arraycopy(derecho.hijos, 0, izquierdo.hijos, izquierdo.n + 1, derecho.n + 1);
+            izquierdo.n += derecho.n + 1;
+        }
+        System.arraycopy(padre.claves, k + 1, padre.claves, k, padre.n - k - 1);
+        System.arraycopy(padre.hijos, k + 2, padre.hijos, k + 1, padre.n - k - 1);
+        padre.hijos[padre.n] = null;
+        padre.n--;
+    }
+
+    // --- Consultas ---
+
+    @Override
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Niveles de páginas, contando las hojas (vacío = 1).
+     */
+    public int niveles() {
+        return niveles;
+    }
+
+    @Override
+    public void limpiar() {
+        raiz = new Pagina(capacidad, true);
+        cantidad = 0;
+        niveles = 1;
+    }
+
+    @Override
+    public OptionalInt piso(int dato) {
+        Pagina pagina = raiz;
+        Pagina anterior = null; // Subárbol inmediatamente a la izquierda del camino
+        while (!pagina.esHoja()) {
+            int i = hijo(pagina, dato);
+            if (i > 0) {
+                anterior = pagina.hijos[i - 1];
+            }
+            pagina = pagina.hijos[i];
+        }
+        int i = posicion(pagina.claves, pagina.n, dato);
+        if (i < pagina.n && pagina.claves[i] == dato) {
+            return OptionalInt.of(dato);
+        }
+        if (i > 0) {
+            return OptionalInt.of(pagina.claves[i - 1]);
+        }
+        if (anterior == null) {
+            return OptionalInt.empty();
+        }
+        while (!anterior.esHoja()) {
+            anterior = anterior.hijos[anterior.n];
+        }
+        return OptionalInt.of(anterior.claves[anterior.n - 1]);
+    }
+
+    @Override
+    public OptionalInt techo(int dato) {
+        Pagina hoja = hoja(dato);
+        int i = posicion(hoja.claves, hoja.n, dato);
+        if (i == hoja.n) {
+            hoja = hoja.siguiente;
+            i = 0;
+        }
+        return hoja == null ? OptionalInt.empty() : OptionalInt.of(hoja.claves[i]);
+    }
+
+    @Override
+    public void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        if (desde > hasta) {
+            return;
+        }
+        Pagina hoja = hoja(desde);
+        int i = posicion(hoja.claves, hoja.n, desde);
+        while (hoja != null) {
+            for (; i < hoja.n; i++) {
+                if (hoja.claves[i] > hasta) {
+                    return;
+                }
+                visitante.accept(hoja.claves[i]);
+            }
+            hoja = hoja.siguiente;
+            i = 0;
+        }
+    }
+
+    @Override
+    public void recorrerInOrden(IntConsumer visitante) {
+        Pagina hoja = raiz;
+        while (!hoja.esHoja()) {
+            hoja = hoja.hijos[0];
+        }
+        for (; hoja != null; hoja = hoja.siguiente) {
+            for (int i = 0; i < hoja.n; i++) {
+                visitante.accept(hoja.claves[i]);
+            }
+        }
+    }
+
+    @Override
+    public String describir() {
+        return cantidad + " claves, " + niveles + " niveles de páginas de " + capacidad;
+    }
+}
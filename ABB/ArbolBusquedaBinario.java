@@ -1,6 +1,15 @@
 package practicos.ABB;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Clase Árbol Binario de Búsqueda (ABB)
@@ -9,105 +18,1234 @@ import java.util.ArrayList;
  * Propiedades del ABB:
  * - El subárbol izquierdo contiene valores menores.
  * - El subárbol derecho contiene valores mayores.
- * - No permite valores duplicados.
+ * - No permite valores duplicados, salvo en modo multiconjunto.
+ *
+ * En modo multiconjunto cada nodo lleva un contador de ocurrencias
+ * ({@link NodoContado}; los conjuntos no pagan ese campo): una
+ * clave repetida cuesta un descenso y sumar al contador, sin nodos
+ * nuevos. {@link #agregar}, {@link #contar} y {@link #eliminarUno}
+ * trabajan con las ocurrencias; los recorridos entregan cada clave una
+ * vez salvo que se pida expandirlas. {@link #tamano()} sigue contando
+ * claves distintas (nodos) y {@link #ocurrencias()} el total.
+ *
+ * En modo {@link ModoBalanceo#AVL} el árbol rota al insertar y eliminar para
+ * que la diferencia de alturas entre subárboles nunca supere 1, de modo que
+ * las entradas ordenadas no lo degeneren en una lista enlazada.
+ *
+ * En modo {@link ModoBalanceo#SPLAY} cada búsqueda, inserción o
+ * eliminación sube el nodo tocado a la raíz, de modo que las claves más
+ * consultadas quedan a pocos pasos.
+ *
+ * {@link #buscar(int)} aprovecha además el último acceso: un acierto
+ * repetido sobre {@code nodoBuscado} cuesta O(1) y, en los demás modos,
+ * la búsqueda arranca desde el camino anterior (finger search): sube solo
+ * hasta el ancestro cuyo rango contiene al valor y baja desde ahí.
+ *
+ * Es el motor por defecto de {@link ConjuntoOrdenado} y el único que el
+ * simulador dibuja.
+ *
+ * {@link #congelar()} exporta una copia de solo lectura en un arreglo,
+ * para búsquedas más rápidas cuando el árbol ya casi no cambia.
+ *
+ * {@link #snapshot()} devuelve en O(1) una versión inmutable del árbol.
+ * Los nodos se copian al escribir: cada nodo lleva la marca de la versión
+ * que lo creó y una modificación solo escribe sobre nodos propios; los
+ * demás se copian junto con su camino a la raíz, compartiendo el resto.
+ *
+ * {@link #activarHuellas()} agrega a cada subárbol una huella de su
+ * contenido, para comparar réplicas en O(1) ({@link #mismoContenido}) y
+ * sincronizarlas ({@link ReplicacionABB}). Es opcional porque cuesta 8
+ * bytes por nodo y un hash en cada actualización del camino.
  *
  * @author Diana Mabel Garcia
  *         diabegarciamtz@gmail.com  05/12/2025
  */
-public class ArbolBusquedaBinario {
+public class ArbolBusquedaBinario implements ConjuntoOrdenado {
     private Nodo raiz;
     private Nodo nodoBuscado; // Para resaltar el nodo encontrado
+    private ModoBalanceo modo;
+    private Nodo[] camino = new Nodo[32]; // Camino del último descenso
+    private Object propietario = new Object(); // Marca de los nodos modificables
+    private EstadisticasABB estadisticas; // null = sin instrumentación
+    private int comparaciones; // De la última operación, para las estadísticas
+    private int descenso;      // Nodos del camino de la última operación
+    private int modificaciones; // Cambia con cada modificación del contenido o la forma
+    private final boolean multiconjunto;
+    private boolean huellas; // Nodos NodoHuella, ver activarHuellas()
+    private long ocurrencias; // Total de ocurrencias; solo se usa en modo multiconjunto
+    private int conteo; // Ocurrencias de la clave tras la última inserción o eliminación
+    private boolean instantanea; // Creado por snapshot(): buscar no escribe nada
+
+    // --- Dedo: camino de la última búsqueda y el rango abierto de cada nodo ---
+    private Nodo[] dedo = new Nodo[32];
+    private long[] dedoMinimos = new long[32];
+    private long[] dedoMaximos = new long[32];
+    private int largoDedo;
+    private int versionDedo = -1; // Valor de modificaciones cuando se guardó
 
     /**
      * Constructor del ABB
      */
     public ArbolBusquedaBinario() {
+        this(ModoBalanceo.NINGUNO);
+    }
+
+    /**
+     * Constructor del ABB con un modo de balanceo.
+     * @param modo Modo de balanceo a utilizar.
+     */
+    public ArbolBusquedaBinario(ModoBalanceo modo) {
+        this(modo, false);
+    }
+
+    /**
+     * Constructor del ABB con un modo de balanceo, como conjunto o como
+     * multiconjunto.
+     * @param modo Modo de balanceo a utilizar.
+     * @param multiconjunto true para contar las claves repetidas en lugar de rechazarlas.
+     */
+    public ArbolBusquedaBinario(ModoBalanceo modo, boolean multiconjunto) {
         this.raiz = null;
         this.nodoBuscado = null;
+        this.modo = modo;
+        this.multiconjunto = multiconjunto;
     }
 
     public Nodo getRaiz() {
         return raiz;
     }
-    
+
+    public ModoBalanceo getModoBalanceo() {
+        return modo;
+    }
+
+    public boolean isMulticonjunto() {
+        return multiconjunto;
+    }
+
+    /**
+     * Cambia el modo de balanceo.
+     * Si el árbol ya tiene nodos y se activa AVL, se reconstruye balanceado.
+     * @param modo Nuevo modo de balanceo.
+     */
+    public void setModoBalanceo(ModoBalanceo modo) {
+        if (this.modo == modo) {
+            return;
+        }
+        this.modo = modo;
+        if (modo == ModoBalanceo.AVL && raiz != null) {
+            int[] datos = new int[tamano()];
+            int[] conteos = multiconjunto ? new int[datos.length] : null;
+            llenarConteos(datos, conteos);
+            raiz = construirBalanceado(datos, conteos, 0, datos.length);
+            modificaciones++;
+            nodoBuscado = null;
+        }
+    }
+
+    /**
+     * Contador de modificaciones: cambia cada vez que se inserta, elimina,
+     * carga, rebalancea, limpia o (en modo splay) se reacomoda al buscar.
+     * Sirve para saber si algo que se calculó a partir del árbol (por
+     * ejemplo su dibujo) sigue vigente.
+     */
+    public int getModificaciones() {
+        return modificaciones;
+    }
+
+    /**
+     * Número de nodos del árbol.
+     */
+    public int tamano() {
+        return tamano(raiz);
+    }
+
+    /**
+     * Total de ocurrencias: en modo multiconjunto la suma de los
+     * contadores, si no igual a {@link #tamano()}.
+     */
+    public long ocurrencias() {
+        return multiconjunto ? ocurrencias : tamano();
+    }
+
+    /**
+     * Altura del árbol (vacío = 0).
+     */
+    public int altura() {
+        return altura(raiz);
+    }
+
+    // --- Huellas ---
+
+    /**
+     * Hace que cada nodo guarde la huella de su subárbol
+     * ({@link NodoHuella}) y la mantenga al modificarse. Reemplaza los
+     * nodos actuales por copias con la misma forma, en O(n); si ya estaban
+     * activas no hace nada. Las instantáneas y los resultados de las
+     * operaciones de conjuntos entre árboles con huellas las heredan.
+     */
+    public void activarHuellas() {
+        if (huellas) {
+            return;
+        }
+        huellas = true;
+        propietario = new Object(); // Los nodos viejos pueden estar compartidos
+        if (raiz == null) {
+            return;
+        }
+        // Copia en postorden sin recursión: los hijos ya copiados esperan en una pila
+        ArrayDeque<Nodo> pila = new ArrayDeque<>();
+        ArrayDeque<Nodo> copias = new ArrayDeque<>();
+        Nodo actual = raiz;
+        Nodo anterior = null;
+        while (actual != null || !pila.isEmpty()) {
+            if (actual != null) {
+                pila.push(actual);
+                actual = actual.getIzquierdo();
+                continue;
+            }
+            Nodo tope = pila.peek();
+            if (tope.getDerecho() != null && tope.getDerecho() != anterior) {
+                actual = tope.getDerecho();
+                continue;
+            }
+            pila.pop();
+            NodoHuella copia = new NodoHuella(tope.getDato(), propietario);
+            copia.setContador(tope.getContador());
+            if (tope.getDerecho() != null) {
+                copia.setDerecho(copias.pop());
+            }
+            if (tope.getIzquierdo() != null) {
+                copia.setIzquierdo(copias.pop());
+            }
+            actualizar(copia);
+            copias.push(copia);
+            anterior = tope;
+        }
+        raiz = copias.pop();
+        modificaciones++;
+        nodoBuscado = null;
+    }
+
+    public boolean isHuellasActivas() {
+        return huellas;
+    }
+
+    /**
+     * Huella del contenido: suma de las huellas de todos los valores, en
+     * O(1). Depende solo de qué valores hay (y cuántas veces, en modo
+     * multiconjunto), no de la forma del árbol.
+     * @throws IllegalStateException Si las huellas no están activas.
+     */
+    public long huella() {
+        comprobarHuellas();
+        return NodoHuella.huella(raiz);
+    }
+
+    /**
+     * Compara el contenido con el de otro árbol. Si ambos tienen huellas
+     * cuesta O(1) (tamaño y huella, sin recorrerlos): dos contenidos
+     * distintos coinciden solo por una colisión de 64 bits (probabilidad
+     * del orden de 2^-64), así que sirve para verificar réplicas, no
+     * contra datos elegidos por un atacante. Si no, recorre ambos en O(n).
+     * @return true si (salvo esa colisión) tienen los mismos valores.
+     */
+    public boolean mismoContenido(ArbolBusquedaBinario otro) {
+        if (tamano() != otro.tamano() || ocurrencias() != otro.ocurrencias()) {
+            return false;
+        }
+        if (huellas && otro.huellas) {
+            return huella() == otro.huella();
+        }
+        int[] datos = new int[tamano()];
+        int[] conteos = new int[datos.length];
+        llenarConteos(datos, conteos);
+        int[] otrosDatos = new int[datos.length];
+        int[] otrosConteos = new int[datos.length];
+        otro.llenarConteos(otrosDatos, otrosConteos);
+        return Arrays.equals(datos, otrosDatos) && Arrays.equals(conteos, otrosConteos);
+    }
+
+    private void comprobarHuellas() {
+        if (!huellas) {
+            throw new IllegalStateException("Las huellas no están activas (ver activarHuellas)");
+        }
+    }
+
     
     /**
      * Inserta un valor en el árbol.
+     * Desciende una sola vez guardando el camino y luego lo recorre de
+     * regreso para actualizar alturas y rebalancear, sin recursión.
+     * En modo multiconjunto un valor repetido suma una ocurrencia.
      * @param dato Valor a insertar.
-     * @return true si se insertó, false si ya existía.
+     * @return true si se insertó, false si ya existía (en modo
+     *         multiconjunto siempre true).
      */
     public boolean insertar(int dato) {
-        if (buscar(dato)) {
-            return false; // No permitir duplicados
+        if (estadisticas == null) {
+            return insertarNodo(dato, 1);
         }
-        raiz = insertarRecursivo(raiz, dato);
-        nodoBuscado = null;
-        return true;
+        long inicio = estadisticas.iniciar();
+        boolean insertado = insertarNodo(dato, 1);
+        estadisticas.registrar(EstadisticasABB.Operacion.INSERTAR, comparaciones, descenso, inicio);
+        return insertado;
     }
 
     /**
-     * Método recursivo para insertar.
+     * Agrega ocurrencias de un valor (modo multiconjunto). Si ya existe
+     * solo suma a su contador: un descenso y ningún nodo nuevo (salvo las
+     * copias del camino si está compartido con una instantánea).
+     * @param dato Valor a agregar.
+     * @param veces Ocurrencias a sumar (al menos 1).
+     * @return Ocurrencias del valor después de agregar.
+     * @throws IllegalStateException Si el árbol no es multiconjunto.
      */
-    private Nodo insertarRecursivo(Nodo nodo, int dato) {
-        if (nodo == null) {
-            return new Nodo(dato);
+    public int agregar(int dato, int veces) {
+        comprobarMulticonjunto();
+        if (veces < 1) {
+            throw new IllegalArgumentException("Se debe agregar al menos una ocurrencia");
         }
+        if (estadisticas == null) {
+            insertarNodo(dato, veces);
+            return conteo;
+        }
+        long inicio = estadisticas.iniciar();
+        insertarNodo(dato, veces);
+        estadisticas.registrar(EstadisticasABB.Operacion.INSERTAR, comparaciones, descenso, inicio);
+        return conteo;
+    }
 
-        if (dato < nodo.getDato()) {
-            nodo.setIzquierdo(insertarRecursivo(nodo.getIzquierdo(), dato));
-        } else if (dato > nodo.getDato()) {
-            nodo.setDerecho(insertarRecursivo(nodo.getDerecho(), dato));
+    /**
+     * Ocurrencias de un valor: 0 o 1 en un conjunto, su contador en un
+     * multiconjunto.
+     */
+    public int contar(int dato) {
+        Nodo actual = raiz;
+        while (actual != null) {
+            if (dato == actual.getDato()) {
+                return actual.getContador();
+            }
+            actual = dato < actual.getDato() ? actual.getIzquierdo() : actual.getDerecho();
+        }
+        return 0;
+    }
+
+    private void comprobarMulticonjunto() {
+        if (!multiconjunto) {
+            throw new IllegalStateException("El árbol no está en modo multiconjunto");
+        }
+    }
+
+    private boolean insertarNodo(int dato, int veces) {
+        if (raiz == null) {
+            raiz = nuevoNodo(dato, veces);
+            comparaciones = 0;
+            descenso = 0;
+            modificaciones++;
+            nodoBuscado = null;
+            return true;
+        }
+
+        int profundidad = 0;
+        Nodo actual = raiz;
+        while (true) {
+            apilarCamino(profundidad++, actual);
+            if (dato < actual.getDato()) {
+                if (actual.getIzquierdo() == null) {
+                    break;
+                }
+                actual = actual.getIzquierdo();
+            } else if (dato > actual.getDato()) {
+                if (actual.getDerecho() == null) {
+                    break;
+                }
+                actual = actual.getDerecho();
+            } else {
+                comparaciones = profundidad;
+                descenso = profundidad;
+                if (!multiconjunto) {
+                    nodoBuscado = actual;
+                    Arrays.fill(camino, 0, profundidad, null); // Que no retenga nodos viejos
+                    return false; // No permitir duplicados
+                }
+                cambiarContador(profundidad, Math.addExact(actual.getContador(), veces));
+                ocurrencias += veces;
+                return true;
+            }
+        }
+        comparaciones = profundidad;
+        descenso = profundidad;
+
+        prepararCamino(profundidad);
+        Nodo padre = camino[profundidad - 1];
+        Nodo nuevo = nuevoNodo(dato, veces);
+        if (dato < padre.getDato()) {
+            padre.setIzquierdo(nuevo);
+        } else {
+            padre.setDerecho(nuevo);
         }
+        if (modo == ModoBalanceo.SPLAY) {
+            apilarCamino(profundidad, nuevo);
+            ajustarCamino(profundidad + 1);
+        } else {
+            rebalancearCamino(profundidad);
+        }
+        modificaciones++;
+        nodoBuscado = null;
+        return true;
+    }
 
+    /**
+     * Crea la hoja de un valor nuevo con sus ocurrencias y las cuenta.
+     */
+    private Nodo nuevoNodo(int dato, int veces) {
+        Nodo nodo = crearNodo(dato);
+        if (veces != 1) {
+            ((NodoContado) nodo).setContador(veces);
+            actualizar(nodo);
+        }
+        ocurrencias += veces;
+        conteo = veces;
         return nodo;
     }
 
+    /**
+     * Cambia el contador del último nodo del camino (de {@code profundidad}
+     * nodos) y recalcula las huellas hacia arriba; la forma no cambia,
+     * salvo en modo splay, donde el nodo sube a la raíz como en cualquier
+     * acceso.
+     */
+    private void cambiarContador(int profundidad, int contador) {
+        prepararCamino(profundidad);
+        ((NodoContado) camino[profundidad - 1]).setContador(contador);
+        if (modo == ModoBalanceo.SPLAY) {
+            ajustarCamino(profundidad);
+        } else {
+            for (int i = profundidad - 1; i >= 0; i--) {
+                actualizar(camino[i]);
+                camino[i] = null;
+            }
+        }
+        conteo = contador;
+        modificaciones++;
+        nodoBuscado = null;
+    }
+
     /**
      * Elimina un nodo del árbol.
+     * Maneja los 3 casos: hoja, un hijo, dos hijos.
+     * En el caso de dos hijos la búsqueda del sucesor continúa el mismo
+     * descenso en lugar de volver a bajar desde el nodo eliminado.
+     * En modo multiconjunto elimina el valor con todas sus ocurrencias
+     * (ver {@link #eliminarUno}).
      * @param dato Valor a eliminar.
      * @return true si se eliminó, false si no existía.
      */
     public boolean eliminar(int dato) {
-        if (!buscar(dato)) {
+        if (estadisticas == null) {
+            return eliminarNodo(dato, false);
+        }
+        long inicio = estadisticas.iniciar();
+        boolean eliminado = eliminarNodo(dato, false);
+        estadisticas.registrar(EstadisticasABB.Operacion.ELIMINAR, comparaciones, descenso, inicio);
+        return eliminado;
+    }
+
+    /**
+     * Quita una ocurrencia del valor; el nodo se elimina solo cuando su
+     * contador llega a cero. En un conjunto equivale a {@link #eliminar}.
+     * @param dato Valor a quitar.
+     * @return true si había al menos una ocurrencia.
+     */
+    public boolean eliminarUno(int dato) {
+        if (estadisticas == null) {
+            return eliminarNodo(dato, true);
+        }
+        long inicio = estadisticas.iniciar();
+        boolean eliminado = eliminarNodo(dato, true);
+        estadisticas.registrar(EstadisticasABB.Operacion.ELIMINAR, comparaciones, descenso, inicio);
+        return eliminado;
+    }
+
+    private boolean eliminarNodo(int dato, boolean soloUna) {
+        int profundidad = 0;
+        Nodo actual = raiz;
+        while (actual != null && actual.getDato() != dato) {
+            apilarCamino(profundidad++, actual);
+            actual = dato < actual.getDato() ? actual.getIzquierdo() : actual.getDerecho();
+        }
+        comparaciones = actual == null ? profundidad : profundidad + 1;
+        descenso = profundidad;
+        if (actual == null) {
+            nodoBuscado = null;
+            Arrays.fill(camino, 0, profundidad, null);
             return false;
         }
-        raiz = eliminarRecursivo(raiz, dato);
+        if (soloUna && actual.getContador() > 1) {
+            apilarCamino(profundidad, actual);
+            cambiarContador(profundidad + 1, actual.getContador() - 1);
+            ocurrencias--;
+            return true;
+        }
+        ocurrencias -= actual.getContador();
+        conteo = 0;
+
+        if (actual.getIzquierdo() != null && actual.getDerecho() != null) {
+            // Caso 3: Nodo con dos hijos, se sustituye por su sucesor
+            int posicion = profundidad;
+            apilarCamino(profundidad++, actual);
+            Nodo sucesor = actual.getDerecho();
+            while (sucesor.getIzquierdo() != null) {
+                apilarCamino(profundidad++, sucesor);
+                sucesor = sucesor.getIzquierdo();
+            }
+            descenso = profundidad;
+            prepararCamino(profundidad);
+            camino[posicion].setDato(sucesor.getDato());
+            if (multiconjunto) {
+                ((NodoContado) camino[posicion]).setContador(sucesor.getContador());
+            }
+            reemplazarHijo(profundidad, sucesor, sucesor.getDerecho());
+        } else {
+            // Casos 1 y 2: hoja o un solo hijo
+            prepararCamino(profundidad);
+            Nodo hijo = actual.getIzquierdo() != null ? actual.getIzquierdo() : actual.getDerecho();
+            reemplazarHijo(profundidad, actual, hijo);
+        }
+
+        if (modo == ModoBalanceo.SPLAY) {
+            ajustarCamino(profundidad); // Sube al padre del nodo que se quitó
+        } else {
+            rebalancearCamino(profundidad);
+        }
+        modificaciones++;
         nodoBuscado = null;
         return true;
     }
 
     /**
-     * Método recursivo para eliminar.
-     * Maneja los 3 casos: hoja, un hijo, dos hijos.
+     * Busca un valor en el árbol.
+     * Un acierto repetido sobre el último nodo encontrado cuesta O(1). En
+     * modo splay el nodo encontrado (o el último visitado) sube a la raíz;
+     * en los demás se parte del camino de la búsqueda anterior.
+     * En una instantánea ({@link #snapshot()}) equivale a
+     * {@link #contiene(int)}: no reacomoda, no guarda el camino ni resalta
+     * el nodo, para que varios lectores puedan buscar a la vez.
+     * @param dato Valor a buscar.
+     * @return true si existe, false si no.
+     */
+    public boolean buscar(int dato) {
+        if (instantanea) {
+            return contiene(dato);
+        }
+        long inicio = estadisticas == null ? 0 : estadisticas.iniciar();
+        boolean encontrado;
+        if (nodoBuscado != null && nodoBuscado.getDato() == dato) {
+            comparaciones = 1;
+            descenso = 0;
+            encontrado = true;
+        } else if (modo == ModoBalanceo.SPLAY) {
+            encontrado = buscarAjustando(dato);
+        } else {
+            encontrado = buscarDesdeDedo(dato);
+        }
+        if (estadisticas != null) {
+            estadisticas.registrar(EstadisticasABB.Operacion.BUSCAR, comparaciones, descenso, inicio);
+        }
+        return encontrado;
+    }
+
+    /**
+     * Finger search: si el árbol no cambió desde la búsqueda anterior, se
+     * sube por su camino hasta el primer nodo cuyo rango abierto
+     * (minimo, maximo) contiene al valor y se baja desde ahí. Para valores
+     * cercanos al anterior el ancestro común está cerca del fondo.
+     */
+    private boolean buscarDesdeDedo(int dato) {
+        int nivel = 0;
+        Nodo actual = raiz;
+        long minimo = Long.MIN_VALUE;
+        long maximo = Long.MAX_VALUE;
+        int pasos = 0;
+        if (versionDedo == modificaciones && largoDedo > 0 && dedo[0] == raiz) {
+            nivel = largoDedo - 1;
+            while (nivel > 0 && (dato <= dedoMinimos[nivel] || dato >= dedoMaximos[nivel])) {
+                nivel--;
+                pasos++;
+            }
+            actual = dedo[nivel];
+            minimo = dedoMinimos[nivel];
+            maximo = dedoMaximos[nivel];
+        }
+
+        int comparados = 0;
+        while (actual != null) {
+            guardarDedo(nivel++, actual, minimo, maximo);
+            comparados++;
+            if (dato == actual.getDato()) {
+                break;
+            }
+            if (dato < actual.getDato()) {
+                maximo = actual.getDato();
+                actual = actual.getIzquierdo();
+            } else {
+                minimo = actual.getDato();
+                actual = actual.getDerecho();
+            }
+        }
+        largoDedo = nivel;
+        versionDedo = modificaciones;
+        comparaciones = comparados;
+        descenso = pasos + comparados;
+        nodoBuscado = actual;
+        return actual != null;
+    }
+
+    private void guardarDedo(int nivel, Nodo nodo, long minimo, long maximo) {
+        if (nivel == dedo.length) {
+            dedo = Arrays.copyOf(dedo, nivel * 2);
+            dedoMinimos = Arrays.copyOf(dedoMinimos, nivel * 2);
+            dedoMaximos = Arrays.copyOf(dedoMaximos, nivel * 2);
+        }
+        dedo[nivel] = nodo;
+        dedoMinimos[nivel] = minimo;
+        dedoMaximos[nivel] = maximo;
+    }
+
+    /**
+     * Búsqueda en modo splay: baja guardando el camino y sube a la raíz el
+     * nodo encontrado o, si no existe, el último que se visitó.
+     */
+    private boolean buscarAjustando(int dato) {
+        int profundidad = 0;
+        Nodo actual = raiz;
+        while (actual != null) {
+            apilarCamino(profundidad++, actual);
+            if (dato == actual.getDato()) {
+                break;
+            }
+            actual = dato < actual.getDato() ? actual.getIzquierdo() : actual.getDerecho();
+        }
+        comparaciones = profundidad;
+        descenso = profundidad;
+        if (profundidad > 1) {
+            prepararCamino(profundidad);
+            ajustarCamino(profundidad);
+            modificaciones++;
+        } else if (profundidad == 1) {
+            camino[0] = null;
+        }
+        nodoBuscado = actual != null ? raiz : null;
+        return actual != null;
+    }
+
+    /**
+     * Indica si un valor existe sin tocar el nodo resaltado.
+     * A diferencia de {@link #buscar(int)} no escribe ningún campo, por lo
+     * que varios lectores pueden usarlo a la vez.
+     * @param dato Valor a buscar.
+     * @return true si existe, false si no.
+     */
+    public boolean contiene(int dato) {
+        Nodo actual = raiz;
+        while (actual != null && actual.getDato() != dato) {
+            actual = dato < actual.getDato() ? actual.getIzquierdo() : actual.getDerecho();
+        }
+        return actual != null;
+    }
+
+    // --- Instrumentación ---
+
+    /**
+     * Activa la instrumentación y la publica como MBean con el nombre
+     * {@code practicos.ABB:type=EstadisticasABB,name=<nombre>}.
+     * Si ya estaba activa se devuelve la existente.
+     * @param nombre Nombre del árbol en JMX.
+     * @return Estadísticas del árbol.
+     */
+    public EstadisticasABB activarEstadisticas(String nombre) {
+        if (estadisticas == null) {
+            EstadisticasABB nuevas = new EstadisticasABB(this);
+            nuevas.registrar(nombre);
+            estadisticas = nuevas;
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Desactiva la instrumentación y retira el MBean.
+     */
+    public void desactivarEstadisticas() {
+        if (estadisticas != null) {
+            estadisticas.retirar();
+            estadisticas = null;
+        }
+    }
+
+    public EstadisticasABB getEstadisticas() {
+        return estadisticas;
+    }
+
+    // --- Instantáneas ---
+
+    /**
+     * Devuelve una versión del árbol que ya no cambia, en O(1).
+     * Ambos árboles comparten todos los nodos; a partir de aquí cualquier
+     * modificación (en este árbol o en la instantánea) copia los nodos
+     * que toca en lugar de escribir sobre los compartidos. Los lectores de
+     * la instantánea ven una vista estable sin cerrojos ni copias completas,
+     * siempre que no usen los setters de {@link Nodo} directamente; por
+     * eso en la instantánea {@link #buscar(int)} no reacomoda (ni en modo
+     * splay) ni mueve el dedo. Las escrituras sobre la instantánea sí
+     * necesitan un único escritor, igual que en cualquier otro árbol.
+     * @return Árbol independiente con el contenido actual.
+     */
+    public ArbolBusquedaBinario snapshot() {
+        ArbolBusquedaBinario copia = new ArbolBusquedaBinario(modo, multiconjunto);
+        copia.instantanea = true;
+        copia.raiz = raiz;
+        copia.huellas = huellas;
+        copia.ocurrencias = ocurrencias;
+        propietario = new Object(); // Los nodos actuales quedan congelados
+        return copia;
+    }
+
+    /**
+     * Exporta las claves actuales a un {@link ArbolCongelado}: un arreglo
+     * inmutable en disposición de Eytzinger, con búsquedas sin saltos y
+     * sin punteros. Cuesta O(n) y no comparte nada con este árbol.
+     * @return Copia de solo lectura con el contenido actual.
+     */
+    public ArbolCongelado congelar() {
+        int[] ordenados = new int[tamano()];
+        return new ArbolCongelado(ordenados, llenarInOrden(ordenados));
+    }
+
+    /**
+     * Devuelve el nodo listo para modificarse: el mismo si pertenece a esta
+     * versión, o una copia si está compartido con una instantánea.
+     * Quien llama debe enlazar la copia en su padre.
+     */
+    private Nodo editable(Nodo nodo) {
+        return nodo.getPropietario() == propietario ? nodo : nodo.copiar(propietario);
+    }
+
+    /**
+     * Nodo nuevo de esta versión: con huella si están activas, con
+     * contador en un multiconjunto y si no el {@link Nodo} simple.
+     */
+    private Nodo crearNodo(int dato) {
+        if (huellas) {
+            return new NodoHuella(dato, propietario);
+        }
+        return multiconjunto ? new NodoContado(dato, propietario) : new Nodo(dato, propietario);
+    }
+
+    // --- Carga masiva ---
+
+    /**
+     * Reemplaza el contenido del árbol por los valores dados, construyendo
+     * un árbol perfectamente balanceado en tiempo lineal.
+     * Si los valores no vienen ordenados se ordenan con radix sort (también
+     * lineal); los repetidos se descartan, o se cuentan en modo multiconjunto.
+     * @param datos Valores a cargar (no se modifica el arreglo).
+     */
+    public void cargar(int[] datos) {
+        int[] ordenados = datos.clone();
+        OrdenacionRadix.ordenar(ordenados, 0, ordenados.length);
+        if (multiconjunto) {
+            int[] conteos = new int[ordenados.length];
+            cargarOrdenados(ordenados, conteos, agruparRepetidos(ordenados, ordenados.length, conteos));
+            return;
+        }
+        int distintos = OrdenacionRadix.eliminarRepetidos(ordenados, 0, ordenados.length);
+        raiz = construirBalanceado(ordenados, 0, distintos);
+        modificaciones++;
+        nodoBuscado = null;
+    }
+
+    /**
+     * Igual que {@link #cargar(int[])} para valores que ya vienen en orden
+     * ascendente y sin repetidos, como los que lee {@link PersistenciaABB}:
+     * no copia ni ordena el arreglo.
+     */
+    void cargarOrdenados(int[] ordenados, int cantidad) {
+        cargarOrdenados(ordenados, null, cantidad);
+    }
+
+    /**
+     * Como {@link #cargarOrdenados(int[], int)} con el contador de cada
+     * valor (modo multiconjunto); {@code conteos} null equivale a todos 1.
+     */
+    void cargarOrdenados(int[] ordenados, int[] conteos, int cantidad) {
+        raiz = construirBalanceado(ordenados, conteos, 0, cantidad);
+        ocurrencias = cantidad;
+        if (conteos != null) {
+            ocurrencias = 0;
+            for (int i = 0; i < cantidad; i++) {
+                ocurrencias += conteos[i];
+            }
+        }
+        modificaciones++;
+        nodoBuscado = null;
+    }
+
+    /**
+     * Compacta un arreglo ordenado dejando cada valor una vez y en
+     * {@code conteos} cuántas veces aparecía.
+     * @return Número de valores distintos.
+     */
+    private static int agruparRepetidos(int[] ordenados, int cantidad, int[] conteos) {
+        int distintos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (distintos > 0 && ordenados[distintos - 1] == ordenados[i]) {
+                conteos[distintos - 1]++;
+            } else {
+                ordenados[distintos] = ordenados[i];
+                conteos[distintos++] = 1;
+            }
+        }
+        return distintos;
+    }
+
+    /**
+     * Inserta un lote de valores.
+     * Si el lote es pequeño frente al árbol se inserta uno a uno; si no, se
+     * mezcla en una sola pasada con el recorrido InOrden del árbol y se
+     * reconstruye balanceado, en O(n + m).
+     * En modo multiconjunto los repetidos del lote se agrupan antes, así
+     * que cada valor distinto cuesta un solo descenso.
+     * @param lote Valores a insertar (no se modifica el arreglo).
+     * @return Número de valores nuevos insertados (en modo multiconjunto,
+     *         de ocurrencias agregadas: el largo del lote).
+     */
+    public int insertarLote(int[] lote) {
+        int[] ordenados = lote.clone();
+        OrdenacionRadix.ordenar(ordenados, 0, ordenados.length);
+        if (multiconjunto) {
+            agregarLote(ordenados);
+            return lote.length;
+        }
+        int m = OrdenacionRadix.eliminarRepetidos(ordenados, 0, ordenados.length);
+
+        int insertados = 0;
+        if ((long) m * Math.max(altura(), 1) < (long) tamano() + m) {
+            for (int i = 0; i < m; i++) {
+                if (insertar(ordenados[i])) {
+                    insertados++;
+                }
+            }
+            return insertados;
+        }
+
+        int[] actuales = new int[tamano()];
+        llenarInOrden(actuales);
+        int[] mezcla = new int[actuales.length + m];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < actuales.length || j < m) {
+            if (j == m || (i < actuales.length && actuales[i] < ordenados[j])) {
+                mezcla[k++] = actuales[i++];
+            } else if (i == actuales.length || ordenados[j] < actuales[i]) {
+                mezcla[k++] = ordenados[j++];
+                insertados++;
+            } else {
+                mezcla[k++] = actuales[i++]; // Ya existía
+                j++;
+            }
+        }
+        raiz = construirBalanceado(mezcla, 0, k);
+        modificaciones++;
+        nodoBuscado = null;
+        return insertados;
+    }
+
+    /**
+     * {@link #insertarLote} en modo multiconjunto, con el lote ya ordenado:
+     * igual que con un conjunto, uno a uno si es pequeño frente al árbol
+     * o mezclando y reconstruyendo si no, sumando los contadores.
+     */
+    private void agregarLote(int[] ordenados) {
+        int[] veces = new int[ordenados.length];
+        int m = agruparRepetidos(ordenados, ordenados.length, veces);
+        if ((long) m * Math.max(altura(), 1) < (long) tamano() + m) {
+            for (int i = 0; i < m; i++) {
+                insertarNodo(ordenados[i], veces[i]);
+            }
+            return;
+        }
+
+        int[] actuales = new int[tamano()];
+        int[] conteos = new int[actuales.length];
+        llenarConteos(actuales, conteos);
+        int[] mezcla = new int[actuales.length + m];
+        int[] conteosMezcla = new int[mezcla.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < actuales.length || j < m) {
+            if (j == m || (i < actuales.length && actuales[i] < ordenados[j])) {
+                conteosMezcla[k] = conteos[i];
+                mezcla[k++] = actuales[i++];
+            } else if (i == actuales.length || ordenados[j] < actuales[i]) {
+                conteosMezcla[k] = veces[j];
+                mezcla[k++] = ordenados[j++];
+            } else {
+                conteosMezcla[k] = Math.addExact(conteos[i], veces[j++]);
+                mezcla[k++] = actuales[i++];
+            }
+        }
+        cargarOrdenados(mezcla, conteosMezcla, k);
+    }
+
+    /**
+     * Construye un subárbol balanceado con el rango [desde, hasta) de un
+     * arreglo ordenado sin repetidos. La recursión solo baja O(log n).
+     */
+    private Nodo construirBalanceado(int[] ordenados, int desde, int hasta) {
+        return construirBalanceado(ordenados, null, desde, hasta);
+    }
+
+    /**
+     * Igual, con el contador de cada valor en {@code conteos} (o todos 1 si es null).
      */
-    private Nodo eliminarRecursivo(Nodo nodo, int dato) {
-        if (nodo == null) return null;
+    private Nodo construirBalanceado(int[] ordenados, int[] conteos, int desde, int hasta) {
+        if (desde >= hasta) {
+            return null;
+        }
+        int medio = (desde + hasta) >>> 1;
+        Nodo nodo = crearNodo(ordenados[medio]);
+        if (conteos != null) {
+            ((NodoContado) nodo).setContador(conteos[medio]);
+        }
+        nodo.setIzquierdo(construirBalanceado(ordenados, conteos, desde, medio));
+        nodo.setDerecho(construirBalanceado(ordenados, conteos, medio + 1, hasta));
+        actualizar(nodo);
+        return nodo;
+    }
+
+    // --- Operaciones de conjuntos ---
+    // Ninguna modifica a los árboles que recibe: el resultado es un árbol
+    // nuevo que comparte con ellos los subárboles que no hizo falta tocar.
+    // Si ambos son AVL se usan split y join, en O(m log(n/m + 1)) y en
+    // paralelo para árboles grandes; si no, se mezclan los recorridos
+    // InOrden en O(n + m) y el resultado se construye balanceado.
+    // Trabajan sobre claves distintas, así que no admiten multiconjuntos.
+
+    /**
+     * Valores que están en este árbol o en el otro.
+     */
+    public ArbolBusquedaBinario union(ArbolBusquedaBinario otro) {
+        return operar(OperacionesConjunto.Operacion.UNION, otro);
+    }
+
+    /**
+     * Valores que están en ambos árboles.
+     */
+    public ArbolBusquedaBinario interseccion(ArbolBusquedaBinario otro) {
+        return operar(OperacionesConjunto.Operacion.INTERSECCION, otro);
+    }
+
+    /**
+     * Valores de este árbol que no están en el otro.
+     */
+    public ArbolBusquedaBinario diferencia(ArbolBusquedaBinario otro) {
+        return operar(OperacionesConjunto.Operacion.DIFERENCIA, otro);
+    }
+
+    private ArbolBusquedaBinario operar(OperacionesConjunto.Operacion operacion, ArbolBusquedaBinario otro) {
+        comprobarConjunto(this);
+        comprobarConjunto(otro);
+        ArbolBusquedaBinario resultado = new ArbolBusquedaBinario(modo);
+        resultado.huellas = huellas && otro.huellas;
+        if (modo == ModoBalanceo.AVL && otro.modo == ModoBalanceo.AVL) {
+            // Los nodos actuales pasan a compartirse, igual que en snapshot()
+            propietario = new Object();
+            otro.propietario = new Object();
+            resultado.raiz = new OperacionesConjunto(resultado.propietario, resultado.huellas)
+                    .aplicar(operacion, raiz, otro.raiz);
+            return resultado;
+        }
+        int[] a = new int[tamano()];
+        llenarInOrden(a);
+        int[] b = new int[otro.tamano()];
+        otro.llenarInOrden(b);
+        int[] mezcla = new int[a.length + b.length];
+        int cantidad = OperacionesConjunto.mezclar(operacion, a, b, mezcla);
+        resultado.raiz = resultado.construirBalanceado(mezcla, 0, cantidad);
+        return resultado;
+    }
+
+    /**
+     * Parte el árbol por una clave, sin modificarlo.
+     * @param clave Valor de corte; no queda en ninguna de las dos partes.
+     * @return Dos árboles: {menores que la clave, mayores que la clave}.
+     */
+    public ArbolBusquedaBinario[] dividir(int clave) {
+        comprobarConjunto(this);
+        ArbolBusquedaBinario menores = new ArbolBusquedaBinario(modo);
+        ArbolBusquedaBinario mayores = new ArbolBusquedaBinario(modo);
+        menores.huellas = huellas;
+        mayores.huellas = huellas;
+        if (modo == ModoBalanceo.AVL) {
+            propietario = new Object();
+            // Las dos partes pueden compartir nodos nuevos del corte, así que
+            // se crean con una marca que no es de ninguna: quien escriba copia
+            Object marca = new Object();
+            OperacionesConjunto.Division division = new OperacionesConjunto(marca, huellas).dividir(raiz, clave);
+            menores.raiz = division.menores;
+            mayores.raiz = division.mayores;
+            return new ArbolBusquedaBinario[]{menores, mayores};
+        }
+        int[] datos = new int[tamano()];
+        llenarInOrden(datos);
+        int corte = Arrays.binarySearch(datos, clave);
+        int finMenores = corte >= 0 ? corte : -corte - 1;
+        int inicioMayores = corte >= 0 ? corte + 1 : finMenores;
+        menores.raiz = menores.construirBalanceado(datos, 0, finMenores);
+        mayores.raiz = mayores.construirBalanceado(datos, inicioMayores, datos.length);
+        return new ArbolBusquedaBinario[]{menores, mayores};
+    }
+
+    /**
+     * Une dos árboles cuyos valores no se intercalan (join), sin
+     * modificarlos. Con dos AVL cuesta O(|diferencia de alturas| + log n).
+     * @param menores Árbol con todos sus valores menores que los de {@code mayores}.
+     * @param mayores Árbol con los valores mayores.
+     * @return Árbol nuevo, con el modo de balanceo de {@code menores}.
+     * @throws IllegalArgumentException Si los rangos de valores se traslapan.
+     */
+    public static ArbolBusquedaBinario concatenar(ArbolBusquedaBinario menores, ArbolBusquedaBinario mayores) {
+        comprobarConjunto(menores);
+        comprobarConjunto(mayores);
+        if (menores.raiz != null && mayores.raiz != null
+                && maximo(menores.raiz) >= mayores.encontrarMinimo(mayores.raiz).getDato()) {
+            throw new IllegalArgumentException("Los valores de los árboles se traslapan");
+        }
+        ArbolBusquedaBinario resultado = new ArbolBusquedaBinario(menores.modo);
+        resultado.huellas = menores.huellas && mayores.huellas;
+        if (menores.modo == ModoBalanceo.AVL && mayores.modo == ModoBalanceo.AVL) {
+            menores.propietario = new Object();
+            mayores.propietario = new Object();
+            resultado.raiz = new OperacionesConjunto(resultado.propietario, resultado.huellas)
+                    .concatenar(menores.raiz, mayores.raiz);
+            return resultado;
+        }
+        int[] datos = new int[menores.tamano() + mayores.tamano()];
+        menores.llenarInOrden(datos);
+        int[] resto = new int[mayores.tamano()];
+        mayores.llenarInOrden(resto);
+        System.arraycopy(resto, 0, datos, menores.tamano(), resto.length);
+        resultado.raiz = resultado.construirBalanceado(datos, 0, datos.length);
+        return resultado;
+    }
+
+    private static void comprobarConjunto(ArbolBusquedaBinario arbol) {
+        if (arbol.multiconjunto) {
+            throw new UnsupportedOperationException("Las operaciones de conjuntos no admiten multiconjuntos");
+        }
+    }
+
+    private static int maximo(Nodo nodo) {
+        while (nodo.getDerecho() != null) {
+            nodo = nodo.getDerecho();
+        }
+        return nodo.getDato();
+    }
 
-        if (dato < nodo.getDato()) {
-            nodo.setIzquierdo(eliminarRecursivo(nodo.getIzquierdo(), dato));
-        } else if (dato > nodo.getDato()) {
-            nodo.setDerecho(eliminarRecursivo(nodo.getDerecho(), dato));
+    // --- Camino de descenso ---
+
+    private void apilarCamino(int indice, Nodo nodo) {
+        if (indice == camino.length) {
+            camino = Arrays.copyOf(camino, camino.length * 2);
+        }
+        camino[indice] = nodo;
+    }
+
+    /**
+     * Copia los nodos compartidos del camino antes de modificarlo, de
+     * arriba hacia abajo, enlazando cada copia en su padre (ya propio).
+     */
+    private void prepararCamino(int profundidad) {
+        for (int i = 0; i < profundidad; i++) {
+            Nodo nodo = camino[i];
+            Nodo copia = editable(nodo);
+            if (copia != nodo) {
+                camino[i] = copia;
+                reemplazarHijo(i, nodo, copia);
+            }
+        }
+    }
+
+    /**
+     * Sustituye el hijo {@code viejo} del último nodo del camino
+     * (o la raíz si el camino está vacío) por {@code nuevo}.
+     */
+    private void reemplazarHijo(int profundidad, Nodo viejo, Nodo nuevo) {
+        if (profundidad == 0) {
+            raiz = nuevo;
+            return;
+        }
+        Nodo padre = camino[profundidad - 1];
+        if (padre.getIzquierdo() == viejo) {
+            padre.setIzquierdo(nuevo);
         } else {
-            // Caso 1: Nodo hoja
-            if (nodo.getIzquierdo() == null && nodo.getDerecho() == null) {
-                return null;
+            padre.setDerecho(nuevo);
+        }
+    }
+
+    /**
+     * Recorre el camino guardado de abajo hacia arriba balanceando cada nodo.
+     */
+    private void rebalancearCamino(int profundidad) {
+        for (int i = profundidad - 1; i >= 0; i--) {
+            Nodo nodo = camino[i];
+            camino[i] = null;
+            Nodo nuevo = balancear(nodo);
+            if (nuevo != nodo) {
+                reemplazarHijo(i, nodo, nuevo);
             }
-            // Caso 2: Nodo con un hijo
-            if (nodo.getIzquierdo() == null) {
-                return nodo.getDerecho();
+        }
+    }
+
+    /**
+     * Splay de abajo hacia arriba: sube a la raíz el último nodo del
+     * camino con rotaciones zig, zig-zig y zig-zag, sin recursión. El
+     * camino ya debe ser propio (ver {@link #prepararCamino}); las
+     * rotaciones solo tocan nodos del camino y recalculan alturas y
+     * tamaños a medida que bajan.
+     */
+    private void ajustarCamino(int profundidad) {
+        if (profundidad == 0) {
+            return;
+        }
+        int i = profundidad - 1;
+        Nodo nodo = camino[i];
+        actualizar(nodo); // Al eliminar pudo cambiar uno de sus hijos
+        while (i > 0) {
+            Nodo padre = camino[i - 1];
+            if (i == 1) {
+                // zig
+                subir(nodo, padre);
+                break;
             }
-            if (nodo.getDerecho() == null) {
-                return nodo.getIzquierdo();
+            Nodo abuelo = camino[i - 2];
+            if ((padre.getIzquierdo() == nodo) == (abuelo.getIzquierdo() == padre)) {
+                // zig-zig: primero el padre sobre el abuelo
+                subir(padre, abuelo);
+                subir(nodo, padre);
+            } else {
+                // zig-zag: el nodo sube dos veces
+                subir(nodo, padre);
+                if (abuelo.getIzquierdo() == padre) {
+                    abuelo.setIzquierdo(nodo);
+                } else {
+                    abuelo.setDerecho(nodo);
+                }
+                subir(nodo, abuelo);
             }
-            // Caso 3: Nodo con dos hijos
-            Nodo sucesor = encontrarMinimo(nodo.getDerecho());
-            nodo.setDato(sucesor.getDato());
-            nodo.setDerecho(eliminarRecursivo(nodo.getDerecho(), sucesor.getDato()));
+            reemplazarHijo(i - 2, abuelo, nodo);
+            i -= 2;
+        }
+        raiz = nodo;
+        Arrays.fill(camino, 0, profundidad, null);
+    }
+
+    /**
+     * Rota el hijo sobre su padre sin enlazarlo en el abuelo; ambos
+     * deben ser propios.
+     */
+    private static void subir(Nodo hijo, Nodo padre) {
+        if (padre.getIzquierdo() == hijo) {
+            padre.setIzquierdo(hijo.getDerecho());
+            hijo.setDerecho(padre);
+        } else {
+            padre.setDerecho(hijo.getIzquierdo());
+            hijo.setIzquierdo(padre);
         }
+        actualizar(padre);
+        actualizar(hijo);
+    }
 
+    // --- Balanceo AVL ---
+
+    private static int altura(Nodo nodo) {
+        return nodo == null ? 0 : nodo.getAltura();
+    }
+
+    private static int tamano(Nodo nodo) {
+        return nodo == null ? 0 : nodo.getTamano();
+    }
+
+    /**
+     * Recalcula la altura, el tamaño y (si el nodo la lleva) la huella del
+     * nodo a partir de sus hijos.
+     */
+    private static void actualizar(Nodo nodo) {
+        Nodo izquierdo = nodo.getIzquierdo();
+        Nodo derecho = nodo.getDerecho();
+        nodo.setAltura(1 + Math.max(altura(izquierdo), altura(derecho)));
+        nodo.setTamano(1 + tamano(izquierdo) + tamano(derecho));
+        if (nodo instanceof NodoHuella) {
+            ((NodoHuella) nodo).actualizarHuella();
+        }
+    }
+
+    private static int factorBalance(Nodo nodo) {
+        return altura(nodo.getIzquierdo()) - altura(nodo.getDerecho());
+    }
+
+    /**
+     * Actualiza la altura y el tamaño del nodo y, en modo AVL, aplica la rotación
+     * simple o doble que corresponda.
+     * @return Nueva raíz del subárbol.
+     */
+    private Nodo balancear(Nodo nodo) {
+        actualizar(nodo);
+        if (modo != ModoBalanceo.AVL) {
+            return nodo;
+        }
+
+        int balance = factorBalance(nodo);
+        if (balance > 1) {
+            // Caso izquierda-derecha: rotación doble
+            if (factorBalance(nodo.getIzquierdo()) < 0) {
+                nodo.setIzquierdo(rotarIzquierda(nodo.getIzquierdo()));
+            }
+            return rotarDerecha(nodo);
+        }
+        if (balance < -1) {
+            // Caso derecha-izquierda: rotación doble
+            if (factorBalance(nodo.getDerecho()) > 0) {
+                nodo.setDerecho(rotarDerecha(nodo.getDerecho()));
+            }
+            return rotarIzquierda(nodo);
+        }
         return nodo;
     }
 
+    private Nodo rotarDerecha(Nodo nodo) {
+        nodo = editable(nodo);
+        Nodo hijo = editable(nodo.getIzquierdo());
+        nodo.setIzquierdo(hijo.getDerecho());
+        hijo.setDerecho(nodo);
+        actualizar(nodo);
+        actualizar(hijo);
+        return hijo;
+    }
+
+    private Nodo rotarIzquierda(Nodo nodo) {
+        nodo = editable(nodo);
+        Nodo hijo = editable(nodo.getDerecho());
+        nodo.setDerecho(hijo.getIzquierdo());
+        hijo.setIzquierdo(nodo);
+        actualizar(nodo);
+        actualizar(hijo);
+        return hijo;
+    }
+
     /**
      * Encuentra el nodo con valor mínimo en un subárbol.
      */
@@ -118,75 +1256,485 @@ public class ArbolBusquedaBinario {
         return nodo;
     }
 
+    // --- Estadísticos de orden ---
+    // Se apoyan en el tamaño de cada subárbol, que se mantiene al insertar,
+    // eliminar y rotar, para responder en O(altura) sin recorrer el árbol.
+
     /**
-     * Busca un valor en el árbol.
-     * @param dato Valor a buscar.
-     * @return true si existe, false si no.
+     * Cuántos valores son menores que el dato (rank).
+     * @param dato Valor de referencia; no tiene que existir en el árbol.
      */
-    public boolean buscar(int dato) {
-        nodoBuscado = buscarRecursivo(raiz, dato);
-        return nodoBuscado != null;
+    public int rango(int dato) {
+        return contarMenores(dato);
     }
 
-    private Nodo buscarRecursivo(Nodo nodo, int dato) {
-        if (nodo == null || nodo.getDato() == dato) {
-            return nodo;
+    /**
+     * Valor en la posición k del recorrido InOrden (select).
+     * @param k Posición empezando en 0.
+     * @throws IndexOutOfBoundsException si k no está en [0, tamano()).
+     */
+    public int seleccionar(int k) {
+        if (k < 0 || k >= tamano()) {
+            throw new IndexOutOfBoundsException("Posición " + k + " fuera de [0, " + tamano() + ")");
+        }
+        Nodo actual = raiz;
+        while (true) {
+            int izquierdos = tamano(actual.getIzquierdo());
+            if (k < izquierdos) {
+                actual = actual.getIzquierdo();
+            } else if (k > izquierdos) {
+                k -= izquierdos + 1;
+                actual = actual.getDerecho();
+            } else {
+                return actual.getDato();
+            }
+        }
+    }
+
+    /**
+     * Mayor valor menor o igual que el dato (floor).
+     */
+    public OptionalInt piso(int dato) {
+        Nodo actual = raiz;
+        Nodo candidato = null;
+        while (actual != null) {
+            if (actual.getDato() == dato) {
+                return OptionalInt.of(dato);
+            }
+            if (actual.getDato() < dato) {
+                candidato = actual;
+                actual = actual.getDerecho();
+            } else {
+                actual = actual.getIzquierdo();
+            }
+        }
+        return candidato == null ? OptionalInt.empty() : OptionalInt.of(candidato.getDato());
+    }
+
+    /**
+     * Menor valor mayor o igual que el dato (ceiling).
+     */
+    public OptionalInt techo(int dato) {
+        Nodo actual = raiz;
+        Nodo candidato = null;
+        while (actual != null) {
+            if (actual.getDato() == dato) {
+                return OptionalInt.of(dato);
+            }
+            if (actual.getDato() > dato) {
+                candidato = actual;
+                actual = actual.getIzquierdo();
+            } else {
+                actual = actual.getDerecho();
+            }
+        }
+        return candidato == null ? OptionalInt.empty() : OptionalInt.of(candidato.getDato());
+    }
+
+    /**
+     * Cuántos valores hay en el intervalo cerrado [desde, hasta].
+     */
+    public int contarEnRango(int desde, int hasta) {
+        if (desde > hasta) {
+            return 0;
         }
-        if (dato < nodo.getDato()) {
-            return buscarRecursivo(nodo.getIzquierdo(), dato);
+        return contarMenores(hasta + 1L) - contarMenores(desde);
+    }
+
+    /**
+     * Huella de los valores del intervalo cerrado [desde, hasta], en
+     * O(log n) con las huellas de los subárboles, igual que
+     * {@link #contarEnRango}. Con esto dos réplicas comparan intervalos
+     * sin recorrerlos (ver {@link ReplicacionABB}).
+     */
+    public long huellaEnRango(int desde, int hasta) {
+        comprobarHuellas();
+        if (desde > hasta) {
+            return 0;
+        }
+        int[] cuenta = new int[1];
+        return huellaMenores(hasta + 1L, cuenta) - huellaMenores(desde, cuenta);
+    }
+
+    /**
+     * Cantidad y huella de varios intervalos cerrados a la vez, con un
+     * solo descenso por extremo: cuando un intervalo empieza justo después
+     * del anterior (como en la bisección de {@link ReplicacionABB}) se
+     * reutiliza el extremo ya calculado.
+     */
+    void resumirRangos(int[] desde, int[] hasta, int cantidad, int[] cuentas, long[] huellas) {
+        comprobarHuellas();
+        long limiteAnterior = Long.MIN_VALUE;
+        int cuentaAnterior = 0;
+        long huellaAnterior = 0;
+        int[] cuenta = new int[1];
+        for (int i = 0; i < cantidad; i++) {
+            int cuentaDesde;
+            long huellaDesde;
+            if (desde[i] == limiteAnterior) {
+                cuentaDesde = cuentaAnterior;
+                huellaDesde = huellaAnterior;
+            } else {
+                huellaDesde = huellaMenores(desde[i], cuenta);
+                cuentaDesde = cuenta[0];
+            }
+            limiteAnterior = hasta[i] + 1L;
+            huellaAnterior = huellaMenores(limiteAnterior, cuenta);
+            cuentaAnterior = cuenta[0];
+            cuentas[i] = desde[i] > hasta[i] ? 0 : cuentaAnterior - cuentaDesde;
+            huellas[i] = desde[i] > hasta[i] ? 0 : huellaAnterior - huellaDesde;
+        }
+    }
+
+    /**
+     * Suma de las huellas de los valores menores que el límite; deja en
+     * {@code cuenta[0]} cuántos son. No guarda nada en el árbol, así que
+     * varios hilos pueden consultar a la vez una instantánea.
+     */
+    private long huellaMenores(long limite, int[] cuenta) {
+        long suma = 0;
+        int menores = 0;
+        Nodo actual = raiz;
+        while (actual != null) {
+            if (actual.getDato() < limite) {
+                Nodo izquierdo = actual.getIzquierdo();
+                suma += NodoHuella.huella(izquierdo) + actual.getContador() * NodoHuella.huellaDe(actual.getDato());
+                menores += tamano(izquierdo) + 1;
+                actual = actual.getDerecho();
+            } else {
+                actual = actual.getIzquierdo();
+            }
+        }
+        cuenta[0] = menores;
+        return suma;
+    }
+
+    /**
+     * Cuántos valores son estrictamente menores que el límite.
+     * El límite es long para poder representar {@code Integer.MAX_VALUE + 1}.
+     */
+    private int contarMenores(long limite) {
+        int menores = 0;
+        Nodo actual = raiz;
+        while (actual != null) {
+            if (actual.getDato() < limite) {
+                menores += tamano(actual.getIzquierdo()) + 1;
+                actual = actual.getDerecho();
+            } else {
+                actual = actual.getIzquierdo();
+            }
+        }
+        return menores;
+    }
+
+    /**
+     * Entrega en orden ascendente los valores del intervalo cerrado
+     * [desde, hasta], visitando solo los nodos del camino y los del rango.
+     */
+    public void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        Nodo[] pila = new Nodo[altura()];
+        int tope = 0;
+        Nodo actual = raiz;
+        while (true) {
+            while (actual != null) {
+                if (actual.getDato() < desde) {
+                    actual = actual.getDerecho(); // Todo su subárbol izquierdo queda fuera
+                } else {
+                    pila[tope++] = actual;
+                    actual = actual.getIzquierdo();
+                }
+            }
+            if (tope == 0) {
+                return;
+            }
+            actual = pila[--tope];
+            if (actual.getDato() > hasta) {
+                return;
+            }
+            visitante.accept(actual.getDato());
+            actual = actual.getDerecho();
         }
-        return buscarRecursivo(nodo.getDerecho(), dato);
     }
 
     /**
      * Recorrido InOrden (Izquierda-Raíz-Derecha).
      */
     public ArrayList<Integer> recorridoInOrden() {
-        ArrayList<Integer> resultado = new ArrayList<>();
-        inOrdenRecursivo(raiz, resultado);
+        ArrayList<Integer> resultado = new ArrayList<>(tamano());
+        recorrerInOrden(resultado::add);
         return resultado;
     }
 
-    private void inOrdenRecursivo(Nodo nodo, ArrayList<Integer> resultado) {
-        if (nodo != null) {
-            inOrdenRecursivo(nodo.getIzquierdo(), resultado);
-            resultado.add(nodo.getDato());
-            inOrdenRecursivo(nodo.getDerecho(), resultado);
+    /**
+     * Recorrido InOrden; con {@code expandir} cada valor aparece tantas
+     * veces como su contador.
+     */
+    public ArrayList<Integer> recorridoInOrden(boolean expandir) {
+        if (!expandir) {
+            return recorridoInOrden();
         }
+        ArrayList<Integer> resultado = new ArrayList<>((int) Math.min(ocurrencias(), Integer.MAX_VALUE - 8));
+        recorrerInOrden(resultado::add, true);
+        return resultado;
     }
 
     /**
      * Recorrido PreOrden (Raíz-Izquierda-Derecha).
      */
     public ArrayList<Integer> recorridoPreOrden() {
-        ArrayList<Integer> resultado = new ArrayList<>();
-        preOrdenRecursivo(raiz, resultado);
+        ArrayList<Integer> resultado = new ArrayList<>(tamano());
+        recorrerPreOrden(resultado::add);
         return resultado;
     }
 
-    private void preOrdenRecursivo(Nodo nodo, ArrayList<Integer> resultado) {
-        if (nodo != null) {
-            resultado.add(nodo.getDato());
-            preOrdenRecursivo(nodo.getIzquierdo(), resultado);
-            preOrdenRecursivo(nodo.getDerecho(), resultado);
-        }
-    }
-
     /**
      * Recorrido PostOrden (Izquierda-Derecha-Raíz).
      */
     public ArrayList<Integer> recorridoPostOrden() {
-        ArrayList<Integer> resultado = new ArrayList<>();
-        postOrdenRecursivo(raiz, resultado);
+        ArrayList<Integer> resultado = new ArrayList<>(tamano());
+        recorrerPostOrden(resultado::add);
         return resultado;
     }
 
-    private void postOrdenRecursivo(Nodo nodo, ArrayList<Integer> resultado) {
-        if (nodo != null) {
-            postOrdenRecursivo(nodo.getIzquierdo(), resultado);
-            postOrdenRecursivo(nodo.getDerecho(), resultado);
-            resultado.add(nodo.getDato());
+    // --- Recorridos primitivos ---
+    // Usan una pila explícita del tamaño de la altura: no hay recursión
+    // ni se crea ningún objeto por nodo visitado.
+
+    /**
+     * Recorrido InOrden entregando cada valor al visitante.
+     * @param visitante Recibe los valores en orden ascendente.
+     */
+    public void recorrerInOrden(IntConsumer visitante) {
+        Nodo[] pila = new Nodo[altura()];
+        int tope = 0;
+        Nodo actual = raiz;
+        while (actual != null || tope > 0) {
+            while (actual != null) {
+                pila[tope++] = actual;
+                actual = actual.getIzquierdo();
+            }
+            actual = pila[--tope];
+            visitante.accept(actual.getDato());
+            actual = actual.getDerecho();
+        }
+    }
+
+    /**
+     * Recorrido InOrden; con {@code expandir} entrega cada valor tantas
+     * veces como su contador (modo multiconjunto).
+     */
+    public void recorrerInOrden(IntConsumer visitante, boolean expandir) {
+        if (!expandir) {
+            recorrerInOrden(visitante);
+            return;
+        }
+        recorrerConteos((dato, veces) -> {
+            for (int i = 0; i < veces; i++) {
+                visitante.accept(dato);
+            }
+        });
+    }
+
+    /**
+     * Recibe cada valor con su número de ocurrencias.
+     */
+    public interface VisitanteConteo {
+        void visitar(int dato, int veces);
+    }
+
+    /**
+     * Recorrido InOrden entregando cada valor una vez, con su contador.
+     * @param visitante Recibe los valores en orden ascendente.
+     */
+    public void recorrerConteos(VisitanteConteo visitante) {
+        Nodo[] pila = new Nodo[altura()];
+        int tope = 0;
+        Nodo actual = raiz;
+        while (actual != null || tope > 0) {
+            while (actual != null) {
+                pila[tope++] = actual;
+                actual = actual.getIzquierdo();
+            }
+            actual = pila[--tope];
+            visitante.visitar(actual.getDato(), actual.getContador());
+            actual = actual.getDerecho();
+        }
+    }
+
+    /**
+     * Copia los valores en orden y, si {@code conteos} no es null, sus contadores.
+     */
+    private void llenarConteos(int[] datos, int[] conteos) {
+        int[] indice = new int[1];
+        recorrerConteos((dato, veces) -> {
+            datos[indice[0]] = dato;
+            if (conteos != null) {
+                conteos[indice[0]] = veces;
+            }
+            indice[0]++;
+        });
+    }
+
+    /**
+     * Recorrido PreOrden entregando cada valor al visitante.
+     * @param visitante Recibe los valores en preorden.
+     */
+    public void recorrerPreOrden(IntConsumer visitante) {
+        if (raiz == null) {
+            return;
+        }
+        Nodo[] pila = new Nodo[altura() + 1];
+        int tope = 0;
+        pila[tope++] = raiz;
+        while (tope > 0) {
+            Nodo actual = pila[--tope];
+            visitante.accept(actual.getDato());
+            if (actual.getDerecho() != null) {
+                pila[tope++] = actual.getDerecho();
+            }
+            if (actual.getIzquierdo() != null) {
+                pila[tope++] = actual.getIzquierdo();
+            }
+        }
+    }
+
+    /**
+     * Recorrido PostOrden entregando cada valor al visitante.
+     * @param visitante Recibe los valores en postorden.
+     */
+    public void recorrerPostOrden(IntConsumer visitante) {
+        Nodo[] pila = new Nodo[altura()];
+        int tope = 0;
+        Nodo actual = raiz;
+        Nodo ultimo = null;
+        while (actual != null || tope > 0) {
+            if (actual != null) {
+                pila[tope++] = actual;
+                actual = actual.getIzquierdo();
+            } else {
+                Nodo cima = pila[tope - 1];
+                if (cima.getDerecho() != null && cima.getDerecho() != ultimo) {
+                    actual = cima.getDerecho();
+                } else {
+                    visitante.accept(cima.getDato());
+                    ultimo = cima;
+                    tope--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia el recorrido InOrden en un arreglo del llamador.
+     * @param destino Arreglo con al menos {@link #tamano()} posiciones.
+     * @return Número de valores escritos.
+     */
+    public int llenarInOrden(int[] destino) {
+        validarDestino(destino);
+        Llenador llenador = new Llenador(destino);
+        recorrerInOrden(llenador);
+        return llenador.indice;
+    }
+
+    /**
+     * Copia el recorrido PreOrden en un arreglo del llamador.
+     * @param destino Arreglo con al menos {@link #tamano()} posiciones.
+     * @return Número de valores escritos.
+     */
+    public int llenarPreOrden(int[] destino) {
+        validarDestino(destino);
+        Llenador llenador = new Llenador(destino);
+        recorrerPreOrden(llenador);
+        return llenador.indice;
+    }
+
+    /**
+     * Copia el recorrido PostOrden en un arreglo del llamador.
+     * @param destino Arreglo con al menos {@link #tamano()} posiciones.
+     * @return Número de valores escritos.
+     */
+    public int llenarPostOrden(int[] destino) {
+        validarDestino(destino);
+        Llenador llenador = new Llenador(destino);
+        recorrerPostOrden(llenador);
+        return llenador.indice;
+    }
+
+    private void validarDestino(int[] destino) {
+        if (destino.length < tamano()) {
+            throw new IllegalArgumentException(
+                    "El arreglo tiene " + destino.length + " posiciones y el árbol " + tamano() + " nodos");
+        }
+    }
+
+    // --- Iteradores perezosos ---
+    // Avanzan bajo demanda, por lo que cortar la iteración a la mitad no
+    // paga por los nodos no visitados. El árbol no debe modificarse
+    // mientras se recorren.
+
+    /**
+     * Iterador perezoso InOrden.
+     */
+    public PrimitiveIterator.OfInt iteradorInOrden() {
+        return Spliterators.iterator(spliterator(RecorridoSpliterator.Orden.IN_ORDEN));
+    }
+
+    /**
+     * Iterador perezoso PreOrden.
+     */
+    public PrimitiveIterator.OfInt iteradorPreOrden() {
+        return Spliterators.iterator(spliterator(RecorridoSpliterator.Orden.PRE_ORDEN));
+    }
+
+    /**
+     * Iterador perezoso PostOrden.
+     */
+    public PrimitiveIterator.OfInt iteradorPostOrden() {
+        return Spliterators.iterator(spliterator(RecorridoSpliterator.Orden.POST_ORDEN));
+    }
+
+    /**
+     * Spliterator InOrden que se divide por subárboles.
+     */
+    public Spliterator.OfInt spliterator() {
+        return spliterator(RecorridoSpliterator.Orden.IN_ORDEN);
+    }
+
+    private Spliterator.OfInt spliterator(RecorridoSpliterator.Orden orden) {
+        return new RecorridoSpliterator(raiz, tamano(), altura(), orden);
+    }
+
+    /**
+     * Valores del árbol en orden ascendente como flujo primitivo.
+     * Admite {@code parallel()}: el flujo se reparte por subárboles.
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * Escribe valores consecutivos en un arreglo.
+     */
+    private static final class Llenador implements IntConsumer {
+        private final int[] destino;
+        private int indice;
+
+        Llenador(int[] destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public void accept(int dato) {
+            destino[indice++] = dato;
+        }
+    }
+
+    @Override
+    public String describir() {
+        if (multiconjunto) {
+            return tamano() + " nodos, " + ocurrencias + " ocurrencias, altura " + altura();
         }
+        return tamano() + " nodos, altura " + altura();
     }
 
     /**
@@ -194,6 +1742,8 @@ public class ArbolBusquedaBinario {
      */
     public void limpiar() {
         raiz = null;
+        ocurrencias = 0;
+        modificaciones++;
         nodoBuscado = null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,457 @@
+package practicos.ABB;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+
+/**
+ * ABB (AVL) almacenado en arreglos paralelos de primitivos.
+ * 
+ * En lugar de un objeto {@link Nodo} por valor, cada nodo es un índice en
+ * los arreglos de claves, hijos y alturas. Los hijos son índices (o
+ * {@code NULO}) y los nodos eliminados se encadenan en una lista libre
+ * para reutilizar su posición. Así cada clave ocupa 13 bytes sin
+ * cabeceras de objeto y el recolector de basura solo ve cuatro arreglos.
+ * 
+ * Implementa {@link ConjuntoOrdenado}, así que se puede elegir como motor
+ * ({@link MotorConjunto#COMPACTO}); no tiene los modos de balanceo, las
+ * instantáneas ni el multiconjunto de {@link ArbolBusquedaBinario}.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ArbolCompacto implements ConjuntoOrdenado {
+    private static final int NULO = -1;
+    private static final int ALTURA_MAXIMA = 64; // Un AVL de 2^31 nodos no pasa de 45
+
+    private int[] claves;
+    private int[] izquierdos; // En nodos libres enlaza la lista libre
+    private int[] derechos;
+    private byte[] alturas;
+    private int raiz = NULO;
+    private int libre = NULO; // Primer nodo de la lista libre
+    private int usados;       // Posiciones ocupadas alguna vez
+    private int cantidad;
+    private final int[] camino = new int[ALTURA_MAXIMA];
+
+    /**
+     * Constructor del árbol compacto.
+     */
+    public ArbolCompacto() {
+        this(16);
+    }
+
+    /**
+     * Constructor con capacidad inicial.
+     * @param capacidad Número de nodos a reservar.
+     */
+    public ArbolCompacto(int capacidad) {
+        capacidad = Math.max(capacidad, 1);
+        claves = new int[capacidad];
+        izquierdos = new int[capacidad];
+        derechos = new int[capacidad];
+        alturas = new byte[capacidad];
+    }
+
+    /**
+     * Número de nodos del árbol.
+     */
+    @Override
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Altura del árbol (vacío = 0).
+     */
+    public int altura() {
+        return altura(raiz);
+    }
+
+    /**
+     * Posiciones reservadas en los arreglos.
+     */
+    public int capacidad() {
+        return claves.length;
+    }
+
+    /**
+     * Inserta un valor en el árbol.
+     * @param dato Valor a insertar.
+     * @return true si se insertó, false si ya existía.
+     */
+    @Override
+    public boolean insertar(int dato) {
+        if (raiz == NULO) {
+            raiz = nuevoNodo(dato);
+            cantidad = 1;
+            return true;
+        }
+
+        int profundidad = 0;
+        int actual = raiz;
+        while (true) {
+            camino[profundidad++] = actual;
+            if (dato < claves[actual]) {
+                if (izquierdos[actual] == NULO) {
+                    int nuevo = nuevoNodo(dato);
+                    izquierdos[actual] = nuevo;
+                    break;
+                }
+                actual = izquierdos[actual];
+            } else if (dato > claves[actual]) {
+                if (derechos[actual] == NULO) {
+                    int nuevo = nuevoNodo(dato);
+                    derechos[actual] = nuevo;
+                    break;
+                }
+                actual = derechos[actual];
+            } else {
+                return false; // No permitir duplicados
+            }
+        }
+
+        rebalancearCamino(profundidad);
+        cantidad++;
+        return true;
+    }
+
+    /**
+     * Elimina un valor del árbol y devuelve su posición a la lista libre.
+     * @param dato Valor a eliminar.
+     * @return true si se eliminó, false si no existía.
+     */
+    @Override
+    public boolean eliminar(int dato) {
+        int profundidad = 0;
+        int actual = raiz;
+        while (actual != NULO && claves[actual] != dato) {
+            camino[profundidad++] = actual;
+            actual = dato < claves[actual] ? izquierdos[actual] : derechos[actual];
+        }
+        if (actual == NULO) {
+            return false;
+        }
+
+        if (izquierdos[actual] != NULO && derechos[actual] != NULO) {
+            // Dos hijos: se sustituye por su sucesor
+            camino[profundidad++] = actual;
+            int sucesor = derechos[actual];
+            while (izquierdos[sucesor] != NULO) {
+                camino[profundidad++] = sucesor;
+                sucesor = izquierdos[sucesor];
+            }
+            claves[actual] = claves[sucesor];
+            reemplazarHijo(profundidad, sucesor, derechos[sucesor]);
+            liberar(sucesor);
+        } else {
+            int hijo = izquierdos[actual] != NULO ? izquierdos[actual] : derechos[actual];
+            reemplazarHijo(profundidad, actual, hijo);
+            liberar(actual);
+        }
+
+        rebalancearCamino(profundidad);
+        cantidad--;
+        return true;
+    }
+
+    /**
+     * Indica si un valor existe en el árbol.
+     * @param dato Valor a buscar.
+     * @return true si existe, false si no.
+     */
+    @Override
+    public boolean contiene(int dato) {
+        int actual = raiz;
+        while (actual != NULO && claves[actual] != dato) {
+            actual = dato < claves[actual] ? izquierdos[actual] : derechos[actual];
+        }
+        return actual != NULO;
+    }
+
+    @Override
+    public OptionalInt piso(int dato) {
+        int actual = raiz;
+        int candidato = NULO;
+        while (actual != NULO) {
+            if (claves[actual] == dato) {
+                return OptionalInt.of(dato);
+            }
+            if (claves[actual] < dato) {
+                candidato = actual;
+                actual = derechos[actual];
+            } else {
+                actual = izquierdos[actual];
+            }
+        }
+        return candidato == NULO ? OptionalInt.empty() : OptionalInt.of(claves[candidato]);
+    }
+
+    @Override
+    public OptionalInt techo(int dato) {
+        int actual = raiz;
+        int candidato = NULO;
+        while (actual != NULO) {
+            if (claves[actual] == dato) {
+                return OptionalInt.of(dato);
+            }
+            if (claves[actual] > dato) {
+                candidato = actual;
+                actual = izquierdos[actual];
+            } else {
+                actual = derechos[actual];
+            }
+        }
+        return candidato == NULO ? OptionalInt.empty() : OptionalInt.of(claves[candidato]);
+    }
+
+    // --- Reserva de nodos ---
+
+    private int nuevoNodo(int dato) {
+        int nodo;
+        if (libre != NULO) {
+            nodo = libre;
+            libre = izquierdos[nodo];
+        } else {
+            if (usados == claves.length) {
+                crecer();
+            }
+            nodo = usados++;
+        }
+        claves[nodo] = dato;
+        izquierdos[nodo] = NULO;
+        derechos[nodo] = NULO;
+        alturas[nodo] = 1;
+        return nodo;
+    }
+
+    private void liberar(int nodo) {
+        izquierdos[nodo] = libre;
+        libre = nodo;
+    }
+
+    private void crecer() {
+        int capacidad = claves.length + (claves.length >> 1) + 1;
+        claves = Arrays.copyOf(claves, capacidad);
+        izquierdos = Arrays.copyOf(izquierdos, capacidad);
+        derechos = Arrays.copyOf(derechos, capacidad);
+        alturas = Arrays.copyOf(alturas, capacidad);
+    }
+
+    // --- Balanceo AVL ---
+
+    private int altura(int nodo) {
+        return nodo == NULO ? 0 : alturas[nodo];
+    }
+
+    private void actualizarAltura(int nodo) {
+        alturas[nodo] = (byte) (1 + Math.max(altura(izquierdos[nodo]), altura(derechos[nodo])));
+    }
+
+    private int factorBalance(int nodo) {
+        return altura(izquierdos[nodo]) - altura(derechos[nodo]);
+    }
+
+    private void reemplazarHijo(int profundidad, int viejo, int nuevo) {
+        if (profundidad == 0) {
+            raiz = nuevo;
+            return;
+        }
+        int padre = camino[profundidad - 1];
+        if (izquierdos[padre] == viejo) {
+            izquierdos[padre] = nuevo;
+        } else {
+            derechos[padre] = nuevo;
+        }
+    }
+
+    private void rebalancearCamino(int profundidad) {
+        for (int i = profundidad - 1; i >= 0; i--) {
+            int nodo = camino[i];
+            int nuevo = balancear(nodo);
+            if (nuevo != nodo) {
+                reemplazarHijo(i, nodo, nuevo);
+            }
+        }
+    }
+
+    private int balancear(int nodo) {
+        actualizarAltura(nodo);
+        int balance = factorBalance(nodo);
+        if (balance > 1) {
+            if (factorBalance(izquierdos[nodo]) < 0) {
+                izquierdos[nodo] = rotarIzquierda(izquierdos[nodo]);
+            }
+            return rotarDerecha(nodo);
+        }
+        if (balance < -1) {
+            if (factorBalance(derechos[nodo]) > 0) {
+                derechos[nodo] = rotarDerecha(derechos[nodo]);
+            }
+            return rotarIzquierda(nodo);
+        }
+        return nodo;
+    }
+
+    private int rotarDerecha(int nodo) {
+        int hijo = izquierdos[nodo];
+        izquierdos[nodo] = derechos[hijo];
+        derechos[hijo] = nodo;
+        actualizarAltura(nodo);
+        actualizarAltura(hijo);
+        return hijo;
+    }
+
+    private int rotarIzquierda(int nodo) {
+        int hijo = derechos[nodo];
+        derechos[nodo] = izquierdos[hijo];
+        izquierdos[hijo] = nodo;
+        actualizarAltura(nodo);
+        actualizarAltura(hijo);
+        return hijo;
+    }
+
+    // --- Recorridos ---
+
+    /**
+     * Recorrido InOrden entregando cada valor al visitante.
+     */
+    @Override
+    public void recorrerInOrden(IntConsumer visitante) {
+        int[] pila = new int[altura()];
+        int tope = 0;
+        int actual = raiz;
+        while (actual != NULO || tope > 0) {
+            while (actual != NULO) {
+                pila[tope++] = actual;
+                actual = izquierdos[actual];
+            }
+            actual = pila[--tope];
+            visitante.accept(claves[actual]);
+            actual = derechos[actual];
+        }
+    }
+
+    /**
+     * Igual que {@link ArbolBusquedaBinario#recorrerRango}: solo apila los
+     * nodos que no son menores que {@code desde} y se detiene en el primero
+     * mayor que {@code hasta}, así que cuesta O(log n + k).
+     */
+    @Override
+    public void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        int[] pila = new int[altura()];
+        int tope = 0;
+        int actual = raiz;
+        while (true) {
+            while (actual != NULO) {
+                if (claves[actual] < desde) {
+                    actual = derechos[actual];
+                } else {
+                    pila[tope++] = actual;
+                    actual = izquierdos[actual];
+                }
+            }
+            if (tope == 0) {
+                return;
+            }
+            actual = pila[--tope];
+            if (claves[actual] > hasta) {
+                return;
+            }
+            visitante.accept(claves[actual]);
+            actual = derechos[actual];
+        }
+    }
+
+    /**
+     * Recorrido PreOrden entregando cada valor al visitante.
+     */
+    public void recorrerPreOrden(IntConsumer visitante) {
+        if (raiz == NULO) {
+            return;
+        }
+        int[] pila = new int[altura() + 1];
+        int tope = 0;
+        pila[tope++] = raiz;
+        while (tope > 0) {
+            int actual = pila[--tope];
+            visitante.accept(claves[actual]);
+            if (derechos[actual] != NULO) {
+                pila[tope++] = derechos[actual];
+            }
+            if (izquierdos[actual] != NULO) {
+                pila[tope++] = izquierdos[actual];
+            }
+        }
+    }
+
+    /**
+     * Recorrido PostOrden entregando cada valor al visitante.
+     */
+    public void recorrerPostOrden(IntConsumer visitante) {
+        int[] pila = new int[altura()];
+        int tope = 0;
+        int actual = raiz;
+        int ultimo = NULO;
+        while (actual != NULO || tope > 0) {
+            if (actual != NULO) {
+                pila[tope++] = actual;
+                actual = izquierdos[actual];
+            } else {
+                int cima = pila[tope - 1];
+                if (derechos[cima] != NULO && derechos[cima] != ultimo) {
+                    actual = derechos[cima];
+                } else {
+                    visitante.accept(claves[cima]);
+                    ultimo = cima;
+                    tope--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Recorrido InOrden (Izquierda-Raíz-Derecha).
+     */
+    @Override
+    public ArrayList<Integer> recorridoInOrden() {
+        ArrayList<Integer> resultado = new ArrayList<>(cantidad);
+        recorrerInOrden(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Recorrido PreOrden (Raíz-Izquierda-Derecha).
+     */
+    public ArrayList<Integer> recorridoPreOrden() {
+        ArrayList<Integer> resultado = new ArrayList<>(cantidad);
+        recorrerPreOrden(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Recorrido PostOrden (Izquierda-Derecha-Raíz).
+     */
+    public ArrayList<Integer> recorridoPostOrden() {
+        ArrayList<Integer> resultado = new ArrayList<>(cantidad);
+        recorrerPostOrden(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Limpia el árbol conservando los arreglos reservados.
+     */
+    @Override
+    public void limpiar() {
+        raiz = NULO;
+        libre = NULO;
+        usados = 0;
+        cantidad = 0;
+    }
+
+    @Override
+    public String describir() {
+        return cantidad + " nodos, altura " + altura();
+    }
+}
@@ -0,0 +1,220 @@
+package practicos.ABB;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Variante concurrente del ABB para muchos lectores y pocos escritores.
+ * 
+ * Las claves se reparten por hash entre varias particiones, cada una un
+ * ABB en modo AVL con su propio {@link StampedLock}:
+ * - Las lecturas no toman cerrojo: descienden de forma optimista y validan
+ *   el sello al final; solo si un escritor intervino repiten con cerrojo
+ *   de lectura.
+ * - Las escrituras toman el cerrojo de escritura de una sola partición,
+ *   así que escritores de particiones distintas no se bloquean.
+ * 
+ * No usa {@code buscar} ni el nodo resaltado del ABB.
+ *
+ * Repartir por hash pierde el orden entre particiones: cada una tiene
+ * claves de todo el rango, así que las consultas ordenadas del ABB
+ * (rango, piso/techo, seleccionar la k-ésima) tendrían que consultar
+ * todas las particiones y combinar, y por eso no se ofrecen. El único
+ * recorrido ordenado es {@link #recorrerInOrden}, que mezcla las
+ * particiones en O(n log k) para k particiones.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ArbolConcurrente {
+    private static final int PASOS_ENTRE_VALIDACIONES = 64;
+
+    private final ArbolBusquedaBinario[] particiones;
+    private final StampedLock[] cerrojos;
+    private final int mascara;
+
+    /**
+     * Constructor con cuatro particiones por procesador.
+     */
+    public ArbolConcurrente() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor con un número mínimo de particiones.
+     * @param particiones Se redondea a la siguiente potencia de 2.
+     */
+    public ArbolConcurrente(int particiones) {
+        int n = Integer.highestOneBit(Math.max(1, particiones - 1)) << 1;
+        if (particiones <= 1) {
+            n = 1;
+        }
+        this.particiones = new ArbolBusquedaBinario[n];
+        this.cerrojos = new StampedLock[n];
+        this.mascara = n - 1;
+        for (int i = 0; i < n; i++) {
+            this.particiones[i] = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+            this.cerrojos[i] = new StampedLock();
+        }
+    }
+
+    private int particion(int dato) {
+        int h = dato * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    /**
+     * Inserta un valor bloqueando solo su partición.
+     * @return true si se insertó, false si ya existía.
+     */
+    public boolean insertar(int dato) {
+        int i = particion(dato);
+        long sello = cerrojos[i].writeLock();
+        try {
+            return particiones[i].insertar(dato);
+        } finally {
+            cerrojos[i].unlockWrite(sello);
+        }
+    }
+
+    /**
+     * Elimina un valor bloqueando solo su partición.
+     * @return true si se eliminó, false si no existía.
+     */
+    public boolean eliminar(int dato) {
+        int i = particion(dato);
+        long sello = cerrojos[i].writeLock();
+        try {
+            return particiones[i].eliminar(dato);
+        } finally {
+            cerrojos[i].unlockWrite(sello);
+        }
+    }
+
+    /**
+     * Indica si un valor existe. En ausencia de escritores no toma
+     * ningún cerrojo.
+     */
+    public boolean contiene(int dato) {
+        int i = particion(dato);
+        StampedLock cerrojo = cerrojos[i];
+        long sello = cerrojo.tryOptimisticRead();
+        if (sello != 0) {
+            int resultado = buscarOptimista(particiones[i].getRaiz(), dato, cerrojo, sello);
+            if (resultado >= 0) {
+                return resultado == 1;
+            }
+        }
+        sello = cerrojo.readLock();
+        try {
+            return particiones[i].contiene(dato);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Descenso sin cerrojo. Mientras un escritor rota nodos se pueden ver
+     * enlaces a medio actualizar, así que el sello se valida cada cierto
+     * número de pasos para no quedar atrapado en un ciclo transitorio.
+     * @return 1 si lo encontró, 0 si no, -1 si la lectura no es válida.
+     */
+    private static int buscarOptimista(Nodo actual, int dato, StampedLock cerrojo, long sello) {
+        int pasos = 0;
+        while (actual != null) {
+            int valor = actual.getDato();
+            if (valor == dato) {
+                break;
+            }
+            actual = dato < valor ? actual.getIzquierdo() : actual.getDerecho();
+            if (++pasos % PASOS_ENTRE_VALIDACIONES == 0 && !cerrojo.validate(sello)) {
+                return -1;
+            }
+        }
+        boolean encontrado = actual != null;
+        if (!cerrojo.validate(sello)) {
+            return -1;
+        }
+        return encontrado ? 1 : 0;
+    }
+
+    /**
+     * Número total de valores.
+     */
+    public int tamano() {
+        int total = 0;
+        for (int i = 0; i < particiones.length; i++) {
+            long sello = cerrojos[i].readLock();
+            try {
+                total += particiones[i].tamano();
+            } finally {
+                cerrojos[i].unlockRead(sello);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Recorre todos los valores en orden ascendente.
+     * Cada partición se copia con su cerrojo de lectura y luego se mezclan
+     * con una cola de prioridad de particiones, ordenada por su próximo
+     * valor: O(n log k) en lugar de comparar las k en cada paso.
+     * El resultado es consistente por partición, no entre particiones.
+     */
+    public void recorrerInOrden(IntConsumer visitante) {
+        int[][] copias = new int[particiones.length][];
+        for (int i = 0; i < particiones.length; i++) {
+            long sello = cerrojos[i].readLock();
+            try {
+                copias[i] = new int[particiones[i].tamano()];
+                particiones[i].llenarInOrden(copias[i]);
+            } finally {
+                cerrojos[i].unlockRead(sello);
+            }
+        }
+
+        // Una partición está en la cola mientras le queden valores; su clave
+        // (el próximo valor) solo cambia cuando se saca y se vuelve a poner
+        int[] posiciones = new int[copias.length];
+        PriorityQueue<Integer> cola = new PriorityQueue<>(Math.max(1, copias.length),
+                Comparator.comparingInt(i -> copias[i][posiciones[i]]));
+        for (int i = 0; i < copias.length; i++) {
+            if (copias[i].length > 0) {
+                cola.add(i);
+            }
+        }
+        while (!cola.isEmpty()) {
+            int menor = cola.poll();
+            visitante.accept(copias[menor][posiciones[menor]++]);
+            if (posiciones[menor] < copias[menor].length) {
+                cola.add(menor);
+            }
+        }
+    }
+
+    /**
+     * Recorrido InOrden (Izquierda-Raíz-Derecha).
+     */
+    public ArrayList<Integer> recorridoInOrden() {
+        ArrayList<Integer> resultado = new ArrayList<>();
+        recorrerInOrden(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Limpia todas las particiones.
+     */
+    public void limpiar() {
+        for (int i = 0; i < particiones.length; i++) {
+            long sello = cerrojos[i].writeLock();
+            try {
+                particiones[i].limpiar();
+            } finally {
+                cerrojos[i].unlockWrite(sello);
+            }
+        }
+    }
+}
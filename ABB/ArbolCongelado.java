@@ -0,0 +1,228 @@
+package practicos.ABB;
+
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+
+/**
+ * Copia inmutable de un conjunto de claves en disposición de Eytzinger:
+ * un solo int[] con el árbol completo guardado por niveles, como un
+ * montículo. La raíz está en 1 y los hijos de k en 2k y 2k + 1, así que
+ * bajar un nivel es aritmética sobre el índice y no una referencia a
+ * otro objeto.
+ *
+ * Para búsquedas que no caben en la caché esto importa más que el número
+ * de comparaciones: los primeros niveles ocupan unas pocas líneas de caché
+ * que siempre están calientes, no hay cabeceras de objeto ni punteros, y
+ * la bajada no tiene saltos condicionales ({@code k = 2k + (b[k] < x)}),
+ * así que el procesador no falla predicciones. Además, en cada paso se lee
+ * de antemano el bloque de 16 claves donde estarán los descendientes
+ * cuatro niveles más abajo: esa lectura no depende de las comparaciones
+ * y el procesador la adelanta como una precarga. Para que el JIT no la
+ * descarte, las lecturas se suman en una variable local que entra en el
+ * resultado multiplicada por {@code claves[0]}, que nunca se escribe y
+ * vale 0, pero el JIT no lo sabe. Así la búsqueda no escribe nada
+ * compartido y varios hilos pueden consultar sin competir por una línea.
+ *
+ * Se obtiene con {@link ArbolBusquedaBinario#congelar()} y conviene para
+ * árboles que se escriben poco y se leen mucho.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public final class ArbolCongelado {
+    private static final int PRECARGA = 16; // Claves por línea de caché de 64 bytes
+
+    private final int[] claves; // claves[0] no se usa: vale siempre 0 (ver precargado)
+    private final int cantidad;
+
+    /**
+     * Congela claves ya ordenadas y sin repetidos.
+     * @param ordenados Claves en orden ascendente (no se modifica el arreglo).
+     * @param cantidad Cuántas claves del inicio del arreglo se usan.
+     */
+    ArbolCongelado(int[] ordenados, int cantidad) {
+        this.cantidad = cantidad;
+        this.claves = new int[cantidad + 1];
+        llenar(ordenados);
+    }
+
+    /**
+     * Recorre el árbol implícito en InOrden, sin recursión, asignando las
+     * claves ordenadas a cada posición.
+     */
+    private void llenar(int[] ordenados) {
+        int k = 1;
+        while (2 * k <= cantidad) {
+            k = 2 * k;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            claves[k] = ordenados[i];
+            k = sucesor(k);
+        }
+    }
+
+    /**
+     * Posición InOrden siguiente a k, o 0 si k es la última.
+     */
+    private int sucesor(int k) {
+        if (2 * k + 1 <= cantidad) {
+            k = 2 * k + 1;
+            while (2 * k <= cantidad) {
+                k = 2 * k;
+            }
+            return k;
+        }
+        // Sube mientras venga de un hijo derecho, y una vez más
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Posición de la menor clave mayor o igual que el dato, o 0 si no hay.
+     * Al salir, k codifica en binario las vueltas del camino; la respuesta
+     * es el último nodo donde se bajó a la izquierda, que se recupera
+     * quitando los unos finales.
+     */
+    private int primeraMayorOIgual(int dato) {
+        int[] b = claves;
+        int n = cantidad;
+        int precarga = 0;
+        int k = 1;
+        while (k <= n) {
+            precarga += b[Math.min(PRECARGA * k, n)];
+            k = 2 * k + (b[k] < dato ? 1 : 0);
+        }
+        return precargado(k >>> (Integer.numberOfTrailingZeros(~k) + 1), precarga);
+    }
+
+    /**
+     * Posición de la mayor clave menor o igual que el dato, o 0 si no hay:
+     * el último nodo donde se bajó a la derecha.
+     */
+    private int ultimaMenorOIgual(int dato) {
+        int[] b = claves;
+        int n = cantidad;
+        int precarga = 0;
+        int k = 1;
+        while (k <= n) {
+            precarga += b[Math.min(PRECARGA * k, n)];
+            k = 2 * k + (b[k] <= dato ? 1 : 0);
+        }
+        return precargado(k >>> (Integer.numberOfTrailingZeros(k) + 1), precarga);
+    }
+
+    /**
+     * Devuelve la posición sin cambios, pero haciéndola depender de la suma
+     * de las lecturas de precarga para que el JIT no las elimine. Usa
+     * {@code claves[0]}, que es 0 y está siempre en caché, en lugar de una
+     * constante que el JIT podría plegar o de un campo que habría que
+     * escribir en cada consulta.
+     */
+    private int precargado(int posicion, int precarga) {
+        return posicion + precarga * claves[0];
+    }
+
+    /**
+     * Número de claves.
+     */
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Indica si un valor existe.
+     */
+    public boolean contiene(int dato) {
+        int k = primeraMayorOIgual(dato);
+        return k != 0 && claves[k] == dato;
+    }
+
+    /**
+     * Mayor valor menor o igual que el dato (floor).
+     */
+    public OptionalInt piso(int dato) {
+        int k = ultimaMenorOIgual(dato);
+        return k == 0 ? OptionalInt.empty() : OptionalInt.of(claves[k]);
+    }
+
+    /**
+     * Menor valor mayor o igual que el dato (ceiling).
+     */
+    public OptionalInt techo(int dato) {
+        int k = primeraMayorOIgual(dato);
+        return k == 0 ? OptionalInt.empty() : OptionalInt.of(claves[k]);
+    }
+
+    /**
+     * Cuántos valores son menores que el dato (rank): la posición InOrden
+     * de su techo, que se calcula sumando los subárboles que quedan a la
+     * izquierda del camino.
+     */
+    public int rango(int dato) {
+        int menores = 0;
+        int k = 1;
+        while (k <= cantidad) {
+            if (claves[k] < dato) {
+                menores += tamanoSubarbol(2 * k) + 1;
+                k = 2 * k + 1;
+            } else {
+                k = 2 * k;
+            }
+        }
+        return menores;
+    }
+
+    /**
+     * Nodos del subárbol de k: en cada nivel ocupa un intervalo contiguo
+     * de posiciones, recortado por la cantidad.
+     */
+    private int tamanoSubarbol(int k) {
+        int total = 0;
+        long desde = k;
+        long hasta = k;
+        while (desde <= cantidad) {
+            total += (int) (Math.min(hasta, cantidad) - desde + 1);
+            desde = 2 * desde;
+            hasta = 2 * hasta + 1;
+        }
+        return total;
+    }
+
+    /**
+     * Cuántos valores hay en el intervalo cerrado [desde, hasta].
+     */
+    public int contarEnRango(int desde, int hasta) {
+        if (desde > hasta) {
+            return 0;
+        }
+        int k = ultimaMenorOIgual(hasta);
+        return k == 0 ? 0 : rango(claves[k]) + 1 - rango(desde);
+    }
+
+    /**
+     * Entrega en orden ascendente los valores del intervalo cerrado
+     * [desde, hasta]: una búsqueda hasta el primero y luego sucesores, que
+     * cuestan O(1) amortizado.
+     */
+    public void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        if (desde > hasta) {
+            return;
+        }
+        for (int k = primeraMayorOIgual(desde); k != 0 && claves[k] <= hasta; k = sucesor(k)) {
+            visitante.accept(claves[k]);
+        }
+    }
+
+    /**
+     * Entrega todos los valores en orden ascendente.
+     */
+    public void recorrerInOrden(IntConsumer visitante) {
+        recorrerRango(Integer.MIN_VALUE, Integer.MAX_VALUE, visitante);
+    }
+
+    /**
+     * Bytes que ocupan las claves (4 por clave más la posición 0).
+     */
+    public long bytes() {
+        return 4L * claves.length;
+    }
+}
@@ -0,0 +1,518 @@
+package practicos.ABB;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ABB (AVL) que no pierde modificaciones si el proceso muere: cada
+ * inserción, eliminación o limpieza se anota en una {@link BitacoraABB}
+ * antes de volver, según la {@link PoliticaSincronizacion} elegida.
+ *
+ * En el directorio hay, por generación g:
+ * - {@code instantanea-g.abb}: el contenido completo al empezar la
+ *   generación, en el formato de {@link PersistenciaABB}.
+ * - {@code bitacora-g.log}: las modificaciones hechas desde entonces.
+ *
+ * Al abrir se carga la instantánea más nueva y se reproducen encima las
+ * bitácoras de esa generación en adelante. Cuando la bitácora pasa del
+ * umbral, la compactación empieza una generación nueva: rota la bitácora
+ * y toma una {@link ArbolBusquedaBinario#snapshot()} en O(1) con el
+ * cerrojo tomado, y ya sin él la guarda en disco y borra los archivos
+ * viejos. Si algo se corta a la mitad, la instantánea anterior y las
+ * bitácoras siguen ahí.
+ *
+ * Las operaciones son seguras para varios hilos (un cerrojo para el
+ * árbol); el fsync se hace fuera de él para que varios escritores
+ * compartan uno. Para rendimiento con un solo hilo conviene
+ * {@link #insertarLote} / {@link #eliminarLote}: un lote entero cuesta un
+ * solo fsync.
+ *
+ * Por eso una modificación se aplica en memoria antes de llegar al disco.
+ * Si después falla la escritura de la bitácora (o la compactación), la
+ * memoria ya no coincide con lo guardado y el árbol queda fallido: la
+ * operación que falló y todas las siguientes, también las consultas,
+ * lanzan {@link UncheckedIOException}. Para seguir hay que cerrarlo y
+ * volver a abrir el directorio, que recupera el último estado durable.
+ *
+ * Uso sin interfaz: java practicos.ABB.ArbolDurable directorio [operaciones]
+ * (mide el rendimiento con cada política y la recuperación)
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ArbolDurable implements ConjuntoOrdenado, Closeable {
+    private static final long UMBRAL_POR_DEFECTO = 16L << 20; // Unos 3 millones de registros, segundos al recuperar
+    private static final int LIMITE_PENDIENTE = 4 << 20; // Sin fsync por operación, escribir al juntar esto
+    private static final long INTERVALO_MS = 10;
+    private static final Pattern ARCHIVO = Pattern.compile("(instantanea|bitacora)-(\\d+)\\.(abb|log)");
+
+    private final Path directorio;
+    private final PoliticaSincronizacion politica;
+    private final ArbolBusquedaBinario abb = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+    private final BitacoraABB bitacora;
+    private final ScheduledExecutorService fondo;
+    private final Object cerrojoCompactacion = new Object();
+    private long generacion;
+    private volatile long umbralCompactacion = UMBRAL_POR_DEFECTO; // Se lee fuera del cerrojo
+    private boolean compactando;
+    private boolean cerrado;
+    private volatile IOException falla; // Primera escritura fallida: desde ahí se rechaza todo
+
+    /**
+     * Abre (o crea) el árbol guardado en el directorio y lo recupera:
+     * instantánea más nueva más sus bitácoras.
+     * @param directorio Directorio propio del árbol.
+     * @param politica Cuándo sincronizar la bitácora con el disco.
+     * @throws IOException Si falla la lectura o algún archivo está dañado
+     *         (salvo el final cortado de la última bitácora, que se descarta).
+     */
+    public ArbolDurable(Path directorio, PoliticaSincronizacion politica) throws IOException {
+        this.directorio = directorio;
+        this.politica = politica;
+        Files.createDirectories(directorio);
+
+        TreeMap<Long, Path> instantaneas = new TreeMap<>();
+        TreeMap<Long, Path> bitacoras = new TreeMap<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                Matcher m = ARCHIVO.matcher(nombre);
+                if (m.matches()) {
+                    (m.group(1).equals("instantanea") ? instantaneas : bitacoras).put(Long.parseLong(m.group(2)), archivo);
+                } else if (nombre.endsWith(".tmp")) {
+                    Files.delete(archivo); // Instantánea a medio guardar
+                }
+            }
+        }
+
+        long base = instantaneas.isEmpty() ? 0 : instantaneas.lastKey();
+        if (!instantaneas.isEmpty()) {
+            int[] claves = PersistenciaABB.leer(instantaneas.lastEntry().getValue());
+            abb.cargarOrdenados(claves, claves.length);
+        }
+        BitacoraABB.Aplicador aplicador = this::reproducir;
+        List<Long> pendientes = new ArrayList<>(bitacoras.tailMap(base, true).keySet());
+        for (int i = 0; i < pendientes.size() - 1; i++) {
+            Path archivo = bitacoras.get(pendientes.get(i));
+            if (BitacoraABB.reproducir(archivo, aplicador) != Files.size(archivo)) {
+                throw new IOException(archivo + ": bitácora dañada antes de la última generación");
+            }
+        }
+        if (pendientes.isEmpty()) {
+            generacion = base;
+            bitacora = BitacoraABB.crear(rutaBitacora(generacion));
+        } else {
+            generacion = pendientes.get(pendientes.size() - 1);
+            bitacora = BitacoraABB.abrir(rutaBitacora(generacion), aplicador);
+        }
+        borrarAnteriores(base);
+
+        fondo = Executors.newScheduledThreadPool(2, tarea -> {
+            Thread hilo = new Thread(tarea, "ArbolDurable " + directorio.getFileName());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        if (politica != PoliticaSincronizacion.SIEMPRE) {
+            boolean sincronizar = politica == PoliticaSincronizacion.PERIODICA;
+            fondo.scheduleWithFixedDelay(() -> {
+                try {
+                    bitacora.vaciarHasta(bitacora.registrados(), sincronizar);
+                } catch (IOException e) {
+                    fallar(e);
+                }
+            }, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reproducir(byte operacion, int clave) {
+        switch (operacion) {
+            case BitacoraABB.INSERTAR:
+                abb.insertar(clave);
+                break;
+            case BitacoraABB.ELIMINAR:
+                abb.eliminar(clave);
+                break;
+            case BitacoraABB.LIMPIAR:
+                abb.limpiar();
+                break;
+            default:
+                throw new IllegalStateException("Operación desconocida en la bitácora: " + operacion);
+        }
+    }
+
+    private Path rutaBitacora(long g) {
+        return directorio.resolve("bitacora-" + g + ".log");
+    }
+
+    private Path rutaInstantanea(long g) {
+        return directorio.resolve("instantanea-" + g + ".abb");
+    }
+
+    /**
+     * Cambia el tamaño de bitácora a partir del cual se compacta.
+     */
+    public void setUmbralCompactacion(long bytes) {
+        this.umbralCompactacion = bytes;
+    }
+
+    /**
+     * @return Generación actual (cuántas veces se compactó, en total).
+     */
+    public synchronized long getGeneracion() {
+        return generacion;
+    }
+
+    // --- Modificaciones ---
+
+    @Override
+    public boolean insertar(int dato) {
+        long registro;
+        synchronized (this) {
+            comprobarAbierto();
+            if (!abb.insertar(dato)) {
+                return false;
+            }
+            registro = bitacora.registrar(BitacoraABB.INSERTAR, dato);
+        }
+        confirmar(registro);
+        return true;
+    }
+
+    @Override
+    public boolean eliminar(int dato) {
+        long registro;
+        synchronized (this) {
+            comprobarAbierto();
+            if (!abb.eliminar(dato)) {
+                return false;
+            }
+            registro = bitacora.registrar(BitacoraABB.ELIMINAR, dato);
+        }
+        confirmar(registro);
+        return true;
+    }
+
+    /**
+     * Inserta un lote con un solo registro en memoria por clave y una sola
+     * espera por el disco. Se anotan todas las claves, también las que ya
+     * estaban: reproducirlas no cambia nada.
+     */
+    @Override
+    public int insertarLote(int[] lote) {
+        long registro;
+        int insertados;
+        synchronized (this) {
+            comprobarAbierto();
+            insertados = abb.insertarLote(lote);
+            registro = bitacora.registrar(BitacoraABB.INSERTAR, lote);
+        }
+        confirmar(registro);
+        return insertados;
+    }
+
+    /**
+     * Elimina un lote de valores con una sola espera por el disco.
+     * @return Número de valores que existían y se eliminaron.
+     */
+    public int eliminarLote(int[] lote) {
+        long registro;
+        int eliminados = 0;
+        synchronized (this) {
+            comprobarAbierto();
+            for (int dato : lote) {
+                if (abb.eliminar(dato)) {
+                    eliminados++;
+                }
+            }
+            registro = bitacora.registrar(BitacoraABB.ELIMINAR, lote);
+        }
+        confirmar(registro);
+        return eliminados;
+    }
+
+    @Override
+    public void limpiar() {
+        long registro;
+        synchronized (this) {
+            comprobarAbierto();
+            abb.limpiar();
+            registro = bitacora.registrar(BitacoraABB.LIMPIAR, 0);
+        }
+        confirmar(registro);
+    }
+
+    /**
+     * Espera el disco según la política (fuera del cerrojo, para que
+     * otros hilos se sumen al mismo fsync) y compacta si hace falta. Si
+     * la escritura falla, el árbol queda fallido.
+     */
+    private void confirmar(long registro) {
+        comprobarSinFallas();
+        try {
+            if (politica == PoliticaSincronizacion.SIEMPRE) {
+                bitacora.vaciarHasta(registro, true);
+            } else if (bitacora.pendientes() > LIMITE_PENDIENTE) {
+                bitacora.vaciarHasta(registro, politica == PoliticaSincronizacion.PERIODICA);
+            }
+        } catch (IOException e) {
+            fallar(e);
+            throw new UncheckedIOException("Falló la escritura de la bitácora; el árbol queda fallido", e);
+        }
+        if (bitacora.tamano() > umbralCompactacion) {
+            compactarEnFondo();
+        }
+    }
+
+    /**
+     * Marca el árbol como fallido; se conserva la primera falla.
+     */
+    private synchronized void fallar(IOException e) {
+        if (falla == null) {
+            falla = e;
+        }
+    }
+
+    /**
+     * Antes de aplicar una modificación: el árbol debe estar abierto y sin fallas.
+     */
+    private void comprobarAbierto() {
+        if (cerrado) {
+            throw new IllegalStateException("El árbol durable está cerrado");
+        }
+        comprobarSinFallas();
+    }
+
+    /**
+     * Rechaza la operación si una escritura anterior falló: la memoria
+     * puede tener cambios que no están en el disco.
+     */
+    private void comprobarSinFallas() {
+        IOException e = falla;
+        if (e != null) {
+            throw new UncheckedIOException("El árbol durable quedó fallido; hay que reabrirlo", e);
+        }
+    }
+
+    // --- Compactación ---
+
+    private void compactarEnFondo() {
+        synchronized (this) {
+            if (compactando || cerrado) {
+                return;
+            }
+            compactando = true;
+        }
+        fondo.execute(() -> {
+            try {
+                compactar();
+            } catch (IOException e) {
+                fallar(e);
+            } finally {
+                synchronized (this) {
+                    compactando = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Empieza una generación nueva y guarda su instantánea. Solo detiene a
+     * las demás operaciones mientras rota la bitácora; guardar la
+     * instantánea corre en paralelo con ellas.
+     * @throws IOException Si falla la escritura.
+     */
+    public void compactar() throws IOException {
+        synchronized (cerrojoCompactacion) {
+            ArbolBusquedaBinario instantanea;
+            long nueva;
+            synchronized (this) {
+                comprobarAbierto();
+                nueva = generacion + 1;
+                bitacora.rotar(rutaBitacora(nueva));
+                instantanea = abb.snapshot();
+                generacion = nueva;
+            }
+            // guardar y rotar ya sincronizaron el directorio: la instantánea
+            // y la bitácora nuevas están en disco antes de borrar las viejas
+            PersistenciaABB.guardar(instantanea, rutaInstantanea(nueva));
+            borrarAnteriores(nueva);
+        }
+    }
+
+    /**
+     * Borra instantáneas y bitácoras de generaciones anteriores a la dada,
+     * ya cubiertas por su instantánea.
+     */
+    private void borrarAnteriores(long g) throws IOException {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                Matcher m = ARCHIVO.matcher(archivo.getFileName().toString());
+                if (m.matches() && Long.parseLong(m.group(2)) < g) {
+                    Files.deleteIfExists(archivo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Espera a que termine la compactación en curso, escribe y sincroniza
+     * lo pendiente y cierra la bitácora.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+        }
+        fondo.shutdown();
+        try {
+            fondo.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        bitacora.close();
+        if (falla != null) {
+            throw falla;
+        }
+    }
+
+    // --- Consultas ---
+    // Después de una falla se rechazan: mostrarían cambios que no están en el disco
+
+    @Override
+    public synchronized boolean contiene(int dato) {
+        comprobarSinFallas();
+        return abb.contiene(dato);
+    }
+
+    @Override
+    public synchronized int tamano() {
+        comprobarSinFallas();
+        return abb.tamano();
+    }
+
+    @Override
+    public synchronized OptionalInt piso(int dato) {
+        comprobarSinFallas();
+        return abb.piso(dato);
+    }
+
+    @Override
+    public synchronized OptionalInt techo(int dato) {
+        comprobarSinFallas();
+        return abb.techo(dato);
+    }
+
+    @Override
+    public synchronized void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        comprobarSinFallas();
+        abb.recorrerRango(desde, hasta, visitante);
+    }
+
+    @Override
+    public synchronized void recorrerInOrden(IntConsumer visitante) {
+        comprobarSinFallas();
+        abb.recorrerInOrden(visitante);
+    }
+
+    @Override
+    public synchronized int contarEnRango(int desde, int hasta) {
+        comprobarSinFallas();
+        return abb.contarEnRango(desde, hasta);
+    }
+
+    @Override
+    public synchronized String describir() {
+        return abb.describir() + ", generación " + generacion;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Uso: java practicos.ABB.ArbolDurable directorio [operaciones]");
+            System.exit(1);
+        }
+        Path base = Paths.get(args[0]);
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int hilos = 8;
+        int lote = 1_000;
+
+        for (PoliticaSincronizacion politica : PoliticaSincronizacion.values()) {
+            Path directorio = base.resolve(politica.name().toLowerCase(Locale.ROOT));
+            borrarDirectorio(directorio);
+            // Una a una con un hilo: con SIEMPRE cada una espera su propio fsync
+            int sueltas = politica == PoliticaSincronizacion.SIEMPRE ? Math.min(operaciones, 2_000) : operaciones;
+            medir(politica + ", 1 hilo, una a una", directorio, politica, sueltas, 1, 1);
+            medir(politica + ", " + hilos + " hilos, una a una", directorio, politica,
+                    politica == PoliticaSincronizacion.SIEMPRE ? Math.min(operaciones, 50_000) : operaciones, hilos, 1);
+            medir(politica + ", 1 hilo, lotes de " + lote, directorio, politica, operaciones, 1, lote);
+
+            long inicio = System.nanoTime();
+            try (ArbolDurable arbol = new ArbolDurable(directorio, politica)) {
+                System.out.printf(Locale.ROOT, "  recuperación: %s en %.0f ms%n", arbol.describir(),
+                        (System.nanoTime() - inicio) / 1e6);
+            }
+        }
+    }
+
+    private static void medir(String caso, Path directorio, PoliticaSincronizacion politica,
+                              int operaciones, int hilos, int lote) throws IOException, InterruptedException {
+        try (ArbolDurable arbol = new ArbolDurable(directorio, politica)) {
+            AtomicLong siguiente = new AtomicLong();
+            Thread[] trabajadores = new Thread[hilos];
+            long inicio = System.nanoTime();
+            for (int h = 0; h < hilos; h++) {
+                SplittableRandom aleatorio = new SplittableRandom(h * 31L + operaciones);
+                trabajadores[h] = new Thread(() -> {
+                    int[] claves = new int[lote];
+                    while (siguiente.getAndAdd(lote) < operaciones) {
+                        if (lote == 1) {
+                            arbol.insertar(aleatorio.nextInt());
+                        } else {
+                            for (int i = 0; i < lote; i++) {
+                                claves[i] = aleatorio.nextInt();
+                            }
+                            arbol.insertarLote(claves);
+                        }
+                    }
+                });
+                trabajadores[h].start();
+            }
+            for (Thread t : trabajadores) {
+                t.join();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf(Locale.ROOT, "%-42s %,12.0f ops/s%n", caso, operaciones / segundos);
+        }
+    }
+
+    private static void borrarDirectorio(Path directorio) throws IOException {
+        if (!Files.isDirectory(directorio)) {
+            return;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                Files.delete(archivo);
+            }
+        }
+    }
+}
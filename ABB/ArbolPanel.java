@@ -2,90 +2,569 @@ package practicos.ABB;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 /**
  * Panel personalizado para dibujar el árbol visualmente.
  * Renderiza el Árbol Binario de Búsqueda (ABB) de forma gráfica con nodos y conexiones.
  * 
+ * Las posiciones salen de una {@link DisposicionArbol} (Reingold-Tilford)
+ * que se calcula una sola vez por cambio del árbol; pintar, acercar o
+ * desplazar solo las lee.
+ * 
+ * Navegación: la rueda del ratón acerca o aleja (abre o cierra la
+ * separación horizontal), arrastrar desplaza la vista y el doble clic la
+ * restablece.
+ * 
+ * Solo se visita lo que se ve:
+ * - Los subárboles cuyo rectángulo queda fuera del panel no se recorren.
+ * - Si algún hijo de un nodo quedaría encimado con otro nodo de su nivel,
+ *   el subárbol se dibuja como un solo glifo con la cantidad de nodos.
+ * Así el costo de dibujar es proporcional a lo que hay en pantalla y no
+ * al tamaño del árbol.
+ * 
+ * El dibujo se guarda en caché: los elementos visibles (en orden
+ * InOrden) se calculan una vez por cambio del árbol o de la vista y se
+ * pintan en un {@link BufferedImage}. Cuando el árbol cambia se comparan
+ * los elementos viejos y nuevos y solo se vuelve a dibujar la región de
+ * los que cambiaron.
+ * 
+ * Solo se dibuja un {@link ArbolBusquedaBinario}; con otro motor de
+ * {@link ConjuntoOrdenado} el panel muestra un aviso en su lugar.
+ * 
  * @author Diana Mabel Garcia
  *         diabegarciamtz@gmail.com  05/12/2025
  */
 public class ArbolPanel extends JPanel {
+    private static final Color COLOR_LINEA = new Color(100, 100, 100);
+    private static final Color COLOR_NODO = new Color(100, 181, 246);
+    private static final Color COLOR_GLIFO = new Color(220, 220, 220);
+    private static final BasicStroke TRAZO = new BasicStroke(2);
+    private static final Font FUENTE_NODO = new Font("Arial", Font.BOLD, 14);
+    private static final Font FUENTE_GLIFO = new Font("Arial", Font.PLAIN, 11);
+    private static final Font FUENTE_MENSAJE = new Font("Arial", Font.BOLD, 16);
+    private static final double SIN_PADRE = Double.NaN;
+    private static final double ZOOM_MAXIMO = 1 << 30;
+    private static final int ESPACIO_NODOS = 60; // Pixeles por unidad de la disposición, como máximo
+
     private ArbolBusquedaBinario abb;
+    private ConjuntoOrdenado sinDibujo; // Motor que no es un ABB, o null
     private final int RADIO_NODO = 25;
     private final int ALTURA_NIVEL = 80;
 
+    // --- Vista ---
+    private double zoom = 1;          // 1 = todo el ancho del árbol cabe en el panel
+    private double desplazamientoX;   // En pixeles de pantalla
+    private double desplazamientoY;
+    private int arrastreX;
+    private int arrastreY;
+
+    // --- Disposición, recalculada una vez por cambio del árbol ---
+    private DisposicionArbol disposicion;
+    private ArbolBusquedaBinario arbolDispuesto;
+    private int versionDispuesta;
+
+    // --- Caché del dibujo ---
+    private Escena escena;
+    private BufferedImage imagen;
+    private ArbolBusquedaBinario arbolDibujado;
+    private int versionDibujada;
+    private boolean vistaCambiada;
+    private final Line2D.Double linea = new Line2D.Double();
+
+    /**
+     * Elementos visibles en orden InOrden: nodos y glifos de subárboles
+     * agrupados, con la posición de su padre para dibujar la conexión.
+     */
+    private static final class Escena {
+        int cantidad;
+        int[] datos = new int[64];
+        int[] agrupados = new int[64]; // Nodos ocultos bajo el glifo (0 = nodo normal)
+        double[] xs = new double[64];
+        double[] ys = new double[64];
+        double[] padresX = new double[64];
+        double[] padresY = new double[64];
+
+        void agregar(int dato, int agrupado, double x, double y, double padreX, double padreY) {
+            if (cantidad == datos.length) {
+                int capacidad = cantidad * 2;
+                datos = Arrays.copyOf(datos, capacidad);
+                agrupados = Arrays.copyOf(agrupados, capacidad);
+                xs = Arrays.copyOf(xs, capacidad);
+                ys = Arrays.copyOf(ys, capacidad);
+                padresX = Arrays.copyOf(padresX, capacidad);
+                padresY = Arrays.copyOf(padresY, capacidad);
+            }
+            datos[cantidad] = dato;
+            agrupados[cantidad] = agrupado;
+            xs[cantidad] = x;
+            ys[cantidad] = y;
+            padresX[cantidad] = padreX;
+            padresY[cantidad++] = padreY;
+        }
+
+        boolean igual(int i, Escena otra, int j) {
+            return agrupados[i] == otra.agrupados[j] && xs[i] == otra.xs[j] && ys[i] == otra.ys[j]
+                    && Double.compare(padresX[i], otra.padresX[j]) == 0
+                    && Double.compare(padresY[i], otra.padresY[j]) == 0;
+        }
+    }
+
     /**
      * Constructor del panel de visualización.
-     * @param abb Referencia al árbol binario de búsqueda.
+     * @param conjunto Conjunto a mostrar; se dibuja si es un ABB.
      */
-    public ArbolPanel(ArbolBusquedaBinario abb) {
-        this.abb = abb;
+    public ArbolPanel(ConjuntoOrdenado conjunto) {
+        setConjunto(conjunto);
         setBackground(Color.WHITE);
+
+        MouseAdapter navegacion = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                arrastreX = e.getX();
+                arrastreY = e.getY();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                desplazar(e.getX() - arrastreX, e.getY() - arrastreY);
+                arrastreX = e.getX();
+                arrastreY = e.getY();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                acercar(Math.pow(1.25, -e.getPreciseWheelRotation()), e.getX());
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    restablecerVista();
+                }
+            }
+        };
+        addMouseListener(navegacion);
+        addMouseMotionListener(navegacion);
+        addMouseWheelListener(navegacion);
+    }
+
+    /**
+     * Cambia el árbol que se dibuja.
+     * @param abb Nuevo árbol a mostrar.
+     */
+    public void setArbol(ArbolBusquedaBinario abb) {
+        this.abb = abb;
+        this.sinDibujo = null;
+        repaint();
+    }
+
+    /**
+     * Cambia el conjunto que se muestra: un ABB se dibuja y cualquier otro
+     * motor solo se nombra.
+     * @param conjunto Nuevo conjunto a mostrar.
+     */
+    public void setConjunto(ConjuntoOrdenado conjunto) {
+        if (conjunto instanceof ArbolBusquedaBinario) {
+            setArbol((ArbolBusquedaBinario) conjunto);
+        } else {
+            this.abb = null;
+            this.sinDibujo = conjunto;
+            repaint();
+        }
     }
 
-    
+    /**
+     * Avisa que el árbol se modificó: recalcula lo visible y vuelve a
+     * dibujar y pintar solo la región que cambió.
+     */
+    public void arbolModificado() {
+        if (imagen == null || arbolDibujado != abb || vistaCambiada) {
+            repaint();
+            return;
+        }
+        Rectangle region = actualizarEscena();
+        if (region != null) {
+            dibujarRegion(region);
+            repaint(region);
+        }
+    }
+
+    // --- Navegación ---
+
+    /**
+     * Multiplica el zoom manteniendo fijo el punto bajo la coordenada x.
+     */
+    public void acercar(double factor, int x) {
+        double nuevo = Math.max(1, Math.min(ZOOM_MAXIMO, zoom * factor));
+        double centro = getWidth() / 2.0 + desplazamientoX;
+        desplazamientoX += (x - centro) * (1 - nuevo / zoom);
+        zoom = nuevo;
+        vistaCambiada = true;
+        repaint();
+    }
+
+    /**
+     * Desplaza la vista en pixeles.
+     */
+    public void desplazar(int dx, int dy) {
+        desplazamientoX += dx;
+        desplazamientoY += dy;
+        vistaCambiada = true;
+        repaint();
+    }
+
+    /**
+     * Vuelve a mostrar el árbol completo centrado.
+     */
+    public void restablecerVista() {
+        zoom = 1;
+        desplazamientoX = 0;
+        desplazamientoY = 0;
+        vistaCambiada = true;
+        repaint();
+    }
+
+    // --- Pintado ---
+
     @Override
-protected void paintComponent(Graphics g) {
-    super.paintComponent(g);
-    Graphics2D g2d = (Graphics2D) g;
-    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        asegurarImagen();
+        if (imagen != null) {
+            // drawImage respeta el recorte: solo se copia la región a repintar
+            g.drawImage(imagen, 0, 0, null);
+        }
+    }
+
+    /**
+     * Deja la imagen en caché al día con el tamaño del panel, la vista y
+     * el árbol.
+     */
+    private void asegurarImagen() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (imagen == null || imagen.getWidth() != width || imagen.getHeight() != height
+                || arbolDibujado != abb || vistaCambiada) {
+            if (imagen == null || imagen.getWidth() != width || imagen.getHeight() != height) {
+                imagen = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            escena = calcularEscena();
+            arbolDibujado = abb;
+            versionDibujada = abb != null ? abb.getModificaciones() : 0;
+            vistaCambiada = false;
+            dibujarRegion(new Rectangle(0, 0, width, height));
+        } else if (abb != null && abb.getModificaciones() != versionDibujada) {
+            Rectangle region = actualizarEscena();
+            if (region != null) {
+                dibujarRegion(region);
+            }
+        }
+    }
+
+    /**
+     * Recalcula los elementos visibles y los compara con los anteriores.
+     * @return Región que cambió, o null si ninguna.
+     */
+    private Rectangle actualizarEscena() {
+        Escena anterior = escena;
+        escena = calcularEscena();
+        versionDibujada = abb != null ? abb.getModificaciones() : 0;
+        if (anterior.cantidad == 0 || escena.cantidad == 0) {
+            return new Rectangle(0, 0, imagen.getWidth(), imagen.getHeight());
+        }
 
-    // Comprobación correcta: si la raíz no es nula, dibujar el árbol
-    if (abb != null && abb.getRaiz() != null) {
+        // Ambas disposiciones están ordenadas por dato: se mezclan
+        Rectangle region = null;
+        int i = 0;
+        int j = 0;
+        while (i < anterior.cantidad || j < escena.cantidad) {
+            if (j == escena.cantidad
+                    || (i < anterior.cantidad && anterior.datos[i] < escena.datos[j])) {
+                region = unir(region, limites(anterior, i++));
+            } else if (i == anterior.cantidad || escena.datos[j] < anterior.datos[i]) {
+                region = unir(region, limites(escena, j++));
+            } else {
+                if (!anterior.igual(i, escena, j)) {
+                    region = unir(region, limites(anterior, i));
+                    region = unir(region, limites(escena, j));
+                }
+                i++;
+                j++;
+            }
+        }
+        return region == null ? null : region.intersection(new Rectangle(0, 0, imagen.getWidth(), imagen.getHeight()));
+    }
+
+    private static Rectangle unir(Rectangle region, Rectangle otra) {
+        if (region == null) {
+            return otra;
+        }
+        region.add(otra);
+        return region;
+    }
+
+    /**
+     * Rectángulo que ocupa un elemento junto con la conexión a su padre,
+     * recortado a un margen alrededor del panel.
+     */
+    private Rectangle limites(Escena d, int i) {
+        int margen = RADIO_NODO + 2;
+        double minX = d.xs[i] - margen;
+        double maxX = d.xs[i] + margen;
+        double minY = d.ys[i] - margen;
+        double maxY = d.ys[i] + margen + (d.agrupados[i] > 0 ? ALTURA_NIVEL / 2 : 0);
+        if (!Double.isNaN(d.padresX[i])) {
+            minX = Math.min(minX, d.padresX[i]);
+            maxX = Math.max(maxX, d.padresX[i]);
+            minY = Math.min(minY, d.padresY[i]);
+            maxY = Math.max(maxY, d.padresY[i]);
+        }
+        int limite = 4 * Math.max(getWidth(), getHeight());
+        int x1 = (int) Math.max(-limite, Math.floor(minX));
+        int y1 = (int) Math.max(-limite, Math.floor(minY));
+        int x2 = (int) Math.min(limite, Math.ceil(maxX));
+        int y2 = (int) Math.min(limite, Math.ceil(maxY));
+        return new Rectangle(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
+    }
+
+    /**
+     * Devuelve la disposición del árbol actual, recalculándola solo si el
+     * árbol cambió desde la última vez.
+     */
+    private DisposicionArbol disposicionActual() {
+        if (abb != arbolDispuesto || abb.getModificaciones() != versionDispuesta || disposicion == null) {
+            disposicion = new DisposicionArbol(abb);
+            arbolDispuesto = abb;
+            versionDispuesta = abb.getModificaciones();
+        }
+        return disposicion;
+    }
+
+    /**
+     * Calcula los elementos visibles sin recursión, recorriendo en InOrden
+     * solo los subárboles que tocan el panel. Las posiciones salen de la
+     * {@link DisposicionArbol}; aquí solo se escalan y se desplazan.
+     */
+    private Escena calcularEscena() {
+        Escena e = new Escena();
+        if (abb == null || abb.getRaiz() == null) {
+            return e;
+        }
+        DisposicionArbol d = disposicionActual();
         int width = getWidth();
-        dibujarNodo(g2d, abb.getRaiz(), width / 2, 50, width / 4);
-    } else {
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.setColor(Color.GRAY);
-        g2d.drawString("Árbol vacío - Inserte nodos para comenzar", 50, 100);
+        int height = getHeight();
+        double ajuste = Math.min(ESPACIO_NODOS, (width - 2.0 * RADIO_NODO) / Math.max(1, d.getAncho()));
+        double escala = zoom * Math.max(ajuste, Double.MIN_NORMAL);
+        double origenX = width / 2.0 + desplazamientoX - d.getAncho() / 2 * escala;
+        double origenY = 50 + desplazamientoY;
+
+        int[] pila = new int[d.altura()];
+        int[] padres = new int[d.altura()];
+        boolean[] agrupados = new boolean[d.altura()];
+        int tope = 0;
+        int actual = 0;
+        int padre = -1;
+        while (true) {
+            // Baja por la izquierda mientras el subárbol sea visible
+            while (actual >= 0 && esVisible(d, actual, padre, escala, origenX, origenY, width, height)) {
+                boolean agrupar = !caben(d, d.getIzquierdo(actual), escala)
+                        || !caben(d, d.getDerecho(actual), escala);
+                pila[tope] = actual;
+                padres[tope] = padre;
+                agrupados[tope++] = agrupar;
+                if (agrupar) {
+                    break;
+                }
+                padre = actual;
+                actual = d.getIzquierdo(actual);
+            }
+            if (tope == 0) {
+                return e;
+            }
+            actual = pila[--tope];
+            padre = padres[tope];
+            double x = origenX + d.getX(actual) * escala;
+            double y = origenY + d.getProfundidad(actual) * ALTURA_NIVEL;
+            double padreX = padre < 0 ? SIN_PADRE : origenX + d.getX(padre) * escala;
+            double padreY = padre < 0 ? SIN_PADRE : y - ALTURA_NIVEL;
+            if (agrupados[tope]) {
+                e.agregar(d.getDato(actual), d.getTamano(actual) - 1, x, y, padreX, padreY);
+                actual = -1; // Su subárbol ya quedó representado por el glifo
+                continue;
+            }
+            e.agregar(d.getDato(actual), 0, x, y, padreX, padreY);
+            padre = actual;
+            actual = d.getDerecho(actual);
+        }
     }
-}
 
     /**
-     * Dibuja un nodo y sus hijos recursivamente.
+     * Indica si un hijo se puede dibujar sin encimarse con ningún otro
+     * nodo de su nivel.
+     */
+    private boolean caben(DisposicionArbol d, int hijo, double escala) {
+        return hijo < 0 || d.getHueco(hijo) * escala >= 2 * RADIO_NODO + 4;
+    }
+
+    /**
+     * Indica si el subárbol (o la conexión con su padre) toca el panel,
+     * usando el rango horizontal y la altura del subárbol.
+     */
+    private boolean esVisible(DisposicionArbol d, int i, int padre, double escala, double origenX, double origenY,
+                              int width, int height) {
+        double margen = RADIO_NODO + 2;
+        double minX = origenX + d.getMinimoX(i) * escala - margen;
+        double maxX = origenX + d.getMaximoX(i) * escala + margen;
+        double minY = origenY + d.getProfundidad(i) * ALTURA_NIVEL - margen;
+        double maxY = origenY + (d.getProfundidad(i) + d.getAltura(i) - 1) * ALTURA_NIVEL
+                + margen + ALTURA_NIVEL / 2.0;
+        if (padre >= 0) {
+            double padreX = origenX + d.getX(padre) * escala;
+            minX = Math.min(minX, padreX);
+            maxX = Math.max(maxX, padreX);
+            minY -= ALTURA_NIVEL;
+        }
+        return maxX >= 0 && minX <= width && maxY >= 0 && minY <= height;
+    }
+
+    /**
+     * Vuelve a dibujar en la imagen solo lo que toca la región.
+     */
+    private void dibujarRegion(Rectangle region) {
+        Graphics2D g2d = imagen.createGraphics();
+        try {
+            g2d.setClip(region);
+            g2d.setColor(getBackground());
+            g2d.fill(region);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            if (escena.cantidad == 0) {
+                g2d.setFont(FUENTE_MENSAJE);
+                g2d.setColor(Color.GRAY);
+                if (sinDibujo != null) {
+                    // Sin leer el conjunto: puede estar cambiando en otro hilo
+                    g2d.drawString("Motor " + sinDibujo.getClass().getSimpleName()
+                            + " - Solo el ABB tiene vista de árbol", 50, 100);
+                } else if (abb == null || abb.getRaiz() == null) {
+                    g2d.drawString("Árbol vacío - Inserte nodos para comenzar", 50, 100);
+                }
+                return;
+            }
+
+            // Primero las conexiones y luego los nodos encima
+            g2d.setColor(COLOR_LINEA);
+            g2d.setStroke(TRAZO);
+            for (int i = 0; i < escena.cantidad; i++) {
+                if (!Double.isNaN(escena.padresX[i]) && region.intersects(limites(escena, i))
+                        && recortarLinea(escena.padresX[i], escena.padresY[i],
+                                         escena.xs[i], escena.ys[i])) {
+                    g2d.draw(linea);
+                }
+            }
+
+            FontMetrics fm = g2d.getFontMetrics(FUENTE_NODO);
+            FontMetrics fmGlifo = g2d.getFontMetrics(FUENTE_GLIFO);
+            for (int i = 0; i < escena.cantidad; i++) {
+                if (region.intersects(limites(escena, i))) {
+                    int x = (int) Math.round(escena.xs[i]);
+                    int y = (int) Math.round(escena.ys[i]);
+                    if (escena.agrupados[i] > 0) {
+                        dibujarGlifo(g2d, fmGlifo, escena.agrupados[i], x, y);
+                    }
+                    dibujarNodo(g2d, fm, escena.datos[i], x, y);
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Deja en {@code linea} el tramo del segmento que cae dentro del panel
+     * (Liang-Barsky): con zoom alto el padre puede quedar a millones de
+     * pixeles y Java2D no debe rasterizar ese trazo completo.
+     * @return false si el segmento no toca el panel.
+     */
+    private boolean recortarLinea(double x1, double y1, double x2, double y2) {
+        double margen = RADIO_NODO;
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x1 + margen, getWidth() + margen - x1, y1 + margen, getHeight() + margen - y1};
+        double t0 = 0;
+        double t1 = 1;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+            }
+        }
+        if (t0 > t1) {
+            return false;
+        }
+        linea.setLine(x1 + t0 * dx, y1 + t0 * dy, x1 + t1 * dx, y1 + t1 * dy);
+        return true;
+    }
+
+    /**
+     * Dibuja un nodo.
      * @param g2d Graphics2D para dibujar.
-     * @param nodo Nodo actual a dibujar.
+     * @param fm Métricas de la fuente de los nodos.
+     * @param dato Valor del nodo.
      * @param x Posición X del nodo.
      * @param y Posición Y del nodo.
-     * @param xOffset Desplazamiento horizontal para hijos.
-     */
-    private void dibujarNodo(Graphics2D g2d, Nodo nodo, int x, int y, int xOffset) {
-        // Dibujar líneas a los hijos primero
-        if (nodo.getIzquierdo() != null) {
-            int childX = x - xOffset;
-            int childY = y + ALTURA_NIVEL;
-            g2d.setColor(new Color(100, 100, 100));
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(x, y, childX, childY);
-            dibujarNodo(g2d, nodo.getIzquierdo(), childX, childY, xOffset / 2);
-        }
-
-        if (nodo.getDerecho() != null) {
-            int childX = x + xOffset;
-            int childY = y + ALTURA_NIVEL;
-            g2d.setColor(new Color(100, 100, 100));
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(x, y, childX, childY);
-            dibujarNodo(g2d, nodo.getDerecho(), childX, childY, xOffset / 2);
-        }
-
-        // Dibujar el nodo actual
-        g2d.setColor(new Color(100, 181, 246)); // color por defecto
+     */
+    private void dibujarNodo(Graphics2D g2d, FontMetrics fm, int dato, int x, int y) {
+        g2d.setColor(COLOR_NODO); // color por defecto
         g2d.fillOval(x - RADIO_NODO, y - RADIO_NODO, RADIO_NODO * 2, RADIO_NODO * 2);
 
         g2d.setColor(Color.BLACK);
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setStroke(TRAZO);
         g2d.drawOval(x - RADIO_NODO, y - RADIO_NODO, RADIO_NODO * 2, RADIO_NODO * 2);
 
         // Dibujar el valor del nodo
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        FontMetrics fm = g2d.getFontMetrics();
-        String valor = String.valueOf(nodo.getDato());
+        g2d.setFont(FUENTE_NODO);
+        String valor = String.valueOf(dato);
         int textX = x - fm.stringWidth(valor) / 2;
         int textY = y + fm.getAscent() / 2 - 2;
 
         g2d.setColor(Color.WHITE);
         g2d.drawString(valor, textX, textY);
     }
+
+    /**
+     * Dibuja bajo un nodo el triángulo que representa a sus descendientes
+     * agrupados, con la cantidad de nodos ocultos.
+     */
+    private void dibujarGlifo(Graphics2D g2d, FontMetrics fm, int ocultos, int x, int y) {
+        int base = y + RADIO_NODO + ALTURA_NIVEL / 2;
+        int[] puntosX = {x, x - RADIO_NODO, x + RADIO_NODO};
+        int[] puntosY = {y, base, base};
+        g2d.setColor(COLOR_GLIFO);
+        g2d.fillPolygon(puntosX, puntosY, 3);
+        g2d.setColor(COLOR_LINEA);
+        g2d.drawPolygon(puntosX, puntosY, 3);
+
+        g2d.setFont(FUENTE_GLIFO);
+        String texto = "+" + ocultos;
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.drawString(texto, x - fm.stringWidth(texto) / 2, base - 3);
+    }
 }
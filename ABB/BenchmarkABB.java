@@ -0,0 +1,382 @@
+package practicos.ABB;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Banco de pruebas de rendimiento del ABB, sin interfaz gráfica.
+ * 
+ * Mide insertar, buscar (acceso uniforme y Zipf), eliminar y cada
+ * recorrido con claves en orden balanceado, ascendente (P1.2) y
+ * descendente (P1.3), para tamaños de 10^3 a 10^7. Por cada caso reporta
+ * operaciones por segundo, percentiles de latencia (muestreando una de
+ * cada {@value #MUESTREO} operaciones) y bytes asignados por operación.
+ * En los recorridos una operación es un valor visitado y no se mide
+ * latencia individual.
+ * 
+ * Los resultados se pueden guardar en CSV y comparar contra una base
+ * anterior para detectar regresiones.
+ * 
+ * Uso: java practicos.ABB.BenchmarkABB [--modo=AVL|NINGUNO|SPLAY]
+ *      [--tamanos=1000,10000,...] [--salida=actual.csv] [--base=anterior.csv]
+ * (con 10^7 claves conviene -Xmx4g)
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class BenchmarkABB {
+    private static final int CALENTAMIENTO = 3;
+    private static final int MEDICIONES = 3;
+    private static final int MUESTREO = 8;
+    private static final int BUSQUEDAS = 1_000_000;
+    // Sin balanceo, los patrones ordenados cuestan O(n^2): se limitan
+    private static final int MAXIMO_DEGENERADO = 20_000;
+
+    private static volatile long sumidero; // Evita que el JIT descarte resultados
+
+    /**
+     * Orden en que llegan las claves al árbol.
+     */
+    enum Patron { BALANCEADO, ASCENDENTE, DESCENDENTE }
+
+    /**
+     * Resultado de un caso medido.
+     */
+    private static final class Resultado {
+        final String caso;
+        final double operacionesPorSegundo;
+        final long p50;
+        final long p99;
+        final long p999;
+        final double bytesPorOperacion;
+
+        Resultado(String caso, double operacionesPorSegundo, long[] latencias, int muestras,
+                  double bytesPorOperacion) {
+            this.caso = caso;
+            this.operacionesPorSegundo = operacionesPorSegundo;
+            Arrays.sort(latencias, 0, muestras);
+            this.p50 = percentil(latencias, muestras, 0.50);
+            this.p99 = percentil(latencias, muestras, 0.99);
+            this.p999 = percentil(latencias, muestras, 0.999);
+            this.bytesPorOperacion = bytesPorOperacion;
+        }
+    }
+
+    /**
+     * Acumula latencias muestreadas de una pasada.
+     */
+    private static final class Latencias {
+        long[] valores = new long[1024];
+        int cantidad;
+
+        void registrar(long nanos) {
+            if (cantidad == valores.length) {
+                valores = Arrays.copyOf(valores, cantidad * 2);
+            }
+            valores[cantidad++] = nanos;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ModoBalanceo modo = ModoBalanceo.AVL;
+        int[] tamanos = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+        Path salida = null;
+        Path base = null;
+        for (String arg : args) {
+            if (arg.startsWith("--modo=")) {
+                modo = ModoBalanceo.valueOf(arg.substring(7));
+            } else if (arg.startsWith("--tamanos=")) {
+                tamanos = Arrays.stream(arg.substring(10).split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--salida=")) {
+                salida = Paths.get(arg.substring(9));
+            } else if (arg.startsWith("--base=")) {
+                base = Paths.get(arg.substring(7));
+            }
+        }
+
+        Map<String, Double> anteriores = base != null ? leer(base) : new HashMap<>();
+        List<Resultado> resultados = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-44s %14s %9s %9s %9s %10s %8s%n",
+                "caso", "ops/s", "p50 ns", "p99 ns", "p99.9 ns", "B/op", "vs base");
+
+        for (int n : tamanos) {
+            for (Patron patron : Patron.values()) {
+                if (modo == ModoBalanceo.NINGUNO && patron != Patron.BALANCEADO && n > MAXIMO_DEGENERADO) {
+                    continue;
+                }
+                for (Resultado r : medirPatron(modo, patron, n)) {
+                    resultados.add(r);
+                    imprimir(r, anteriores.get(r.caso));
+                }
+            }
+        }
+
+        if (salida != null) {
+            guardar(salida, resultados);
+            System.out.println("Resultados guardados en " + salida);
+        }
+    }
+
+    private static List<Resultado> medirPatron(ModoBalanceo modo, Patron patron, int n) {
+        String prefijo = modo + "/" + patron + "/" + n + "/";
+        int[] claves = generarClaves(patron, n);
+        List<Resultado> resultados = new ArrayList<>();
+
+        // Las variantes "-con-huellas" miden el costo de activarHuellas()
+        // (NodoHuella más grande y una huella más por nodo del camino)
+        for (boolean huellas : new boolean[] {false, true}) {
+            String sufijo = huellas ? "-con-huellas" : "";
+            resultados.add(medir(prefijo + "insertar" + sufijo, () -> null, (arbol, lat) -> {
+                ArbolBusquedaBinario nuevo = nuevoArbol(modo, huellas);
+                for (int i = 0; i < claves.length; i++) {
+                    if (i % MUESTREO == 0) {
+                        long inicio = System.nanoTime();
+                        nuevo.insertar(claves[i]);
+                        lat.registrar(System.nanoTime() - inicio);
+                    } else {
+                        nuevo.insertar(claves[i]);
+                    }
+                }
+                return claves.length;
+            }));
+        }
+
+        ArbolBusquedaBinario arbol = new ArbolBusquedaBinario(modo);
+        for (int clave : claves) {
+            arbol.insertar(clave);
+        }
+
+        int[] uniformes = accesosUniformes(claves, BUSQUEDAS);
+        int[] zipf = accesosZipf(claves, BUSQUEDAS);
+        resultados.add(medir(prefijo + "buscar-uniforme", () -> arbol, (a, lat) -> buscarTodos(a, uniformes, lat)));
+        resultados.add(medir(prefijo + "buscar-zipf", () -> arbol, (a, lat) -> buscarTodos(a, zipf, lat)));
+
+        int[] orden = claves.clone();
+        barajar(orden, new SplittableRandom(n));
+        for (boolean huellas : new boolean[] {false, true}) {
+            Preparacion construir = () -> {
+                ArbolBusquedaBinario nuevo = nuevoArbol(modo, huellas);
+                for (int clave : claves) {
+                    nuevo.insertar(clave);
+                }
+                return nuevo;
+            };
+            resultados.add(medir(prefijo + "eliminar" + (huellas ? "-con-huellas" : ""), construir, (copia, lat) -> {
+                for (int i = 0; i < orden.length; i++) {
+                    if (i % MUESTREO == 0) {
+                        long inicio = System.nanoTime();
+                        copia.eliminar(orden[i]);
+                        lat.registrar(System.nanoTime() - inicio);
+                    } else {
+                        copia.eliminar(orden[i]);
+                    }
+                }
+                return orden.length;
+            }));
+        }
+
+        resultados.add(medir(prefijo + "recorridoInOrden", () -> arbol, (a, lat) -> a.recorridoInOrden().size()));
+        resultados.add(medir(prefijo + "recorridoPreOrden", () -> arbol, (a, lat) -> a.recorridoPreOrden().size()));
+        resultados.add(medir(prefijo + "recorridoPostOrden", () -> arbol, (a, lat) -> a.recorridoPostOrden().size()));
+        resultados.add(medir(prefijo + "recorrerInOrden", () -> arbol, (a, lat) -> {
+            long[] suma = new long[1];
+            a.recorrerInOrden(v -> suma[0] += v);
+            sumidero = suma[0];
+            return a.tamano();
+        }));
+        resultados.add(medir(prefijo + "stream", () -> arbol, (a, lat) -> {
+            sumidero = a.stream().asLongStream().sum();
+            return a.tamano();
+        }));
+        return resultados;
+    }
+
+    private static ArbolBusquedaBinario nuevoArbol(ModoBalanceo modo, boolean huellas) {
+        ArbolBusquedaBinario arbol = new ArbolBusquedaBinario(modo);
+        if (huellas) {
+            arbol.activarHuellas();
+        }
+        return arbol;
+    }
+
+    /**
+     * Pasada que recibe un árbol preparado fuera de la medición.
+     */
+    private interface CargaSobre {
+        long ejecutar(ArbolBusquedaBinario arbol, Latencias latencias);
+    }
+
+    private interface Preparacion {
+        ArbolBusquedaBinario preparar();
+    }
+
+    private static Resultado medir(String caso, Preparacion preparacion, CargaSobre carga) {
+        com.sun.management.ThreadMXBean hilos =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            carga.ejecutar(preparacion.preparar(), new Latencias());
+        }
+
+        Latencias latencias = new Latencias();
+        long operaciones = 0;
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < MEDICIONES; i++) {
+            ArbolBusquedaBinario arbol = preparacion.preparar();
+            long asignadoAntes = hilos.getThreadAllocatedBytes(hilo);
+            long inicio = System.nanoTime();
+            operaciones += carga.ejecutar(arbol, latencias);
+            nanos += System.nanoTime() - inicio;
+            bytes += hilos.getThreadAllocatedBytes(hilo) - asignadoAntes;
+        }
+        return new Resultado(caso, operaciones * 1e9 / nanos, latencias.valores, latencias.cantidad,
+                (double) bytes / operaciones);
+    }
+
+    private static long buscarTodos(ArbolBusquedaBinario arbol, int[] accesos, Latencias latencias) {
+        for (int i = 0; i < accesos.length; i++) {
+            if (i % MUESTREO == 0) {
+                long inicio = System.nanoTime();
+                arbol.buscar(accesos[i]);
+                latencias.registrar(System.nanoTime() - inicio);
+            } else {
+                arbol.buscar(accesos[i]);
+            }
+        }
+        return accesos.length;
+    }
+
+    // --- Generación de claves y accesos ---
+
+    private static int[] generarClaves(Patron patron, int n) {
+        int[] claves = new int[n];
+        for (int i = 0; i < n; i++) {
+            claves[i] = i * 2; // Deja huecos para búsquedas fallidas
+        }
+        switch (patron) {
+            case BALANCEADO:
+                barajar(claves, new SplittableRandom(n));
+                break;
+            case DESCENDENTE:
+                for (int i = 0, j = n - 1; i < j; i++, j--) {
+                    int t = claves[i];
+                    claves[i] = claves[j];
+                    claves[j] = t;
+                }
+                break;
+            default:
+                break;
+        }
+        return claves;
+    }
+
+    private static void barajar(int[] datos, SplittableRandom aleatorio) {
+        for (int i = datos.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int t = datos[i];
+            datos[i] = datos[j];
+            datos[j] = t;
+        }
+    }
+
+    private static int[] accesosUniformes(int[] claves, int cantidad) {
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        int[] accesos = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            accesos[i] = claves[aleatorio.nextInt(claves.length)];
+        }
+        return accesos;
+    }
+
+    /**
+     * Accesos con distribución Zipf (theta = 0.99) según el método de
+     * Gray et al.: la clave en la posición i se pide con probabilidad
+     * proporcional a 1 / (i + 1)^theta.
+     */
+    private static int[] accesosZipf(int[] claves, int cantidad) {
+        double theta = 0.99;
+        int n = claves.length;
+        double zetaN = 0;
+        for (int i = 1; i <= n; i++) {
+            zetaN += 1 / Math.pow(i, theta);
+        }
+        double zeta2 = 1 + 1 / Math.pow(2, theta);
+        double alfa = 1 / (1 - theta);
+        double eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetaN);
+
+        SplittableRandom aleatorio = new SplittableRandom(13);
+        int[] accesos = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            double u = aleatorio.nextDouble();
+            double uz = u * zetaN;
+            int posicion;
+            if (uz < 1) {
+                posicion = 0;
+            } else if (uz < 1 + Math.pow(0.5, theta)) {
+                posicion = 1;
+            } else {
+                posicion = (int) Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alfa)));
+            }
+            accesos[i] = claves[posicion];
+        }
+        return accesos;
+    }
+
+    // --- Reporte ---
+
+    private static long percentil(long[] ordenados, int cantidad, double p) {
+        if (cantidad == 0) {
+            return 0;
+        }
+        return ordenados[Math.min(cantidad - 1, (int) (p * cantidad))];
+    }
+
+    private static void imprimir(Resultado r, Double anterior) {
+        String comparacion = "";
+        if (anterior != null) {
+            double cambio = 100.0 * (r.operacionesPorSegundo - anterior) / anterior;
+            comparacion = String.format(Locale.ROOT, "%+.1f%%", cambio);
+        }
+        boolean conLatencia = r.p50 > 0;
+        System.out.printf(Locale.ROOT, "%-44s %,14.0f %9s %9s %9s %10.1f %8s%n", r.caso,
+                r.operacionesPorSegundo, conLatencia ? r.p50 : "-", conLatencia ? r.p99 : "-",
+                conLatencia ? r.p999 : "-", r.bytesPorOperacion, comparacion);
+    }
+
+    private static void guardar(Path archivo, List<Resultado> resultados) throws IOException {
+        try (PrintWriter salida = new PrintWriter(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8))) {
+            salida.println("caso,ops_s,p50_ns,p99_ns,p999_ns,bytes_op");
+            for (Resultado r : resultados) {
+                salida.printf(Locale.ROOT, "%s,%.1f,%d,%d,%d,%.2f%n", r.caso, r.operacionesPorSegundo,
+                        r.p50, r.p99, r.p999, r.bytesPorOperacion);
+            }
+        }
+    }
+
+    /**
+     * Lee las operaciones por segundo de una base guardada, por caso.
+     */
+    private static Map<String, Double> leer(Path archivo) throws IOException {
+        Map<String, Double> resultados = new HashMap<>();
+        List<String> lineas = Files.readAllLines(archivo, StandardCharsets.UTF_8);
+        for (String linea : lineas.subList(1, lineas.size())) {
+            String[] campos = linea.split(",");
+            resultados.put(campos[0], Double.parseDouble(campos[1]));
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,334 @@
+package practicos.ABB;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Bitácora de escritura anticipada (write-ahead log) de un ABB: un
+ * archivo al que solo se agregan las modificaciones, en orden.
+ *
+ * Formato (little-endian):
+ * <pre>
+ *   cabecera: int magia 'ABBW', int versión (1)
+ *   marcos:   int largo, int CRC32C de la carga, carga
+ *   carga:    registros de 5 bytes: byte operación, int clave
+ * </pre>
+ *
+ * Los registros se juntan en memoria y se escriben por marcos. Quien
+ * necesita que su registro ya esté escrito llama a {@link #vaciarHasta}:
+ * el primero que llega se vuelve líder, se lleva todo lo pendiente (lo
+ * suyo y lo de los demás) en un solo write y un solo fsync, y los que
+ * llegaron mientras tanto esperan y salen con ese mismo fsync o se llevan
+ * el siguiente lote (group commit).
+ *
+ * Al reproducir, un marco incompleto o con CRC inválido al final marca
+ * hasta dónde llegó la última escritura antes de una caída; lo que sigue
+ * se descarta.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+final class BitacoraABB implements Closeable {
+    static final byte INSERTAR = 1;
+    static final byte ELIMINAR = 2;
+    static final byte LIMPIAR = 3;
+
+    static final int TAMANO_CABECERA = 8;
+    private static final int MAGIA = 0x57424241; // "ABBW" en little-endian
+    private static final int VERSION = 1;
+    private static final int TAMANO_MARCO = 8;
+    private static final int TAMANO_REGISTRO = 5;
+    private static final int CARGA_MAXIMA = (1 << 20) / TAMANO_REGISTRO * TAMANO_REGISTRO;
+
+    /**
+     * Recibe los registros al reproducir una bitácora.
+     */
+    interface Aplicador {
+        void aplicar(byte operacion, int clave);
+    }
+
+    private FileChannel canal;
+    private long tamano;        // Bytes del archivo actual
+    private ByteBuffer pendiente = ByteBuffer.allocate(64 << 10).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer enEscritura = ByteBuffer.allocate(64 << 10).order(ByteOrder.LITTLE_ENDIAN);
+    private long registrados;   // Número del último registro agregado
+    private long escritos;      // Número del último registro ya escrito
+    private boolean escribiendo; // Hay un líder escribiendo
+    private IOException error;  // Falla de escritura: la bitácora ya no acepta nada
+
+    // Solo los usa el líder
+    private final ByteBuffer marco = ByteBuffer.allocate(TAMANO_MARCO).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    private BitacoraABB(FileChannel canal, long tamano) {
+        this.canal = canal;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Crea una bitácora vacía (reemplaza el archivo si existe).
+     */
+    static BitacoraABB crear(Path archivo) throws IOException {
+        return new BitacoraABB(crearArchivo(archivo), TAMANO_CABECERA);
+    }
+
+    private static FileChannel crearArchivo(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(MAGIA).putInt(VERSION).flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera);
+            }
+            canal.force(true);
+            PersistenciaABB.sincronizarDirectorio(archivo);
+            return canal;
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reproduce una bitácora existente y la deja abierta para seguir
+     * agregando al final. Si termina en un marco incompleto o dañado (una
+     * escritura cortada por una caída) el archivo se recorta ahí.
+     */
+    static BitacoraABB abrir(Path archivo, Aplicador aplicador) throws IOException {
+        long validos = reproducir(archivo, aplicador);
+        if (validos < TAMANO_CABECERA) {
+            return crear(archivo);
+        }
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE);
+        if (canal.size() > validos) {
+            canal.truncate(validos);
+            canal.force(true);
+        }
+        canal.position(validos);
+        return new BitacoraABB(canal, validos);
+    }
+
+    /**
+     * Entrega al aplicador, en orden, todos los registros de los marcos
+     * válidos.
+     * @return Bytes válidos desde el inicio del archivo (0 si ni la
+     *         cabecera llegó a escribirse).
+     * @throws IOException Si falla la lectura o el archivo no es una bitácora.
+     */
+    static long reproducir(Path archivo, Aplicador aplicador) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException(archivo + ": bitácora demasiado grande para reproducir (" + tamano + " bytes)");
+            }
+            if (tamano < TAMANO_CABECERA) {
+                return 0;
+            }
+            ByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano).order(ByteOrder.LITTLE_ENDIAN);
+            if (datos.getInt() != MAGIA || datos.getInt() != VERSION) {
+                throw new IOException(archivo + ": no es una bitácora del ABB");
+            }
+            CRC32C crc = new CRC32C();
+            while (datos.remaining() >= TAMANO_MARCO) {
+                int inicio = datos.position();
+                int largo = datos.getInt();
+                int esperado = datos.getInt();
+                if (largo <= 0 || largo > CARGA_MAXIMA || largo % TAMANO_REGISTRO != 0 || largo > datos.remaining()) {
+                    return inicio;
+                }
+                crc.reset();
+                crc.update(datos.slice(datos.position(), largo));
+                if ((int) crc.getValue() != esperado) {
+                    return inicio;
+                }
+                for (int i = 0; i < largo; i += TAMANO_REGISTRO) {
+                    aplicador.aplicar(datos.get(), datos.getInt());
+                }
+            }
+            return datos.position();
+        }
+    }
+
+    /**
+     * Agrega un registro en memoria.
+     * @return Número del registro, para {@link #vaciarHasta}.
+     */
+    synchronized long registrar(byte operacion, int clave) {
+        if (pendiente.remaining() < TAMANO_REGISTRO) {
+            pendiente = crecer(pendiente, TAMANO_REGISTRO);
+        }
+        pendiente.put(operacion).putInt(clave);
+        return ++registrados;
+    }
+
+    /**
+     * Agrega un registro por cada clave del lote, con la misma operación.
+     * @return Número del último registro.
+     */
+    synchronized long registrar(byte operacion, int[] claves) {
+        if (pendiente.remaining() < claves.length * TAMANO_REGISTRO) {
+            pendiente = crecer(pendiente, claves.length * TAMANO_REGISTRO);
+        }
+        for (int clave : claves) {
+            pendiente.put(operacion).putInt(clave);
+        }
+        registrados += claves.length;
+        return registrados;
+    }
+
+    private static ByteBuffer crecer(ByteBuffer bufer, int faltan) {
+        int capacidad = Math.max(bufer.capacity() * 2, bufer.position() + faltan);
+        ByteBuffer nuevo = ByteBuffer.allocate(capacidad).order(ByteOrder.LITTLE_ENDIAN);
+        bufer.flip();
+        return nuevo.put(bufer);
+    }
+
+    synchronized long registrados() {
+        return registrados;
+    }
+
+    /**
+     * Bytes de registros en memoria que todavía no se escribieron.
+     */
+    synchronized int pendientes() {
+        return pendiente.position();
+    }
+
+    /**
+     * Bytes del archivo actual, para decidir cuándo compactar.
+     */
+    synchronized long tamano() {
+        return tamano + pendiente.position();
+    }
+
+    /**
+     * Vuelve cuando el registro dado (y todos los anteriores) ya está
+     * escrito, y sincronizado si se pide.
+     * @param registro Número devuelto por {@link #registrar}.
+     * @param sincronizar true para hacer fsync tras escribir.
+     * @throws IOException Si falla la escritura (esta o una anterior).
+     */
+    void vaciarHasta(long registro, boolean sincronizar) throws IOException {
+        ByteBuffer lote;
+        long hasta;
+        synchronized (this) {
+            while (true) {
+                if (error != null) {
+                    throw new IOException("La bitácora dejó de aceptar escrituras por una falla anterior", error);
+                }
+                if (escritos >= registro) {
+                    return;
+                }
+                if (!escribiendo) {
+                    break;
+                }
+                esperar();
+            }
+            // Líder: se lleva todo lo pendiente, de cualquier hilo
+            escribiendo = true;
+            lote = pendiente;
+            hasta = registrados;
+            pendiente = enEscritura;
+            pendiente.clear();
+            enEscritura = lote;
+        }
+        IOException falla = null;
+        long escritosAhora = 0;
+        try {
+            lote.flip();
+            escritosAhora = escribirMarcos(lote);
+            if (sincronizar) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            falla = e;
+        }
+        synchronized (this) {
+            escribiendo = false;
+            if (falla != null) {
+                error = falla;
+            } else {
+                escritos = hasta;
+                tamano += escritosAhora;
+            }
+            notifyAll();
+        }
+        if (falla != null) {
+            throw falla;
+        }
+    }
+
+    private void esperar() throws InterruptedIOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando la bitácora");
+        }
+    }
+
+    /**
+     * Escribe la carga en marcos de hasta {@value #CARGA_MAXIMA} bytes.
+     * @return Bytes escritos en el archivo.
+     */
+    private long escribirMarcos(ByteBuffer carga) throws IOException {
+        long total = 0;
+        while (carga.hasRemaining()) {
+            int largo = Math.min(carga.remaining(), CARGA_MAXIMA);
+            ByteBuffer parte = carga.slice(carga.position(), largo);
+            crc.reset();
+            crc.update(parte.duplicate());
+            marco.clear();
+            marco.putInt(largo).putInt((int) crc.getValue()).flip();
+            ByteBuffer[] partes = {marco, parte};
+            while (parte.hasRemaining()) {
+                canal.write(partes);
+            }
+            carga.position(carga.position() + largo);
+            total += TAMANO_MARCO + largo;
+        }
+        return total;
+    }
+
+    /**
+     * Escribe y sincroniza lo pendiente en el archivo actual y sigue en uno
+     * nuevo. Quien llama debe impedir que se registre algo mientras tanto.
+     */
+    void rotar(Path nuevo) throws IOException {
+        vaciarHasta(registrados(), true);
+        FileChannel anterior;
+        synchronized (this) {
+            while (escribiendo) {
+                esperar();
+            }
+            if (error != null) {
+                throw new IOException("La bitácora dejó de aceptar escrituras por una falla anterior", error);
+            }
+            anterior = canal;
+            canal = crearArchivo(nuevo);
+            tamano = TAMANO_CABECERA;
+        }
+        anterior.force(false); // Un líder sin fsync pudo haber escrito lo último
+        anterior.close();
+    }
+
+    /**
+     * Escribe y sincroniza lo pendiente y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            vaciarHasta(registrados(), true);
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package practicos.ABB;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara el rendimiento de {@link ArbolConcurrente} contra un ABB AVL
+ * protegido por un único cerrojo global, con muchos hilos lectores y
+ * pocos escritores.
+ * 
+ * Uso: java practicos.ABB.ComparativaConcurrencia [claves] [lectores] [escritores] [segundos]
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ComparativaConcurrencia {
+
+    /**
+     * Operaciones comunes a las dos variantes comparadas.
+     */
+    private interface Conjunto {
+        boolean insertar(int dato);
+        boolean eliminar(int dato);
+        boolean contiene(int dato);
+    }
+
+    /**
+     * ABB con un solo cerrojo para todas las operaciones.
+     */
+    private static final class ConCerrojoGlobal implements Conjunto {
+        private final ArbolBusquedaBinario abb = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+
+        @Override
+        public synchronized boolean insertar(int dato) {
+            return abb.insertar(dato);
+        }
+
+        @Override
+        public synchronized boolean eliminar(int dato) {
+            return abb.eliminar(dato);
+        }
+
+        @Override
+        public synchronized boolean contiene(int dato) {
+            return abb.contiene(dato);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int claves = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lectores = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int escritores = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int segundos = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        ArbolConcurrente concurrente = new ArbolConcurrente();
+        Conjunto particionado = new Conjunto() {
+            @Override
+            public boolean insertar(int dato) {
+                return concurrente.insertar(dato);
+            }
+
+            @Override
+            public boolean eliminar(int dato) {
+                return concurrente.eliminar(dato);
+            }
+
+            @Override
+            public boolean contiene(int dato) {
+                return concurrente.contiene(dato);
+            }
+        };
+
+        System.out.printf("Claves: %,d  Lectores: %d  Escritores: %d  Duración: %d s%n",
+                claves, lectores, escritores, segundos);
+        medir("Cerrojo global", new ConCerrojoGlobal(), claves, lectores, escritores, segundos);
+        medir("ArbolConcurrente", particionado, claves, lectores, escritores, segundos);
+    }
+
+    private static void medir(String nombre, Conjunto conjunto, int claves, int lectores,
+                              int escritores, int segundos) throws InterruptedException {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int i = 0; i < claves / 2; i++) {
+            conjunto.insertar(aleatorio.nextInt(claves));
+        }
+
+        LongAdder lecturas = new LongAdder();
+        LongAdder escrituras = new LongAdder();
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        Thread[] hilos = new Thread[lectores + escritores];
+
+        for (int h = 0; h < hilos.length; h++) {
+            boolean escritor = h < escritores;
+            SplittableRandom local = aleatorio.split();
+            hilos[h] = new Thread(() -> {
+                long operaciones = 0;
+                while ((operaciones & 1023) != 0 || System.nanoTime() < fin) {
+                    int dato = local.nextInt(claves);
+                    if (escritor) {
+                        if (local.nextBoolean()) {
+                            conjunto.insertar(dato);
+                        } else {
+                            conjunto.eliminar(dato);
+                        }
+                    } else {
+                        conjunto.contiene(dato);
+                    }
+                    operaciones++;
+                }
+                (escritor ? escrituras : lecturas).add(operaciones);
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        System.out.printf("%-18s lecturas: %,14.0f ops/s   escrituras: %,12.0f ops/s%n", nombre,
+                lecturas.sum() / (double) segundos, escrituras.sum() / (double) segundos);
+    }
+}
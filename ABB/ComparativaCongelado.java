@@ -0,0 +1,132 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Mide las búsquedas en {@link ArbolCongelado} (arreglo de Eytzinger)
+ * contra el ABB AVL de nodos del que sale, y contra la búsqueda binaria
+ * clásica sobre el arreglo ordenado como referencia.
+ *
+ * El ABB se llena insertando en orden aleatorio, como un árbol real: sus
+ * nodos quedan repartidos por el montículo y cada nivel es un fallo de
+ * caché en cuanto el árbol no cabe en ella. Los tamaños por defecto van
+ * desde uno que cabe holgado en la L3 hasta uno varias veces más grande.
+ *
+ * Uso: java -Xmx4g practicos.ABB.ComparativaCongelado [--tamanos=100000,1000000,...]
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ComparativaCongelado {
+    private static final int BUSQUEDAS = 4_000_000;
+    private static final int RANGOS = 200_000;
+    private static final int LARGO_RANGO = 64;
+    private static final int REPETICIONES = 5;
+
+    private static volatile long sumidero; // Evita que el JIT descarte resultados
+
+    private interface Busqueda {
+        boolean contiene(int dato);
+    }
+
+    private interface Rango {
+        void recorrer(int desde, int hasta, java.util.function.IntConsumer visitante);
+    }
+
+    public static void main(String[] args) {
+        int[] tamanos = {100_000, 1_000_000, 10_000_000, 30_000_000};
+        for (String arg : args) {
+            if (arg.startsWith("--tamanos=")) {
+                tamanos = Arrays.stream(arg.substring(10).split(",")).mapToInt(Integer::parseInt).toArray();
+            }
+        }
+        System.out.printf(Locale.ROOT, "%12s %10s %12s %12s %12s %9s %14s %14s%n", "claves", "MB arreglo",
+                "ABB ns", "binaria ns", "Eytzinger ns", "mejora", "rango ABB ns", "rango Eytz ns");
+
+        for (int n : tamanos) {
+            SplittableRandom aleatorio = new SplittableRandom(n);
+            int[] claves = new int[n];
+            for (int i = 0; i < n; i++) {
+                claves[i] = i * 2; // Las impares fallan
+            }
+            barajar(claves, aleatorio);
+            ArbolBusquedaBinario abb = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+            for (int clave : claves) {
+                abb.insertar(clave);
+            }
+            claves = null;
+            ArbolCongelado congelado = abb.congelar();
+            int[] ordenados = new int[n];
+            abb.llenarInOrden(ordenados);
+
+            int[] consultas = new int[BUSQUEDAS];
+            for (int i = 0; i < consultas.length; i++) {
+                consultas[i] = aleatorio.nextInt(2 * n);
+            }
+
+            double nsAbb = medir(abb::contiene, consultas);
+            double nsBinaria = medir(dato -> Arrays.binarySearch(ordenados, dato) >= 0, consultas);
+            double nsCongelado = medir(congelado::contiene, consultas);
+            double rangoAbb = medirRangos(abb::recorrerRango, consultas);
+            double rangoCongelado = medirRangos(congelado::recorrerRango, consultas);
+            System.out.printf(Locale.ROOT, "%,12d %10.1f %12.1f %12.1f %12.1f %8.1fx %14.1f %14.1f%n", n,
+                    congelado.bytes() / 1e6, nsAbb, nsBinaria, nsCongelado, nsAbb / nsCongelado,
+                    rangoAbb, rangoCongelado);
+        }
+    }
+
+    /**
+     * @return Mediana de ns por búsqueda.
+     */
+    private static double medir(Busqueda busqueda, int[] consultas) {
+        double[] muestras = new double[REPETICIONES];
+        for (int r = -1; r < REPETICIONES; r++) { // La primera pasada calienta
+            long encontrados = 0;
+            long inicio = System.nanoTime();
+            for (int consulta : consultas) {
+                if (busqueda.contiene(consulta)) {
+                    encontrados++;
+                }
+            }
+            long nanos = System.nanoTime() - inicio;
+            sumidero = encontrados;
+            if (r >= 0) {
+                muestras[r] = nanos / (double) consultas.length;
+            }
+        }
+        Arrays.sort(muestras);
+        return muestras[REPETICIONES / 2];
+    }
+
+    /**
+     * @return Mediana de ns por rango de unas {@value #LARGO_RANGO} claves.
+     */
+    private static double medirRangos(Rango rango, int[] consultas) {
+        double[] muestras = new double[REPETICIONES];
+        long[] suma = new long[1];
+        for (int r = -1; r < REPETICIONES; r++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < RANGOS; i++) {
+                rango.recorrer(consultas[i], consultas[i] + 2 * LARGO_RANGO, v -> suma[0] += v);
+            }
+            long nanos = System.nanoTime() - inicio;
+            if (r >= 0) {
+                muestras[r] = nanos / (double) RANGOS;
+            }
+        }
+        sumidero = suma[0];
+        Arrays.sort(muestras);
+        return muestras[REPETICIONES / 2];
+    }
+
+    private static void barajar(int[] datos, SplittableRandom aleatorio) {
+        for (int i = datos.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int t = datos[i];
+            datos[i] = datos[j];
+            datos[j] = t;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package practicos.ABB;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mide la memoria por clave de {@link ArbolBusquedaBinario} (un objeto
+ * {@link Nodo} por clave) frente a {@link ArbolCompacto} (arreglos
+ * paralelos de primitivos). El ABB se mide en sus tres formas de nodo:
+ * conjunto ({@link Nodo}), multiconjunto ({@link NodoContado}) y con
+ * huellas ({@link NodoHuella}).
+ * 
+ * Uso: java practicos.ABB.ComparativaMemoria [claves]
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ComparativaMemoria {
+
+    public static void main(String[] args) {
+        int claves = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        System.out.printf("Claves aleatorias: %,d%n", claves);
+
+        long conNodos = medirAbb("ArbolBusquedaBinario", new ArbolBusquedaBinario(ModoBalanceo.AVL), claves);
+        medirAbb("  multiconjunto", new ArbolBusquedaBinario(ModoBalanceo.AVL, true), claves);
+        ArbolBusquedaBinario conHuellas = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+        conHuellas.activarHuellas();
+        medirAbb("  con huellas", conHuellas, claves);
+        conHuellas = null;
+
+        long base = memoriaUsada();
+        ArbolCompacto compacto = new ArbolCompacto(claves);
+        llenar(compacto::insertar, claves);
+        long enArreglos = memoriaUsada() - base;
+        System.out.printf("ArbolCompacto:        %6.1f bytes/clave (%,d claves)%n",
+                enArreglos / (double) compacto.tamano(), compacto.tamano());
+
+        System.out.printf("Reducción: %.1f%%%n", 100.0 * (conNodos - enArreglos) / conNodos);
+    }
+
+    /**
+     * Llena el árbol y devuelve cuánta memoria ocupa; no lo retiene.
+     */
+    private static long medirAbb(String nombre, ArbolBusquedaBinario abb, int claves) {
+        long base = memoriaUsada();
+        llenar(abb::insertar, claves);
+        long usada = memoriaUsada() - base;
+        System.out.printf("%-21s %6.1f bytes/clave (%,d claves)%n",
+                nombre + ":", usada / (double) abb.tamano(), abb.tamano());
+        return usada;
+    }
+
+    private interface Insercion {
+        boolean insertar(int dato);
+    }
+
+    private static void llenar(Insercion arbol, int claves) {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < claves; i++) {
+            arbol.insertar(aleatorio.nextInt());
+        }
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
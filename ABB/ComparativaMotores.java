@@ -0,0 +1,198 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Compara los motores de {@link ConjuntoOrdenado} con las distribuciones
+ * de claves que usamos: aleatoria uniforme, ascendente y agrupada (bloques
+ * de claves consecutivas que llegan en desorden, como los rangos de
+ * identificadores de un archivo importado).
+ *
+ * Por cada distribución y motor mide insertar todas las claves, buscar
+ * (mitad aciertos, mitad fallos), recorrer rangos cortos y eliminar todo,
+ * en nanosegundos por operación (la mediana de varias repeticiones), y
+ * marca con * el motor más rápido de cada columna. El ABB se mide en modo
+ * AVL: sin balanceo las claves ascendentes lo degeneran en una lista.
+ *
+ * Uso: java practicos.ABB.ComparativaMotores [claves] [repeticiones]
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ComparativaMotores {
+    private static final int TAMANO_BLOQUE = 1_000;
+    private static final int LARGO_RANGO = 100;
+
+    private static volatile long sumidero; // Evita que el JIT descarte resultados
+
+    /**
+     * Orden y forma de las claves insertadas.
+     */
+    enum Distribucion { ALEATORIA, ASCENDENTE, AGRUPADA }
+
+    /**
+     * Fases medidas, en el orden de las columnas del reporte.
+     */
+    enum Fase { INSERTAR, BUSCAR, RANGO, ELIMINAR }
+
+    public static void main(String[] args) {
+        int claves = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        System.out.printf("Claves: %,d, repeticiones: %d (ns por operación, * = más rápido)%n", claves, repeticiones);
+
+        for (Distribucion distribucion : Distribucion.values()) {
+            int[] insertadas = generar(distribucion, claves, new SplittableRandom(claves));
+            int[] consultas = consultas(insertadas, new SplittableRandom(17));
+            int[] eliminadas = insertadas.clone();
+            barajar(eliminadas, new SplittableRandom(19));
+
+            Map<MotorConjunto, double[]> tiempos = new EnumMap<>(MotorConjunto.class);
+            for (MotorConjunto motor : MotorConjunto.values()) {
+                medir(motor, insertadas, consultas, eliminadas, 1); // Calentamiento
+                tiempos.put(motor, medir(motor, insertadas, consultas, eliminadas, repeticiones));
+            }
+            imprimir(distribucion, tiempos);
+        }
+    }
+
+    private static ConjuntoOrdenado crear(MotorConjunto motor) {
+        return motor == MotorConjunto.ABB ? new ArbolBusquedaBinario(ModoBalanceo.AVL) : motor.crear();
+    }
+
+    /**
+     * @return Mediana de ns por operación de cada fase.
+     */
+    private static double[] medir(MotorConjunto motor, int[] insertadas, int[] consultas,
+                                  int[] eliminadas, int repeticiones) {
+        double[][] muestras = new double[Fase.values().length][repeticiones];
+        for (int r = 0; r < repeticiones; r++) {
+            ConjuntoOrdenado conjunto = crear(motor);
+            long suma = 0;
+
+            long inicio = System.nanoTime();
+            for (int clave : insertadas) {
+                conjunto.insertar(clave);
+            }
+            muestras[Fase.INSERTAR.ordinal()][r] = (System.nanoTime() - inicio) / (double) insertadas.length;
+
+            inicio = System.nanoTime();
+            for (int clave : consultas) {
+                if (conjunto.contiene(clave)) {
+                    suma++;
+                }
+            }
+            muestras[Fase.BUSCAR.ordinal()][r] = (System.nanoTime() - inicio) / (double) consultas.length;
+
+            long[] visitadas = new long[1];
+            int rangos = consultas.length / LARGO_RANGO;
+            inicio = System.nanoTime();
+            for (int i = 0; i < rangos; i++) {
+                int desde = consultas[i];
+                conjunto.recorrerRango(desde, desde + LARGO_RANGO * 2, v -> visitadas[0] += v);
+            }
+            muestras[Fase.RANGO.ordinal()][r] = (System.nanoTime() - inicio) / (double) rangos;
+
+            inicio = System.nanoTime();
+            for (int clave : eliminadas) {
+                conjunto.eliminar(clave);
+            }
+            muestras[Fase.ELIMINAR.ordinal()][r] = (System.nanoTime() - inicio) / (double) eliminadas.length;
+            sumidero = suma + visitadas[0] + conjunto.tamano();
+        }
+        double[] medianas = new double[muestras.length];
+        for (int f = 0; f < muestras.length; f++) {
+            Arrays.sort(muestras[f]);
+            medianas[f] = muestras[f][repeticiones / 2];
+        }
+        return medianas;
+    }
+
+    private static void imprimir(Distribucion distribucion, Map<MotorConjunto, double[]> tiempos) {
+        System.out.println();
+        System.out.println("=== " + distribucion + " ===");
+        System.out.printf(Locale.ROOT, "%-18s", "motor");
+        for (Fase fase : Fase.values()) {
+            System.out.printf(Locale.ROOT, " %12s", fase.name().toLowerCase(Locale.ROOT));
+        }
+        System.out.println();
+
+        double[] mejores = new double[Fase.values().length];
+        Arrays.fill(mejores, Double.MAX_VALUE);
+        for (double[] t : tiempos.values()) {
+            for (int f = 0; f < t.length; f++) {
+                mejores[f] = Math.min(mejores[f], t[f]);
+            }
+        }
+        for (Map.Entry<MotorConjunto, double[]> entrada : tiempos.entrySet()) {
+            System.out.printf(Locale.ROOT, "%-18s", entrada.getKey());
+            double[] t = entrada.getValue();
+            for (int f = 0; f < t.length; f++) {
+                System.out.printf(Locale.ROOT, " %11.1f%s", t[f], t[f] == mejores[f] ? "*" : " ");
+            }
+            System.out.println();
+        }
+    }
+
+    // --- Generación de claves ---
+
+    private static int[] generar(Distribucion distribucion, int n, SplittableRandom aleatorio) {
+        int[] claves = new int[n];
+        switch (distribucion) {
+            case ALEATORIA:
+                for (int i = 0; i < n; i++) {
+                    claves[i] = i * 2; // Deja huecos para búsquedas fallidas
+                }
+                barajar(claves, aleatorio);
+                break;
+            case ASCENDENTE:
+                for (int i = 0; i < n; i++) {
+                    claves[i] = i * 2;
+                }
+                break;
+            default:
+                // Bloques de claves consecutivas en posiciones separadas del
+                // espacio, en orden dentro del bloque y barajados entre sí
+                int bloques = (n + TAMANO_BLOQUE - 1) / TAMANO_BLOQUE;
+                int[] orden = new int[bloques];
+                for (int b = 0; b < bloques; b++) {
+                    orden[b] = b;
+                }
+                barajar(orden, aleatorio);
+                int k = 0;
+                for (int b : orden) {
+                    int base = b * TAMANO_BLOQUE * 4;
+                    for (int j = 0; j < TAMANO_BLOQUE && k < n; j++) {
+                        claves[k++] = base + j * 2;
+                    }
+                }
+                break;
+        }
+        return claves;
+    }
+
+    /**
+     * Mitad claves existentes y mitad vecinas inexistentes (impares), en
+     * orden aleatorio.
+     */
+    private static int[] consultas(int[] claves, SplittableRandom aleatorio) {
+        int[] consultas = new int[claves.length];
+        for (int i = 0; i < consultas.length; i++) {
+            int clave = claves[aleatorio.nextInt(claves.length)];
+            consultas[i] = i % 2 == 0 ? clave : clave + 1;
+        }
+        return consultas;
+    }
+
+    private static void barajar(int[] datos, SplittableRandom aleatorio) {
+        for (int i = datos.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int t = datos[i];
+            datos[i] = datos[j];
+            datos[j] = t;
+        }
+    }
+}
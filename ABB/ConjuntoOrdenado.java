@@ -0,0 +1,120 @@
+package practicos.ABB;
+
+import java.util.ArrayList;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto ordenado de enteros sin repetidos.
+ *
+ * Es lo que el simulador, las pruebas y los bancos de medición necesitan
+ * de un motor: el {@link ArbolBusquedaBinario} lo implementa, y también
+ * {@link Treap}, {@link ListaSaltos}, {@link ArbolB} y {@link ArbolCompacto},
+ * que se pueden intercambiar con {@link MotorConjunto}.
+ *
+ * Las implementaciones no son seguras para varios hilos salvo que lo
+ * indiquen.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public interface ConjuntoOrdenado {
+
+    /**
+     * Inserta un valor.
+     * @return true si se insertó, false si ya existía.
+     */
+    boolean insertar(int dato);
+
+    /**
+     * Elimina un valor.
+     * @return true si se eliminó, false si no existía.
+     */
+    boolean eliminar(int dato);
+
+    /**
+     * Indica si un valor existe.
+     */
+    boolean contiene(int dato);
+
+    /**
+     * Busca un valor como lo pediría el usuario. Por defecto es
+     * {@link #contiene(int)}; un motor puede aprovecharlo para recordar el
+     * acceso (resaltarlo, acercarlo a la raíz, etc.).
+     */
+    default boolean buscar(int dato) {
+        return contiene(dato);
+    }
+
+    /**
+     * Número de valores del conjunto.
+     */
+    int tamano();
+
+    /**
+     * Vacía el conjunto.
+     */
+    void limpiar();
+
+    /**
+     * Mayor valor menor o igual que el dato (floor).
+     */
+    OptionalInt piso(int dato);
+
+    /**
+     * Menor valor mayor o igual que el dato (ceiling).
+     */
+    OptionalInt techo(int dato);
+
+    /**
+     * Entrega en orden ascendente los valores del intervalo cerrado
+     * [desde, hasta].
+     */
+    void recorrerRango(int desde, int hasta, IntConsumer visitante);
+
+    /**
+     * Entrega todos los valores en orden ascendente.
+     */
+    void recorrerInOrden(IntConsumer visitante);
+
+    /**
+     * Inserta un lote de valores, en cualquier orden y con repetidos.
+     * @param lote Valores a insertar (no se modifica el arreglo).
+     * @return Número de valores nuevos insertados.
+     */
+    default int insertarLote(int[] lote) {
+        int insertados = 0;
+        for (int dato : lote) {
+            if (insertar(dato)) {
+                insertados++;
+            }
+        }
+        return insertados;
+    }
+
+    /**
+     * Cuántos valores hay en el intervalo cerrado [desde, hasta].
+     */
+    default int contarEnRango(int desde, int hasta) {
+        int[] cuenta = {0};
+        recorrerRango(desde, hasta, dato -> cuenta[0]++);
+        return cuenta[0];
+    }
+
+    /**
+     * Recorrido InOrden (valores en orden ascendente).
+     */
+    default ArrayList<Integer> recorridoInOrden() {
+        ArrayList<Integer> resultado = new ArrayList<>(tamano());
+        recorrerInOrden(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Resumen de la forma del conjunto para mostrar al usuario, por
+     * ejemplo "1000 nodos, altura 12".
+     */
+    default String describir() {
+        return tamano() + " valores";
+    }
+}
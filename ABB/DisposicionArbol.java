@@ -0,0 +1,350 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+
+/**
+ * Disposición ordenada ("tidy tree") del ABB según Reingold y Tilford.
+ * Se calcula una sola vez en O(n) y deja las coordenadas en arreglos
+ * indexados por nodo, así que dibujar, exportar o animar solo lee
+ * posiciones ya calculadas.
+ *
+ * Los nodos se numeran en PreOrden: la raíz es 0, el hijo izquierdo de i
+ * es i + 1 y el derecho i + 1 + tamaño(izquierdo). Como los hijos siempre
+ * tienen índice mayor que su padre, recorrer los índices de mayor a menor
+ * es un PostOrden y no hace falta recursión.
+ *
+ * Reglas de la disposición:
+ * - Un hijo solo queda media unidad a su lado (izquierdo o derecho).
+ * - Dos subárboles hermanos se acercan hasta que sus contornos quedan a
+ *   una unidad en cada nivel, y el padre queda al centro.
+ * Los contornos se siguen con hilos desde las hojas extremas, como en el
+ * algoritmo original, para no recorrer cada subárbol más de una vez.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public final class DisposicionArbol {
+    private static final int NINGUNO = -1;
+
+    private final int cantidad;
+    private final int[] datos;
+    private final int[] izquierdos;
+    private final int[] derechos;
+    private final int[] profundidades;
+    private final int[] alturas;
+    private final int[] tamanos;
+    private final double[] xs;
+    private final double[] minimosX;
+    private final double[] maximosX;
+    private final double[] huecos;
+    private final int alturaTotal;
+
+    /**
+     * Calcula la disposición del árbol.
+     * @param abb Árbol a disponer.
+     */
+    public DisposicionArbol(ArbolBusquedaBinario abb) {
+        Nodo raiz = abb.getRaiz();
+        cantidad = raiz == null ? 0 : raiz.getTamano();
+        datos = new int[cantidad];
+        izquierdos = new int[cantidad];
+        derechos = new int[cantidad];
+        profundidades = new int[cantidad];
+        alturas = new int[cantidad];
+        tamanos = new int[cantidad];
+        xs = new double[cantidad];
+        minimosX = new double[cantidad];
+        maximosX = new double[cantidad];
+        huecos = new double[cantidad];
+        if (cantidad == 0) {
+            alturaTotal = 0;
+            return;
+        }
+        numerar(raiz);
+        alturaTotal = separar();
+        ubicar();
+        medirHuecos();
+    }
+
+    /**
+     * Llena datos, hijos y profundidades en PreOrden.
+     */
+    private void numerar(Nodo raiz) {
+        Nodo[] pila = new Nodo[Math.max(1, raiz.getAltura())];
+        int tope = 0;
+        int indice = 0;
+        pila[tope++] = raiz;
+        while (tope > 0) {
+            Nodo nodo = pila[--tope];
+            int i = indice++;
+            Nodo izquierdo = nodo.getIzquierdo();
+            Nodo derecho = nodo.getDerecho();
+            datos[i] = nodo.getDato();
+            izquierdos[i] = izquierdo == null ? NINGUNO : i + 1;
+            derechos[i] = derecho == null ? NINGUNO : i + 1 + (izquierdo == null ? 0 : izquierdo.getTamano());
+            if (izquierdo != null) {
+                profundidades[i + 1] = profundidades[i] + 1;
+            }
+            if (derecho != null) {
+                profundidades[derechos[i]] = profundidades[i] + 1;
+            }
+            if (tope + 2 > pila.length) {
+                pila = Arrays.copyOf(pila, pila.length * 2);
+            }
+            if (derecho != null) {
+                pila[tope++] = derecho;
+            }
+            if (izquierdo != null) {
+                pila[tope++] = izquierdo;
+            }
+        }
+    }
+
+    /**
+     * Primera pasada (PostOrden): fija el desplazamiento de cada nodo
+     * respecto de su padre, que queda en {@code xs}.
+     * @return Altura del árbol.
+     */
+    private int separar() {
+        int[] hilos = new int[cantidad];
+        double[] hilosDx = new double[cantidad]; // x(destino del hilo) - x(nodo)
+        int[] extremosIzq = new int[cantidad];   // Nodo más bajo del contorno izquierdo
+        int[] extremosDer = new int[cantidad];
+        double[] dxIzq = new double[cantidad];   // x(extremo) - x(raíz del subárbol)
+        double[] dxDer = new double[cantidad];
+        Arrays.fill(hilos, NINGUNO);
+
+        for (int v = cantidad - 1; v >= 0; v--) {
+            int izq = izquierdos[v];
+            int der = derechos[v];
+            tamanos[v] = 1 + (izq == NINGUNO ? 0 : tamanos[izq]) + (der == NINGUNO ? 0 : tamanos[der]);
+            if (izq == NINGUNO && der == NINGUNO) {
+                alturas[v] = 1;
+                extremosIzq[v] = v;
+                extremosDer[v] = v;
+                continue;
+            }
+            if (izq == NINGUNO || der == NINGUNO) {
+                int hijo = izq == NINGUNO ? der : izq;
+                xs[hijo] = izq == NINGUNO ? 0.5 : -0.5;
+                alturas[v] = alturas[hijo] + 1;
+                extremosIzq[v] = extremosIzq[hijo];
+                extremosDer[v] = extremosDer[hijo];
+                dxIzq[v] = xs[hijo] + dxIzq[hijo];
+                dxDer[v] = xs[hijo] + dxDer[hijo];
+                continue;
+            }
+
+            // Se bajan a la par el contorno derecho del subárbol izquierdo y
+            // el izquierdo del derecho; xl y xr son relativos a cada raíz
+            int l = izq;
+            int r = der;
+            double xl = 0;
+            double xr = 0;
+            double separacion = 1;
+            while (true) {
+                separacion = Math.max(separacion, xl - xr + 1);
+                int siguienteL = derechos[l] != NINGUNO ? derechos[l]
+                        : izquierdos[l] != NINGUNO ? izquierdos[l] : hilos[l];
+                int siguienteR = izquierdos[r] != NINGUNO ? izquierdos[r]
+                        : derechos[r] != NINGUNO ? derechos[r] : hilos[r];
+                if (siguienteL == NINGUNO || siguienteR == NINGUNO) {
+                    double xIzq = -separacion / 2;
+                    double xDer = separacion / 2;
+                    xs[izq] = xIzq;
+                    xs[der] = xDer;
+                    if (siguienteR != NINGUNO) {
+                        // El derecho es más profundo: el contorno izquierdo sigue en él
+                        int extremo = extremosIzq[izq];
+                        hilos[extremo] = siguienteR;
+                        hilosDx[extremo] = xDer + xr + desplazamiento(r, siguienteR, hilosDx)
+                                - (xIzq + dxIzq[izq]);
+                        extremosIzq[v] = extremosIzq[der];
+                        dxIzq[v] = xDer + dxIzq[der];
+                        extremosDer[v] = extremosDer[der];
+                        dxDer[v] = xDer + dxDer[der];
+                    } else if (siguienteL != NINGUNO) {
+                        // El izquierdo es más profundo: el contorno derecho sigue en él
+                        int extremo = extremosDer[der];
+                        hilos[extremo] = siguienteL;
+                        hilosDx[extremo] = xIzq + xl + desplazamiento(l, siguienteL, hilosDx)
+                                - (xDer + dxDer[der]);
+                        extremosIzq[v] = extremosIzq[izq];
+                        dxIzq[v] = xIzq + dxIzq[izq];
+                        extremosDer[v] = extremosDer[izq];
+                        dxDer[v] = xIzq + dxDer[izq];
+                    } else {
+                        extremosIzq[v] = extremosIzq[izq];
+                        dxIzq[v] = xIzq + dxIzq[izq];
+                        extremosDer[v] = extremosDer[der];
+                        dxDer[v] = xDer + dxDer[der];
+                    }
+                    break;
+                }
+                xl += desplazamiento(l, siguienteL, hilosDx);
+                xr += desplazamiento(r, siguienteR, hilosDx);
+                l = siguienteL;
+                r = siguienteR;
+            }
+            alturas[v] = Math.max(alturas[izq], alturas[der]) + 1;
+        }
+        return alturas[0];
+    }
+
+    /**
+     * Distancia horizontal de un nodo al siguiente de su contorno, sea un
+     * hijo (desplazamiento ya fijado) o el destino de su hilo.
+     */
+    private double desplazamiento(int desde, int hasta, double[] hilosDx) {
+        if (hasta == izquierdos[desde] || hasta == derechos[desde]) {
+            return xs[hasta];
+        }
+        return hilosDx[desde];
+    }
+
+    /**
+     * Segunda pasada: convierte los desplazamientos en posiciones
+     * absolutas (la más a la izquierda en 0) y calcula el rango horizontal
+     * de cada subárbol.
+     */
+    private void ubicar() {
+        xs[0] = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (izquierdos[i] != NINGUNO) {
+                xs[izquierdos[i]] += xs[i];
+            }
+            if (derechos[i] != NINGUNO) {
+                xs[derechos[i]] += xs[i];
+            }
+        }
+        for (int i = cantidad - 1; i >= 0; i--) {
+            double minimo = xs[i];
+            double maximo = xs[i];
+            if (izquierdos[i] != NINGUNO) {
+                minimo = Math.min(minimo, minimosX[izquierdos[i]]);
+                maximo = Math.max(maximo, maximosX[izquierdos[i]]);
+            }
+            if (derechos[i] != NINGUNO) {
+                minimo = Math.min(minimo, minimosX[derechos[i]]);
+                maximo = Math.max(maximo, maximosX[derechos[i]]);
+            }
+            minimosX[i] = minimo;
+            maximosX[i] = maximo;
+        }
+        double origen = minimosX[0];
+        for (int i = 0; i < cantidad; i++) {
+            xs[i] -= origen;
+            minimosX[i] -= origen;
+            maximosX[i] -= origen;
+        }
+    }
+
+    /**
+     * Distancia de cada nodo a su vecino más cercano del mismo nivel. En
+     * PreOrden los nodos de un nivel aparecen de izquierda a derecha, así
+     * que basta comparar cada uno con el último visto en su nivel.
+     */
+    private void medirHuecos() {
+        int[] ultimos = new int[alturaTotal];
+        Arrays.fill(ultimos, NINGUNO);
+        Arrays.fill(huecos, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < cantidad; i++) {
+            int anterior = ultimos[profundidades[i]];
+            if (anterior != NINGUNO) {
+                double hueco = xs[i] - xs[anterior];
+                huecos[i] = hueco;
+                huecos[anterior] = Math.min(huecos[anterior], hueco);
+            }
+            ultimos[profundidades[i]] = i;
+        }
+    }
+
+    /**
+     * @return Número de nodos dispuestos.
+     */
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * @return Altura del árbol dispuesto (0 si está vacío).
+     */
+    public int altura() {
+        return alturaTotal;
+    }
+
+    /**
+     * @return Ancho total del árbol en unidades (separación mínima = 1).
+     */
+    public double getAncho() {
+        return cantidad == 0 ? 0 : maximosX[0];
+    }
+
+    public int getDato(int i) {
+        return datos[i];
+    }
+
+    /**
+     * @return Índice del hijo izquierdo, o -1 si no tiene.
+     */
+    public int getIzquierdo(int i) {
+        return izquierdos[i];
+    }
+
+    /**
+     * @return Índice del hijo derecho, o -1 si no tiene.
+     */
+    public int getDerecho(int i) {
+        return derechos[i];
+    }
+
+    /**
+     * @return Posición horizontal del nodo, en unidades.
+     */
+    public double getX(int i) {
+        return xs[i];
+    }
+
+    /**
+     * @return Nivel del nodo (la raíz está en 0).
+     */
+    public int getProfundidad(int i) {
+        return profundidades[i];
+    }
+
+    /**
+     * @return Altura del subárbol del nodo.
+     */
+    public int getAltura(int i) {
+        return alturas[i];
+    }
+
+    /**
+     * @return Número de nodos del subárbol del nodo.
+     */
+    public int getTamano(int i) {
+        return tamanos[i];
+    }
+
+    /**
+     * @return Distancia al vecino más cercano del mismo nivel, o infinito
+     *         si está solo en su nivel.
+     */
+    public double getHueco(int i) {
+        return huecos[i];
+    }
+
+    /**
+     * @return Menor x dentro del subárbol del nodo.
+     */
+    public double getMinimoX(int i) {
+        return minimosX[i];
+    }
+
+    /**
+     * @return Mayor x dentro del subárbol del nodo.
+     */
+    public double getMaximoX(int i) {
+        return maximosX[i];
+    }
+}
@@ -0,0 +1,261 @@
+package practicos.ABB;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Instrumentación del ABB: comparaciones por operación, histograma de
+ * profundidad del descenso, altura actual y latencias por operación.
+ * 
+ * Los contadores son {@link LongAdder} (repartidos por hilo), así que
+ * registrar no compite con las lecturas de JMX. La latencia se mide en
+ * una de cada {@value #MUESTREO} operaciones para no pagar
+ * {@code System.nanoTime()} en todas, y se agrupa en cubetas de
+ * potencias de 2.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class EstadisticasABB implements EstadisticasABBMBean {
+    private static final int MUESTREO = 16;
+    private static final int CUBETAS = 64;
+
+    /**
+     * Operaciones instrumentadas.
+     */
+    enum Operacion { INSERTAR, BUSCAR, ELIMINAR }
+
+    /**
+     * Contadores de un tipo de operación.
+     */
+    private static final class Contadores {
+        final LongAdder operaciones = new LongAdder();
+        final LongAdder comparaciones = new LongAdder();
+        final LongAdder[] latencias = nuevasCubetas();
+
+        void reiniciar() {
+            operaciones.reset();
+            comparaciones.reset();
+            for (LongAdder cubeta : latencias) {
+                cubeta.reset();
+            }
+        }
+    }
+
+    private final ArbolBusquedaBinario arbol;
+    private final Contadores[] contadores = new Contadores[Operacion.values().length];
+    private final LongAdder[] profundidades = nuevasCubetas();
+    private final LongAdder descensos = new LongAdder();
+    private ObjectName nombreJmx;
+    private int turno; // Solo lo toca el hilo que usa el árbol
+
+    EstadisticasABB(ArbolBusquedaBinario arbol) {
+        this.arbol = arbol;
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new Contadores();
+        }
+    }
+
+    private static LongAdder[] nuevasCubetas() {
+        LongAdder[] cubetas = new LongAdder[CUBETAS];
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas[i] = new LongAdder();
+        }
+        return cubetas;
+    }
+
+    // --- Registro desde el árbol ---
+
+    /**
+     * Marca el inicio de una operación.
+     * @return Instante en nanosegundos, o 0 si esta operación no se muestrea.
+     */
+    long iniciar() {
+        return ++turno % MUESTREO == 0 ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Registra una operación terminada.
+     * @param comparaciones Nodos comparados con la clave.
+     * @param profundidad Nodos del camino recorrido.
+     * @param inicio Valor devuelto por {@link #iniciar()}.
+     */
+    void registrar(Operacion operacion, int comparaciones, int profundidad, long inicio) {
+        Contadores c = contadores[operacion.ordinal()];
+        c.operaciones.increment();
+        c.comparaciones.add(comparaciones);
+        profundidades[Math.min(profundidad, CUBETAS - 1)].increment();
+        descensos.add(profundidad);
+        if (inicio != 0) {
+            long nanos = System.nanoTime() - inicio;
+            c.latencias[CUBETAS - Long.numberOfLeadingZeros(Math.max(nanos, 1))].increment();
+        }
+    }
+
+    // --- Publicación JMX ---
+
+    void registrar(String nombre) {
+        try {
+            nombreJmx = new ObjectName("practicos.ABB:type=EstadisticasABB,name=" + ObjectName.quote(nombre));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, nombreJmx);
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudo registrar el MBean " + nombre, e);
+        }
+    }
+
+    void retirar() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombreJmx);
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudo retirar el MBean " + nombreJmx, e);
+        }
+    }
+
+    // --- Atributos ---
+
+    @Override
+    public long getInserciones() {
+        return contadores[Operacion.INSERTAR.ordinal()].operaciones.sum();
+    }
+
+    @Override
+    public long getBusquedas() {
+        return contadores[Operacion.BUSCAR.ordinal()].operaciones.sum();
+    }
+
+    @Override
+    public long getEliminaciones() {
+        return contadores[Operacion.ELIMINAR.ordinal()].operaciones.sum();
+    }
+
+    @Override
+    public double getComparacionesPorInsercion() {
+        return promedio(contadores[Operacion.INSERTAR.ordinal()]);
+    }
+
+    @Override
+    public double getComparacionesPorBusqueda() {
+        return promedio(contadores[Operacion.BUSCAR.ordinal()]);
+    }
+
+    @Override
+    public double getComparacionesPorEliminacion() {
+        return promedio(contadores[Operacion.ELIMINAR.ordinal()]);
+    }
+
+    private static double promedio(Contadores c) {
+        long operaciones = c.operaciones.sum();
+        return operaciones == 0 ? 0 : (double) c.comparaciones.sum() / operaciones;
+    }
+
+    @Override
+    public double getProfundidadPromedio() {
+        long operaciones = 0;
+        for (Contadores c : contadores) {
+            operaciones += c.operaciones.sum();
+        }
+        return operaciones == 0 ? 0 : (double) descensos.sum() / operaciones;
+    }
+
+    @Override
+    public int getProfundidadMaxima() {
+        for (int i = CUBETAS - 1; i >= 0; i--) {
+            if (profundidades[i].sum() > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long[] getHistogramaProfundidad() {
+        int maxima = getProfundidadMaxima();
+        long[] histograma = new long[maxima + 1];
+        for (int i = 0; i <= maxima; i++) {
+            histograma[i] = profundidades[i].sum();
+        }
+        return histograma;
+    }
+
+    /**
+     * Altura actual. Se lee sin sincronizar, así que es aproximada si el
+     * árbol se está modificando.
+     */
+    @Override
+    public int getAltura() {
+        return arbol.altura();
+    }
+
+    @Override
+    public int getTamano() {
+        return arbol.tamano();
+    }
+
+    @Override
+    public long getLatenciaInsertarP50() {
+        return percentil(Operacion.INSERTAR, 0.50);
+    }
+
+    @Override
+    public long getLatenciaInsertarP99() {
+        return percentil(Operacion.INSERTAR, 0.99);
+    }
+
+    @Override
+    public long getLatenciaBuscarP50() {
+        return percentil(Operacion.BUSCAR, 0.50);
+    }
+
+    @Override
+    public long getLatenciaBuscarP99() {
+        return percentil(Operacion.BUSCAR, 0.99);
+    }
+
+    @Override
+    public long getLatenciaEliminarP50() {
+        return percentil(Operacion.ELIMINAR, 0.50);
+    }
+
+    @Override
+    public long getLatenciaEliminarP99() {
+        return percentil(Operacion.ELIMINAR, 0.99);
+    }
+
+    /**
+     * Percentil aproximado: cota superior de la cubeta que lo contiene.
+     */
+    long percentil(Operacion operacion, double p) {
+        LongAdder[] cubetas = contadores[operacion.ordinal()].latencias;
+        long[] conteos = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos[i] = cubetas[i].sum();
+            total += conteos[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(p * total);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= objetivo) {
+                return i >= 63 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void reiniciar() {
+        for (Contadores c : contadores) {
+            c.reiniciar();
+        }
+        for (LongAdder cubeta : profundidades) {
+            cubeta.reset();
+        }
+        descensos.reset();
+    }
+}
@@ -0,0 +1,49 @@
+package practicos.ABB;
+
+/**
+ * Interfaz JMX de las estadísticas del ABB.
+ * Las latencias son cotas superiores en nanosegundos (potencias de 2).
+ * 
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public interface EstadisticasABBMBean {
+    long getInserciones();
+
+    long getBusquedas();
+
+    long getEliminaciones();
+
+    double getComparacionesPorInsercion();
+
+    double getComparacionesPorBusqueda();
+
+    double getComparacionesPorEliminacion();
+
+    double getProfundidadPromedio();
+
+    int getProfundidadMaxima();
+
+    long[] getHistogramaProfundidad();
+
+    int getAltura();
+
+    int getTamano();
+
+    long getLatenciaInsertarP50();
+
+    long getLatenciaInsertarP99();
+
+    long getLatenciaBuscarP50();
+
+    long getLatenciaBuscarP99();
+
+    long getLatenciaEliminarP50();
+
+    long getLatenciaEliminarP99();
+
+    /**
+     * Pone todos los contadores en cero.
+     */
+    void reiniciar();
+}
@@ -0,0 +1,289 @@
+package practicos.ABB;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Importador de claves enteras desde archivos grandes.
+ *
+ * Lee el archivo con un {@link FileChannel} sobre un búfer directo grande
+ * y convierte los bytes a enteros sin crear un String por línea ni por
+ * número. Las claves se juntan en lotes, cada lote se ordena con radix
+ * sort y se entrega a {@link ConjuntoOrdenado#insertarLote(int[])}.
+ *
+ * En el ABB un lote grande frente al árbol se mezcla con él y lo
+ * reconstruye en O(n + m). Para que esas reconstrucciones no sumen O(n²/m) en archivos
+ * enormes, el lote crece hasta igualar al árbol: cada mezcla al menos lo
+ * duplica y el costo total queda lineal.
+ *
+ * Formatos:
+ * - TEXTO: enteros decimales con signo opcional; cualquier otro byte
+ *   (espacio, salto de línea, coma, etc.) los separa.
+ * - BINARIO: enteros de 4 bytes en big-endian, como los escribe
+ *   {@link java.io.DataOutputStream}.
+ *
+ * Uso sin interfaz: java practicos.ABB.ImportadorClaves archivo
+ *      [--formato=TEXTO|BINARIO] [--lote=N] [--modo=AVL|NINGUNO|SPLAY]
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public final class ImportadorClaves {
+    private static final int TAMANO_BUFER = 4 << 20;
+    private static final int LOTE_POR_DEFECTO = 1 << 20;
+    private static final int LOTE_MAXIMO = 1 << 24;
+
+    /**
+     * Formato del archivo de claves.
+     */
+    public enum Formato {
+        TEXTO, BINARIO;
+
+        /**
+         * Deduce el formato por la extensión: .bin o .dat es binario, el
+         * resto se lee como texto.
+         */
+        public static Formato detectar(Path archivo) {
+            String nombre = archivo.getFileName().toString().toLowerCase();
+            return nombre.endsWith(".bin") || nombre.endsWith(".dat") ? BINARIO : TEXTO;
+        }
+    }
+
+    /**
+     * Aviso al terminar cada lote, por ejemplo para mostrar el progreso.
+     */
+    public interface Avance {
+        /**
+         * @param bytesLeidos Bytes del archivo procesados hasta ahora.
+         * @param bytesTotales Tamaño del archivo.
+         * @return false para cancelar la importación.
+         */
+        boolean loteInsertado(long bytesLeidos, long bytesTotales);
+    }
+
+    private final ConjuntoOrdenado abb;
+    private final ByteBuffer bufer = ByteBuffer.allocateDirect(TAMANO_BUFER).order(ByteOrder.BIG_ENDIAN);
+    private int[] lote = new int[LOTE_POR_DEFECTO];
+    private int enLote;
+    private Avance avance;
+
+    // --- Resultado de la última importación ---
+    private long clavesLeidas;
+    private long insertadas;
+    private long bytesLeidos;
+    private boolean cancelada;
+
+    // --- Estado del número de texto en curso (puede cruzar lecturas) ---
+    private long valor;
+    private boolean negativo;
+    private boolean enNumero;
+
+    /**
+     * Constructor del importador.
+     * @param abb Conjunto donde se insertan las claves.
+     */
+    public ImportadorClaves(ConjuntoOrdenado abb) {
+        this.abb = abb;
+    }
+
+    /**
+     * Cambia cuántas claves se juntan antes de insertar el primer lote.
+     */
+    public void setTamanoLote(int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El lote debe tener al menos una clave");
+        }
+        lote = new int[tamano];
+    }
+
+    public void setAvance(Avance avance) {
+        this.avance = avance;
+    }
+
+    /**
+     * Importa todas las claves del archivo.
+     * @param archivo Archivo a leer.
+     * @param formato Formato del archivo.
+     * @return Número de claves nuevas insertadas en el árbol.
+     * @throws IOException Si falla la lectura o el archivo está mal formado.
+     */
+    public long importar(Path archivo, Formato formato) throws IOException {
+        clavesLeidas = 0;
+        insertadas = 0;
+        bytesLeidos = 0;
+        cancelada = false;
+        enLote = 0;
+        valor = 0;
+        negativo = false;
+        enNumero = false;
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long total = canal.size();
+            bufer.clear();
+            while (!cancelada && canal.read(bufer) >= 0) {
+                bufer.flip();
+                bytesLeidos = canal.position();
+                if (formato == Formato.TEXTO) {
+                    leerTexto(total, bytesLeidos - bufer.remaining());
+                } else {
+                    leerBinario(total);
+                }
+                bufer.compact(); // Conserva los bytes de un entero binario incompleto
+            }
+            if (cancelada) {
+                return insertadas;
+            }
+            bufer.flip();
+            if (formato == Formato.BINARIO && bufer.hasRemaining()) {
+                throw new IOException("El archivo binario termina con un entero incompleto ("
+                        + bufer.remaining() + " bytes sobrantes)");
+            }
+            terminarNumero();
+            vaciarLote(total);
+        }
+        return insertadas;
+    }
+
+    /**
+     * Convierte los dígitos del búfer sin pasar por String. El número que
+     * quede a medias al final del búfer continúa en la siguiente lectura.
+     */
+    private void leerTexto(long total, long inicioBufer) {
+        for (int i = bufer.position(), fin = bufer.limit(); i < fin; i++) {
+            byte b = bufer.get(i);
+            if (b >= '0' && b <= '9') {
+                valor = valor * 10 + (b - '0');
+                enNumero = true;
+                if (valor > 1L + Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Valor fuera del rango de int en el byte " + (inicioBufer + i));
+                }
+            } else {
+                terminarNumero();
+                negativo = b == '-';
+                if (enLote == lote.length) {
+                    vaciarLote(total);
+                    if (cancelada) {
+                        return;
+                    }
+                }
+            }
+        }
+        bufer.position(bufer.limit());
+    }
+
+    private void terminarNumero() {
+        if (enNumero) {
+            long numero = negativo ? -valor : valor;
+            if (numero > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Valor fuera del rango de int: " + numero);
+            }
+            lote[enLote++] = (int) numero;
+            clavesLeidas++;
+        }
+        valor = 0;
+        negativo = false;
+        enNumero = false;
+    }
+
+    private void leerBinario(long total) {
+        while (bufer.remaining() >= Integer.BYTES && !cancelada) {
+            int n = Math.min(bufer.remaining() / Integer.BYTES, lote.length - enLote);
+            for (int i = 0; i < n; i++) {
+                lote[enLote++] = bufer.getInt();
+            }
+            clavesLeidas += n;
+            if (enLote == lote.length) {
+                vaciarLote(total);
+            }
+        }
+    }
+
+    /**
+     * Ordena el lote e inserta sus claves.
+     */
+    private void vaciarLote(long total) {
+        if (enLote == 0) {
+            return;
+        }
+        OrdenacionRadix.ordenar(lote, 0, enLote);
+        int distintos = OrdenacionRadix.eliminarRepetidos(lote, 0, enLote);
+        int[] ordenados = new int[distintos];
+        System.arraycopy(lote, 0, ordenados, 0, distintos);
+        insertadas += abb.insertarLote(ordenados);
+        enLote = 0;
+        if (abb.tamano() > lote.length && lote.length < LOTE_MAXIMO) {
+            lote = new int[Math.min(LOTE_MAXIMO, Integer.highestOneBit(abb.tamano() - 1) << 1)];
+        }
+        if (avance != null && !avance.loteInsertado(bytesLeidos, total)) {
+            cancelada = true;
+        }
+    }
+
+    /**
+     * @return Claves leídas del archivo en la última importación, con repetidos.
+     */
+    public long getClavesLeidas() {
+        return clavesLeidas;
+    }
+
+    /**
+     * @return Claves nuevas que entraron al árbol en la última importación.
+     */
+    public long getInsertadas() {
+        return insertadas;
+    }
+
+    /**
+     * @return true si la última importación se canceló desde {@link Avance}.
+     */
+    public boolean isCancelada() {
+        return cancelada;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: java practicos.ABB.ImportadorClaves archivo"
+                    + " [--formato=TEXTO|BINARIO] [--lote=N] [--modo=AVL|NINGUNO|SPLAY]");
+            System.exit(1);
+        }
+        Path archivo = null;
+        Formato formato = null;
+        int tamanoLote = LOTE_POR_DEFECTO;
+        ModoBalanceo modo = ModoBalanceo.AVL;
+        for (String arg : args) {
+            String valor = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--formato=")) {
+                formato = Formato.valueOf(valor.toUpperCase());
+            } else if (arg.startsWith("--lote=")) {
+                tamanoLote = Integer.parseInt(valor);
+            } else if (arg.startsWith("--modo=")) {
+                modo = ModoBalanceo.valueOf(valor);
+            } else {
+                archivo = Paths.get(arg);
+            }
+        }
+        if (formato == null) {
+            formato = Formato.detectar(archivo);
+        }
+
+        ArbolBusquedaBinario bst = new ArbolBusquedaBinario(modo);
+        ImportadorClaves importador = new ImportadorClaves(bst);
+        importador.setTamanoLote(tamanoLote);
+        long inicio = System.nanoTime();
+        importador.importar(archivo, formato);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long bytes = archivo.toFile().length();
+        System.out.println("=== Importación de " + archivo.getFileName() + " (" + formato + ") ===");
+        System.out.printf("Claves leídas:     %,d%n", importador.getClavesLeidas());
+        System.out.printf("Claves insertadas: %,d%n", importador.getInsertadas());
+        System.out.printf("Tiempo:            %.2f s (%.1f MB/s, %,.0f claves/s)%n",
+                segundos, bytes / 1e6 / segundos, importador.getClavesLeidas() / segundos);
+        System.out.println("Árbol:             " + bst.tamano() + " nodos, altura " + bst.altura());
+    }
+}
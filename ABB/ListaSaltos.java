@@ -0,0 +1,92 @@
+package practicos.ABB;
+
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto ordenado sobre {@link ConcurrentSkipListSet}: una lista
+ * enlazada ordenada con niveles de atajos elegidos al azar, con búsqueda
+ * esperada O(log n) y sin rebalanceo. Es el único motor seguro para varios
+ * hilos: las operaciones no usan cerrojos y los recorridos ven un estado
+ * consistente débil (no fallan si otro hilo modifica mientras tanto).
+ *
+ * Cada clave es un Integer en su propio nodo, así que ocupa bastante más
+ * memoria que en los árboles de primitivos.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class ListaSaltos implements ConjuntoOrdenado {
+    private final ConcurrentSkipListSet<Integer> claves = new ConcurrentSkipListSet<>();
+    // size() de ConcurrentSkipListSet recorre toda la lista: se lleva la cuenta aparte
+    private final AtomicInteger cantidad = new AtomicInteger();
+
+    @Override
+    public boolean insertar(int dato) {
+        if (claves.add(dato)) {
+            cantidad.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean eliminar(int dato) {
+        if (claves.remove(dato)) {
+            cantidad.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contiene(int dato) {
+        return claves.contains(dato);
+    }
+
+    @Override
+    public int tamano() {
+        return cantidad.get();
+    }
+
+    /**
+     * Vacía la lista. Con otros hilos modificando a la vez, la cuenta puede
+     * quedar desfasada de las claves que alcanzaron a entrar.
+     */
+    @Override
+    public void limpiar() {
+        claves.clear();
+        cantidad.set(0);
+    }
+
+    @Override
+    public OptionalInt piso(int dato) {
+        Integer piso = claves.floor(dato);
+        return piso == null ? OptionalInt.empty() : OptionalInt.of(piso);
+    }
+
+    @Override
+    public OptionalInt techo(int dato) {
+        Integer techo = claves.ceiling(dato);
+        return techo == null ? OptionalInt.empty() : OptionalInt.of(techo);
+    }
+
+    @Override
+    public void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        if (desde > hasta) {
+            return;
+        }
+        for (Integer clave : claves.subSet(desde, true, hasta, true)) {
+            visitante.accept(clave);
+        }
+    }
+
+    @Override
+    public void recorrerInOrden(IntConsumer visitante) {
+        for (Integer clave : claves) {
+            visitante.accept(clave);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package practicos.ABB;
+
+/**
+ * Modos de balanceo disponibles para el ABB.
+ * 
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public enum ModoBalanceo {
+    /** ABB clásico: la forma depende del orden de inserción. */
+    NINGUNO,
+    /** Árbol AVL: rota al insertar y eliminar para mantener altura O(log n). */
+    AVL,
+    /**
+     * Árbol splay: cada acceso sube el nodo a la raíz, así que las claves
+     * consultadas a menudo quedan arriba (costo amortizado O(log n)).
+     */
+    SPLAY
+}
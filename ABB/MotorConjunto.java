@@ -0,0 +1,85 @@
+package practicos.ABB;
+
+import java.util.Locale;
+
+/**
+ * Motores intercambiables de {@link ConjuntoOrdenado}.
+ *
+ * El simulador elige el motor al arrancar con {@code --motor=NOMBRE} o con
+ * la propiedad del sistema {@value #PROPIEDAD}; sin ninguna de las dos usa
+ * el ABB, que es el único que se dibuja.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public enum MotorConjunto {
+    /** {@link ArbolBusquedaBinario} con el modo de balanceo por defecto. */
+    ABB("ABB") {
+        @Override
+        public ConjuntoOrdenado crear() {
+            return new ArbolBusquedaBinario();
+        }
+    },
+    /** {@link Treap} con prioridades aleatorias. */
+    TREAP("Treap") {
+        @Override
+        public ConjuntoOrdenado crear() {
+            return new Treap();
+        }
+    },
+    /** {@link ListaSaltos} sobre ConcurrentSkipListSet. */
+    LISTA_SALTOS("Lista de saltos") {
+        @Override
+        public ConjuntoOrdenado crear() {
+            return new ListaSaltos();
+        }
+    },
+    /** {@link ArbolB} con páginas anchas. */
+    ARBOL_B("Árbol B+") {
+        @Override
+        public ConjuntoOrdenado crear() {
+            return new ArbolB();
+        }
+    },
+    /** {@link ArbolCompacto}: AVL en arreglos de primitivos. */
+    COMPACTO("AVL compacto") {
+        @Override
+        public ConjuntoOrdenado crear() {
+            return new ArbolCompacto();
+        }
+    };
+
+    /** Propiedad del sistema con el motor por defecto. */
+    public static final String PROPIEDAD = "practicos.abb.motor";
+
+    private final String nombre;
+
+    MotorConjunto(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Crea un conjunto vacío de este motor.
+     */
+    public abstract ConjuntoOrdenado crear();
+
+    /**
+     * Motor pedido en los argumentos ({@code --motor=NOMBRE}) o, si no
+     * está, en la propiedad {@value #PROPIEDAD}; ABB si no hay ninguno.
+     * @throws IllegalArgumentException Si el nombre no es un motor.
+     */
+    public static MotorConjunto elegir(String[] args) {
+        String elegido = System.getProperty(PROPIEDAD);
+        for (String arg : args) {
+            if (arg.startsWith("--motor=")) {
+                elegido = arg.substring(8);
+            }
+        }
+        return elegido == null ? ABB : valueOf(elegido.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -11,6 +11,9 @@ public class Nodo {
     private int dato;
     private Nodo izquierdo;
     private Nodo derecho;
+    private int altura; // Altura del subárbol (hoja = 1), usada por el balanceo AVL
+    private int tamano; // Número de nodos del subárbol, para estadísticos de orden
+    private Object propietario; // Árbol (versión) que puede modificar este nodo
 
     /**
      * Constructor del nodo.
@@ -20,6 +23,32 @@ public class Nodo {
         this.dato = dato;
         this.izquierdo = null;
         this.derecho = null;
+        this.altura = 1;
+        this.tamano = 1;
+    }
+
+    /**
+     * Constructor de un nodo que pertenece a una versión del árbol.
+     * @param dato Valor entero del nodo.
+     * @param propietario Marca de la versión que puede modificarlo.
+     */
+    Nodo(int dato, Object propietario) {
+        this(dato);
+        this.propietario = propietario;
+    }
+
+    /**
+     * Copia un nodo (con los mismos hijos) para otra versión del árbol.
+     * @param original Nodo a copiar.
+     * @param propietario Marca de la versión dueña de la copia.
+     */
+    Nodo(Nodo original, Object propietario) {
+        this.dato = original.dato;
+        this.izquierdo = original.izquierdo;
+        this.derecho = original.derecho;
+        this.altura = original.altura;
+        this.tamano = original.tamano;
+        this.propietario = propietario;
     }
 
     // --- Getters ---
@@ -35,6 +64,25 @@ public class Nodo {
         return derecho;
     }
 
+    public int getAltura() {
+        return altura;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Ocurrencias del valor: siempre 1, salvo en un {@link NodoContado}.
+     */
+    public int getContador() {
+        return 1;
+    }
+
+    Object getPropietario() {
+        return propietario;
+    }
+
     // --- Setters ---
     public void setDato(int dato) {
         this.dato = dato;
@@ -47,4 +95,21 @@ public class Nodo {
     public void setDerecho(Nodo derecho) {
         this.derecho = derecho;
     }
+
+    public void setAltura(int altura) {
+        this.altura = altura;
+    }
+
+    public void setTamano(int tamano) {
+        this.tamano = tamano;
+    }
+
+    /**
+     * Copia el nodo (con los mismos hijos) para otra versión del árbol,
+     * conservando la clase: las subclases con más campos los copian también.
+     * @param propietario Marca de la versión dueña de la copia.
+     */
+    Nodo copiar(Object propietario) {
+        return new Nodo(this, propietario);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package practicos.ABB;
+
+/**
+ * Nodo de un multiconjunto: además del valor guarda cuántas veces está.
+ * Los árboles de conjunto usan {@link Nodo}, cuyo contador es siempre 1,
+ * y no llevan este campo.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+class NodoContado extends Nodo {
+    private int contador; // Ocurrencias del valor
+
+    NodoContado(int dato, Object propietario) {
+        super(dato, propietario);
+        this.contador = 1;
+    }
+
+    NodoContado(NodoContado original, Object propietario) {
+        super(original, propietario);
+        this.contador = original.contador;
+    }
+
+    @Override
+    Nodo copiar(Object propietario) {
+        return new NodoContado(this, propietario);
+    }
+
+    @Override
+    public int getContador() {
+        return contador;
+    }
+
+    public void setContador(int contador) {
+        this.contador = contador;
+    }
+}
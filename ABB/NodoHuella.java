@@ -0,0 +1,63 @@
+package practicos.ABB;
+
+/**
+ * Nodo que además guarda la huella de su subárbol, para los árboles con
+ * {@link ArbolBusquedaBinario#activarHuellas()}. Los demás árboles usan
+ * {@link Nodo} y no pagan ni los 8 bytes ni el cálculo. Extiende
+ * {@link NodoContado} porque el contador entra en el relleno de alineación
+ * que deja el long, así que sirve igual para conjuntos y multiconjuntos.
+ *
+ * La huella de un subárbol es la suma de las huellas de sus valores (cada
+ * una por su contador), así que dos árboles con los mismos valores tienen
+ * la misma huella aunque tengan otra forma, y al insertar o eliminar solo
+ * cambia en el camino.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+final class NodoHuella extends NodoContado {
+    private long huella;
+
+    NodoHuella(int dato, Object propietario) {
+        super(dato, propietario);
+        this.huella = huellaDe(dato);
+    }
+
+    private NodoHuella(NodoHuella original, Object propietario) {
+        super(original, propietario);
+        this.huella = original.huella;
+    }
+
+    @Override
+    Nodo copiar(Object propietario) {
+        return new NodoHuella(this, propietario);
+    }
+
+    long getHuella() {
+        return huella;
+    }
+
+    /**
+     * Recalcula la huella a partir de la de los hijos.
+     */
+    void actualizarHuella() {
+        huella = getContador() * huellaDe(getDato()) + huella(getIzquierdo()) + huella(getDerecho());
+    }
+
+    /**
+     * Huella de un subárbol; 0 si está vacío o si el nodo no la lleva.
+     */
+    static long huella(Nodo nodo) {
+        return nodo instanceof NodoHuella ? ((NodoHuella) nodo).huella : 0;
+    }
+
+    /**
+     * Huella de un valor: mezcla de 64 bits (finalizador de SplitMix64).
+     */
+    static long huellaDe(int dato) {
+        long z = dato * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
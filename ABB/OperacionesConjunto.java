@@ -0,0 +1,332 @@
+package practicos.ABB;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Operaciones de conjuntos sobre árboles AVL basadas en join
+ * (Blelloch, Ferizovic y Sun, "Just Join for Parallel Ordered Sets").
+ *
+ * Todo se construye a partir de {@code join(L, k, R)}, que une dos AVL
+ * con una clave intermedia en O(|h(L) - h(R)|), y de {@code split}, que
+ * parte un AVL por una clave en O(log n). Con ellas la unión, la
+ * intersección y la diferencia cuestan O(m log(n/m + 1)) y las dos
+ * llamadas recursivas de cada paso trabajan sobre subárboles disjuntos,
+ * así que se ejecutan en paralelo con fork-join cuando son grandes.
+ *
+ * Las operaciones no destruyen la entrada: los nodos nuevos llevan la
+ * marca del árbol resultado y solo esos se modifican en el lugar; los
+ * nodos de las entradas se comparten o se copian, igual que al escribir
+ * sobre una instantánea. Quien llama debe congelar antes las entradas
+ * (cambiar su marca) para que no escriban después sobre nodos compartidos.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+final class OperacionesConjunto {
+    /** Tamaño combinado desde el cual las dos mitades se reparten entre hilos. */
+    private static final int UMBRAL_PARALELO = 1 << 14;
+
+    /**
+     * Operación entre dos conjuntos.
+     */
+    enum Operacion { UNION, INTERSECCION, DIFERENCIA }
+
+    private final Object propietario;
+    private final boolean huellas;
+
+    /**
+     * @param propietario Marca del árbol resultado, que llevan los nodos nuevos.
+     * @param huellas true si el resultado lleva huellas ({@link NodoHuella}).
+     */
+    OperacionesConjunto(Object propietario, boolean huellas) {
+        this.propietario = propietario;
+        this.huellas = huellas;
+    }
+
+    /**
+     * Resultado de partir un árbol por una clave.
+     */
+    static final class Division {
+        final Nodo menores;
+        final boolean encontrado;
+        final Nodo mayores;
+
+        Division(Nodo menores, boolean encontrado, Nodo mayores) {
+            this.menores = menores;
+            this.encontrado = encontrado;
+            this.mayores = mayores;
+        }
+    }
+
+    /**
+     * Aplica la operación a dos AVL, repartiendo el trabajo en el pool
+     * común si el tamaño lo justifica.
+     */
+    Nodo aplicar(Operacion operacion, Nodo a, Nodo b) {
+        if (tamano(a) + tamano(b) < UMBRAL_PARALELO) {
+            return operar(operacion, a, b);
+        }
+        return ForkJoinPool.commonPool().invoke(new Tarea(this, operacion, a, b));
+    }
+
+    /**
+     * Paso recursivo: se parte {@code a} por la raíz de {@code b} y se
+     * combinan las mitades correspondientes.
+     */
+    private Nodo operar(Operacion operacion, Nodo a, Nodo b) {
+        if (a == null || b == null) {
+            return extremo(operacion, a, b);
+        }
+        Division division = dividir(a, b.getDato());
+        Nodo izquierdo = operar(operacion, division.menores, b.getIzquierdo());
+        Nodo derecho = operar(operacion, division.mayores, b.getDerecho());
+        return combinar(operacion, izquierdo, b.getDato(), division.encontrado, derecho);
+    }
+
+    /**
+     * Resultado cuando uno de los dos árboles está vacío.
+     */
+    private static Nodo extremo(Operacion operacion, Nodo a, Nodo b) {
+        switch (operacion) {
+            case UNION:
+                return a == null ? b : a;
+            case INTERSECCION:
+                return null;
+            default:
+                return a; // a \ vacío = a; vacío \ b = vacío
+        }
+    }
+
+    /**
+     * Junta las dos mitades ya resueltas, con o sin la clave que las separa.
+     */
+    private Nodo combinar(Operacion operacion, Nodo izquierdo, int clave, boolean enAmbos, Nodo derecho) {
+        boolean conservar = operacion == Operacion.UNION
+                || (operacion == Operacion.INTERSECCION && enAmbos);
+        return conservar ? unir(izquierdo, clave, derecho) : concatenar(izquierdo, derecho);
+    }
+
+    /**
+     * Paso recursivo en paralelo: la mitad derecha se bifurca y la
+     * izquierda se resuelve en el hilo actual.
+     */
+    private static final class Tarea extends RecursiveTask<Nodo> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient OperacionesConjunto operaciones;
+        private final Operacion operacion;
+        private final transient Nodo a;
+        private final transient Nodo b;
+
+        Tarea(OperacionesConjunto operaciones, Operacion operacion, Nodo a, Nodo b) {
+            this.operaciones = operaciones;
+            this.operacion = operacion;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected Nodo compute() {
+            if (a == null || b == null) {
+                return extremo(operacion, a, b);
+            }
+            if (tamano(a) + tamano(b) < UMBRAL_PARALELO) {
+                return operaciones.operar(operacion, a, b);
+            }
+            Division division = operaciones.dividir(a, b.getDato());
+            Tarea derecha = new Tarea(operaciones, operacion, division.mayores, b.getDerecho());
+            derecha.fork();
+            Nodo izquierdo = new Tarea(operaciones, operacion, division.menores, b.getIzquierdo()).compute();
+            Nodo derecho = derecha.join();
+            return operaciones.combinar(operacion, izquierdo, b.getDato(), division.encontrado, derecho);
+        }
+    }
+
+    /**
+     * Versión lineal para árboles que no son AVL (donde join no garantiza
+     * nada): mezcla dos arreglos ordenados sin repetidos.
+     * @return Número de valores del resultado, escritos en {@code destino}.
+     */
+    static int mezclar(Operacion operacion, int[] a, int[] b, int[] destino) {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                if (operacion != Operacion.INTERSECCION) {
+                    destino[k++] = a[i];
+                }
+                i++;
+            } else if (i == a.length || b[j] < a[i]) {
+                if (operacion == Operacion.UNION) {
+                    destino[k++] = b[j];
+                }
+                j++;
+            } else {
+                if (operacion != Operacion.DIFERENCIA) {
+                    destino[k++] = a[i];
+                }
+                i++;
+                j++;
+            }
+        }
+        return k;
+    }
+
+    // --- Split y join ---
+
+    /**
+     * Parte un AVL en las claves menores y mayores que la dada.
+     */
+    Division dividir(Nodo nodo, int clave) {
+        if (nodo == null) {
+            return new Division(null, false, null);
+        }
+        int dato = nodo.getDato();
+        if (clave == dato) {
+            return new Division(nodo.getIzquierdo(), true, nodo.getDerecho());
+        }
+        if (clave < dato) {
+            Division izquierda = dividir(nodo.getIzquierdo(), clave);
+            return new Division(izquierda.menores, izquierda.encontrado,
+                    unir(izquierda.mayores, dato, nodo.getDerecho()));
+        }
+        Division derecha = dividir(nodo.getDerecho(), clave);
+        return new Division(unir(nodo.getIzquierdo(), dato, derecha.menores),
+                derecha.encontrado, derecha.mayores);
+    }
+
+    /**
+     * Une dos AVL con todas las claves de {@code izquierdo} menores que
+     * {@code clave} y las de {@code derecho} mayores, en
+     * O(|h(izquierdo) - h(derecho)| + 1).
+     */
+    Nodo unir(Nodo izquierdo, int clave, Nodo derecho) {
+        if (altura(izquierdo) > altura(derecho) + 1) {
+            return unirPorDerecha(izquierdo, clave, derecho);
+        }
+        if (altura(derecho) > altura(izquierdo) + 1) {
+            return unirPorIzquierda(izquierdo, clave, derecho);
+        }
+        return nuevo(izquierdo, clave, derecho);
+    }
+
+    /**
+     * El izquierdo es más alto: se baja por su borde derecho hasta una
+     * altura parecida a la del derecho y se rebalancea de regreso.
+     */
+    private Nodo unirPorDerecha(Nodo izquierdo, int clave, Nodo derecho) {
+        Nodo hermano = izquierdo.getIzquierdo();
+        Nodo hijo = izquierdo.getDerecho();
+        if (altura(hijo) <= altura(derecho) + 1) {
+            Nodo medio = nuevo(hijo, clave, derecho);
+            if (altura(medio) <= altura(hermano) + 1) {
+                return nuevo(hermano, izquierdo.getDato(), medio);
+            }
+            return rotarIzquierda(nuevo(hermano, izquierdo.getDato(), rotarDerecha(medio)));
+        }
+        Nodo medio = unirPorDerecha(hijo, clave, derecho);
+        Nodo resultado = nuevo(hermano, izquierdo.getDato(), medio);
+        return altura(medio) <= altura(hermano) + 1 ? resultado : rotarIzquierda(resultado);
+    }
+
+    /**
+     * Simétrico de {@link #unirPorDerecha}.
+     */
+    private Nodo unirPorIzquierda(Nodo izquierdo, int clave, Nodo derecho) {
+        Nodo hermano = derecho.getDerecho();
+        Nodo hijo = derecho.getIzquierdo();
+        if (altura(hijo) <= altura(izquierdo) + 1) {
+            Nodo medio = nuevo(izquierdo, clave, hijo);
+            if (altura(medio) <= altura(hermano) + 1) {
+                return nuevo(medio, derecho.getDato(), hermano);
+            }
+            return rotarDerecha(nuevo(rotarIzquierda(medio), derecho.getDato(), hermano));
+        }
+        Nodo medio = unirPorIzquierda(izquierdo, clave, hijo);
+        Nodo resultado = nuevo(medio, derecho.getDato(), hermano);
+        return altura(medio) <= altura(hermano) + 1 ? resultado : rotarDerecha(resultado);
+    }
+
+    /**
+     * Une dos AVL sin clave intermedia (todas las de la izquierda menores
+     * que las de la derecha): se saca el máximo de la izquierda y se usa
+     * como clave de {@link #unir}.
+     */
+    Nodo concatenar(Nodo izquierdo, Nodo derecho) {
+        if (izquierdo == null) {
+            return derecho;
+        }
+        if (derecho == null) {
+            return izquierdo;
+        }
+        int[] maximo = new int[1];
+        Nodo resto = sinMaximo(izquierdo, maximo);
+        return unir(resto, maximo[0], derecho);
+    }
+
+    /**
+     * Devuelve el AVL sin su clave máxima, que deja en {@code maximo[0]}.
+     */
+    private Nodo sinMaximo(Nodo nodo, int[] maximo) {
+        if (nodo.getDerecho() == null) {
+            maximo[0] = nodo.getDato();
+            return nodo.getIzquierdo();
+        }
+        Nodo derecho = sinMaximo(nodo.getDerecho(), maximo);
+        return unir(nodo.getIzquierdo(), nodo.getDato(), derecho);
+    }
+
+    // --- Nodos del resultado ---
+
+    private Nodo nuevo(Nodo izquierdo, int clave, Nodo derecho) {
+        Nodo nodo = huellas ? new NodoHuella(clave, propietario) : new Nodo(clave, propietario);
+        nodo.setIzquierdo(izquierdo);
+        nodo.setDerecho(derecho);
+        actualizar(nodo);
+        return nodo;
+    }
+
+    private Nodo editable(Nodo nodo) {
+        return nodo.getPropietario() == propietario ? nodo : nodo.copiar(propietario);
+    }
+
+    private Nodo rotarDerecha(Nodo nodo) {
+        nodo = editable(nodo);
+        Nodo hijo = editable(nodo.getIzquierdo());
+        nodo.setIzquierdo(hijo.getDerecho());
+        hijo.setDerecho(nodo);
+        actualizar(nodo);
+        actualizar(hijo);
+        return hijo;
+    }
+
+    private Nodo rotarIzquierda(Nodo nodo) {
+        nodo = editable(nodo);
+        Nodo hijo = editable(nodo.getDerecho());
+        nodo.setDerecho(hijo.getIzquierdo());
+        hijo.setIzquierdo(nodo);
+        actualizar(nodo);
+        actualizar(hijo);
+        return hijo;
+    }
+
+    private static int altura(Nodo nodo) {
+        return nodo == null ? 0 : nodo.getAltura();
+    }
+
+    private static int tamano(Nodo nodo) {
+        return nodo == null ? 0 : nodo.getTamano();
+    }
+
+    private static void actualizar(Nodo nodo) {
+        Nodo izquierdo = nodo.getIzquierdo();
+        Nodo derecho = nodo.getDerecho();
+        nodo.setAltura(1 + Math.max(altura(izquierdo), altura(derecho)));
+        nodo.setTamano(1 + tamano(izquierdo) + tamano(derecho));
+        if (nodo instanceof NodoHuella) {
+            ((NodoHuella) nodo).actualizarHuella();
+        }
+    }
+}
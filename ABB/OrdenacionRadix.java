@@ -0,0 +1,93 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+
+/**
+ * Utilidades de ordenación en tiempo lineal para arreglos de enteros.
+ * 
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+final class OrdenacionRadix {
+
+    private OrdenacionRadix() {
+    }
+
+    /**
+     * Indica si el rango está en orden ascendente (admite repetidos).
+     */
+    static boolean estaOrdenado(int[] datos, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            if (datos[i - 1] > datos[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ordena el rango con radix sort LSD de 4 pasadas de 8 bits.
+     * Se invierte el bit de signo para que los negativos queden primero.
+     */
+    static void ordenar(int[] datos, int desde, int hasta) {
+        int n = hasta - desde;
+        if (n < 2 || estaOrdenado(datos, desde, hasta)) {
+            return;
+        }
+        if (n < 256) {
+            Arrays.sort(datos, desde, hasta);
+            return;
+        }
+
+        int[] origen = datos;
+        int inicioOrigen = desde;
+        int[] destino = new int[n];
+        int inicioDestino = 0;
+        int[] conteos = new int[256];
+        for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 8) {
+            Arrays.fill(conteos, 0);
+            for (int i = 0; i < n; i++) {
+                conteos[digito(origen[inicioOrigen + i], desplazamiento)]++;
+            }
+            int suma = 0;
+            for (int d = 0; d < 256; d++) {
+                int c = conteos[d];
+                conteos[d] = suma;
+                suma += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int valor = origen[inicioOrigen + i];
+                destino[inicioDestino + conteos[digito(valor, desplazamiento)]++] = valor;
+            }
+            int[] arreglo = origen;
+            origen = destino;
+            destino = arreglo;
+            int inicio = inicioOrigen;
+            inicioOrigen = inicioDestino;
+            inicioDestino = inicio;
+        }
+        // Tras 4 pasadas el resultado vuelve a estar en el arreglo original
+    }
+
+    private static int digito(int valor, int desplazamiento) {
+        return ((valor ^ Integer.MIN_VALUE) >>> desplazamiento) & 0xFF;
+    }
+
+    /**
+     * Elimina repetidos consecutivos de un rango ordenado, compactándolo
+     * al inicio del rango.
+     * @return Posición siguiente al último valor distinto.
+     */
+    static int eliminarRepetidos(int[] datos, int desde, int hasta) {
+        if (hasta - desde < 2) {
+            return hasta;
+        }
+        int escritura = desde + 1;
+        for (int i = desde + 1; i < hasta; i++) {
+            if (datos[i] != datos[escritura - 1]) {
+                datos[escritura++] = datos[i];
+            }
+        }
+        return escritura;
+    }
+}
@@ -0,0 +1,305 @@
+package practicos.ABB;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Guarda y carga el contenido de un ABB en un archivo binario compacto,
+ * para no reconstruirlo clave por clave en cada arranque.
+ *
+ * Formato (little-endian, el orden nativo de x86 y ARM):
+ * <pre>
+ *   0  int   magia 'ABBK'
+ *   4  int   versión del formato (1)
+ *   8  long  cantidad de claves
+ *  16  int   CRC32C de las claves (y de los contadores, si los hay)
+ *  20  int   banderas: bit 0 = con contadores (multiconjunto)
+ *  24  int[] claves en orden ascendente, sin repetidos
+ *      int[] con contadores: ocurrencias de cada clave, en el mismo orden
+ * </pre>
+ *
+ * Guardar recorre el conjunto en InOrden y escribe por un
+ * {@link FileChannel} con un búfer directo, calculando el CRC a la par;
+ * escribe primero en un archivo temporal que luego reemplaza al destino,
+ * así que un corte a la mitad no deja un archivo roto con el nombre
+ * bueno. Cargar proyecta el archivo en memoria, verifica la cabecera, el
+ * CRC y el orden, copia las claves en bloque a un int[] y construye el
+ * árbol balanceado en O(n), sin interpretar texto.
+ *
+ * Con 10^7 claves leer y verificar toma unos 100 ms y construir los
+ * nodos unos 400 ms si el montículo ya tiene espacio (-Xms); si tiene que
+ * crecer, el recolector copia varias veces los nodos recién creados y la
+ * carga pasa del segundo. {@link #cargarCongelado} evita los nodos por
+ * completo cuando solo se va a consultar.
+ *
+ * Uso sin interfaz: java practicos.ABB.PersistenciaABB guardar archivo [claves]
+ *                   java -Xms2g practicos.ABB.PersistenciaABB cargar archivo
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public final class PersistenciaABB {
+    private static final int MAGIA = 0x4B424241; // "ABBK" en little-endian
+    private static final int VERSION = 1;
+    private static final int TAMANO_CABECERA = 24;
+    private static final int CON_CONTADORES = 1;
+    private static final int TAMANO_BUFER = 1 << 20;
+    private static final int CLAVES_POR_PROYECCION = 1 << 28; // 1 GiB por cada map()
+
+    private PersistenciaABB() {
+    }
+
+    /**
+     * Guarda las claves del conjunto, reemplazando el archivo si existe.
+     * @param conjunto Conjunto a guardar; no debe cambiar mientras tanto
+     *                 (para un ABB en uso, guardar una {@link ArbolBusquedaBinario#snapshot()}).
+     *                 Un ABB multiconjunto se guarda con sus contadores.
+     * @param archivo Archivo destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public static void guardar(ConjuntoOrdenado conjunto, Path archivo) throws IOException {
+        ArbolBusquedaBinario multiconjunto = conjunto instanceof ArbolBusquedaBinario
+                && ((ArbolBusquedaBinario) conjunto).isMulticonjunto() ? (ArbolBusquedaBinario) conjunto : null;
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Escritor escritor = new Escritor(canal);
+            conjunto.recorrerInOrden(escritor);
+            long claves = escritor.cantidad;
+            if (multiconjunto != null) {
+                multiconjunto.recorrerConteos((dato, veces) -> escritor.accept(veces));
+            }
+            escritor.vaciar();
+
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(MAGIA).putInt(VERSION).putLong(claves).putInt((int) escritor.crc.getValue())
+                    .putInt(multiconjunto != null ? CON_CONTADORES : 0).flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDirectorio(archivo);
+    }
+
+    /**
+     * Sincroniza el directorio que contiene al archivo, para que su entrada
+     * (recién creada o renombrada) sobreviva a una caída. Sin esto el
+     * contenido del archivo puede estar en disco y su nombre no.
+     * En Windows no se puede abrir un directorio y NTFS ya registra los
+     * cambios de nombres en su diario, así que ahí no se hace nada.
+     * @param archivo Archivo cuyo directorio se sincroniza.
+     * @throws IOException Si falla la sincronización.
+     */
+    static void sincronizarDirectorio(Path archivo) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        Path directorio = archivo.toAbsolutePath().getParent();
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Recibe las claves en orden y las escribe por bloques tras la cabecera.
+     * Una IOException del canal se guarda y se relanza al final, porque
+     * el visitante no puede lanzarla.
+     */
+    private static final class Escritor implements IntConsumer {
+        private final FileChannel canal;
+        private final ByteBuffer bufer = ByteBuffer.allocateDirect(TAMANO_BUFER).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long posicion = TAMANO_CABECERA;
+        private long cantidad;
+        private IOException error;
+
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        @Override
+        public void accept(int clave) {
+            if (!bufer.hasRemaining()) {
+                escribir();
+            }
+            bufer.putInt(clave);
+            cantidad++;
+        }
+
+        private void escribir() {
+            if (error != null) {
+                bufer.clear();
+                return;
+            }
+            bufer.flip();
+            crc.update(bufer.duplicate());
+            try {
+                while (bufer.hasRemaining()) {
+                    posicion += canal.write(bufer, posicion);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            bufer.clear();
+        }
+
+        void vaciar() throws IOException {
+            escribir();
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Lee las claves de un archivo guardado con {@link #guardar}. Si el
+     * archivo trae contadores (multiconjunto), se devuelven solo las claves.
+     * @param archivo Archivo a leer.
+     * @return Claves en orden ascendente y sin repetidos.
+     * @throws IOException Si falla la lectura o el archivo no es válido
+     *         (magia, versión, tamaño, CRC u orden).
+     */
+    public static int[] leer(Path archivo) throws IOException {
+        return leerEnteros(archivo, null);
+    }
+
+    /**
+     * Lee y verifica el archivo. Si trae contadores y {@code conteos} no es
+     * null, los deja en {@code conteos[0]}.
+     */
+    private static int[] leerEnteros(Path archivo, int[][] conteos) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_CABECERA) {
+                throw new IOException(archivo + ": archivo demasiado corto para la cabecera");
+            }
+            ByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANO_CABECERA)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (cabecera.getInt() != MAGIA) {
+                throw new IOException(archivo + ": no es un archivo de claves del ABB");
+            }
+            int version = cabecera.getInt();
+            if (version != VERSION) {
+                throw new IOException(archivo + ": versión de formato " + version + " no soportada");
+            }
+            long cantidad = cabecera.getLong();
+            int crcEsperado = cabecera.getInt();
+            int banderas = cabecera.getInt();
+            if ((banderas & ~CON_CONTADORES) != 0) {
+                throw new IOException(archivo + ": banderas desconocidas (" + banderas + ")");
+            }
+            int enterosPorClave = (banderas & CON_CONTADORES) != 0 ? 2 : 1;
+            if (cantidad < 0 || cantidad > (Integer.MAX_VALUE - 8) / enterosPorClave
+                    || tamano != TAMANO_CABECERA + cantidad * enterosPorClave * Integer.BYTES) {
+                throw new IOException(archivo + ": la cantidad de claves (" + cantidad
+                        + ") no coincide con el tamaño del archivo (" + tamano + " bytes)");
+            }
+
+            int[] claves = new int[(int) cantidad * enterosPorClave];
+            CRC32C crc = new CRC32C();
+            for (int desde = 0; desde < claves.length; desde += CLAVES_POR_PROYECCION) {
+                int n = Math.min(CLAVES_POR_PROYECCION, claves.length - desde);
+                MappedByteBuffer bloque = canal.map(FileChannel.MapMode.READ_ONLY,
+                        TAMANO_CABECERA + (long) desde * Integer.BYTES, (long) n * Integer.BYTES);
+                crc.update(bloque.duplicate());
+                IntBuffer enteros = bloque.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                enteros.get(claves, desde, n);
+            }
+            if ((int) crc.getValue() != crcEsperado) {
+                throw new IOException(archivo + ": el CRC de las claves no coincide (archivo dañado)");
+            }
+            for (int i = 1; i < cantidad; i++) {
+                if (claves[i - 1] >= claves[i]) {
+                    throw new IOException(archivo + ": las claves no están en orden ascendente en la posición " + i);
+                }
+            }
+            if (enterosPorClave == 1) {
+                return claves;
+            }
+            int[] contadores = Arrays.copyOfRange(claves, (int) cantidad, claves.length);
+            for (int i = 0; i < contadores.length; i++) {
+                if (contadores[i] < 1) {
+                    throw new IOException(archivo + ": contador inválido (" + contadores[i] + ") en la posición " + i);
+                }
+            }
+            if (conteos != null) {
+                conteos[0] = contadores;
+            }
+            return Arrays.copyOf(claves, (int) cantidad);
+        }
+    }
+
+    /**
+     * Carga un archivo guardado con {@link #guardar} en un ABB nuevo,
+     * balanceado; si trae contadores, el ABB es un multiconjunto.
+     * @param archivo Archivo a leer.
+     * @param modo Modo de balanceo del árbol.
+     * @throws IOException Si falla la lectura o el archivo no es válido.
+     */
+    public static ArbolBusquedaBinario cargar(Path archivo, ModoBalanceo modo) throws IOException {
+        int[][] conteos = new int[1][];
+        int[] claves = leerEnteros(archivo, conteos);
+        ArbolBusquedaBinario abb = new ArbolBusquedaBinario(modo, conteos[0] != null);
+        abb.cargarOrdenados(claves, conteos[0], claves.length);
+        return abb;
+    }
+
+    /**
+     * Carga un archivo guardado con {@link #guardar} directamente como
+     * {@link ArbolCongelado}, sin crear un objeto por clave.
+     * @param archivo Archivo a leer.
+     * @throws IOException Si falla la lectura o el archivo no es válido.
+     */
+    public static ArbolCongelado cargarCongelado(Path archivo) throws IOException {
+        int[] claves = leer(archivo);
+        return new ArbolCongelado(claves, claves.length);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("guardar") || args[0].equals("cargar"))) {
+            System.err.println("Uso: java practicos.ABB.PersistenciaABB guardar archivo [claves]");
+            System.err.println("     java practicos.ABB.PersistenciaABB cargar archivo");
+            System.exit(1);
+        }
+        Path archivo = Paths.get(args[1]);
+        if (args[0].equals("guardar")) {
+            int n = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+            SplittableRandom aleatorio = new SplittableRandom(n);
+            ArbolBusquedaBinario abb = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+            abb.insertarLote(aleatorio.ints(n).toArray());
+            long inicio = System.nanoTime();
+            guardar(abb, archivo);
+            System.out.printf("Guardadas %,d claves en %s (%,d bytes) en %.0f ms%n", abb.tamano(), archivo,
+                    Files.size(archivo), (System.nanoTime() - inicio) / 1e6);
+        } else {
+            long inicio = System.nanoTime();
+            int[] claves = leer(archivo);
+            long leido = System.nanoTime();
+            ArbolBusquedaBinario abb = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+            abb.cargarOrdenados(claves, claves.length);
+            long fin = System.nanoTime();
+            System.out.printf("Cargadas %,d claves (altura %d) en %.0f ms: lectura y verificación %.0f ms,"
+                    + " construcción %.0f ms%n", abb.tamano(), abb.altura(), (fin - inicio) / 1e6,
+                    (leido - inicio) / 1e6, (fin - leido) / 1e6);
+            inicio = System.nanoTime();
+            ArbolCongelado congelado = cargarCongelado(archivo);
+            System.out.printf("Cargadas %,d claves como ArbolCongelado en %.0f ms%n", congelado.tamano(),
+                    (System.nanoTime() - inicio) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package practicos.ABB;
+
+/**
+ * Cuándo la bitácora de {@link ArbolDurable} obliga al sistema operativo
+ * a llevar los cambios al disco (fsync).
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public enum PoliticaSincronizacion {
+    /**
+     * Cada modificación vuelve cuando ya está en disco. Las que llegan a
+     * la vez desde varios hilos comparten un mismo fsync (group commit).
+     */
+    SIEMPRE,
+    /**
+     * Un hilo de fondo escribe y sincroniza cada pocos milisegundos: una
+     * caída del equipo pierde como mucho ese intervalo.
+     */
+    PERIODICA,
+    /**
+     * Un hilo de fondo escribe cada pocos milisegundos sin fsync: los
+     * cambios sobreviven a la caída del proceso pero no a la del sistema.
+     */
+    SIN_SINCRONIZAR
+}
@@ -0,0 +1,154 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Spliterator perezoso sobre los valores del ABB.
+ * Mantiene una pila de pendientes donde cada elemento es un subárbol
+ * completo o un valor suelto; dividir consiste en ceder los pendientes
+ * de arriba (el prefijo del recorrido) y quedarse con el de abajo, así que
+ * cada mitad corresponde a subárboles independientes.
+ * Como cada nodo conoce el tamaño de su subárbol, las dos mitades saben
+ * exactamente cuántos valores les quedan (SIZED y SUBSIZED).
+ * 
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+final class RecorridoSpliterator implements Spliterator.OfInt {
+
+    /**
+     * Orden del recorrido.
+     */
+    enum Orden { IN_ORDEN, PRE_ORDEN, POST_ORDEN }
+
+    private final Orden orden;
+    private Nodo[] nodos;
+    private boolean[] completos; // true = subárbol entero, false = solo el valor
+    private int tope;
+    private long restantes;
+
+    /**
+     * Crea un spliterator sobre el subárbol indicado.
+     * @param raiz Raíz del subárbol a recorrer.
+     * @param tamano Número de nodos del subárbol.
+     * @param altura Altura del subárbol, para dimensionar la pila.
+     * @param orden Orden del recorrido.
+     */
+    RecorridoSpliterator(Nodo raiz, int tamano, int altura, Orden orden) {
+        this(orden, 2 * altura + 2);
+        if (raiz != null) {
+            apilar(raiz, true);
+        }
+        this.restantes = tamano;
+    }
+
+    private RecorridoSpliterator(Orden orden, int capacidad) {
+        this.orden = orden;
+        this.nodos = new Nodo[Math.max(capacidad, 4)];
+        this.completos = new boolean[nodos.length];
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer accion) {
+        while (tope > 0) {
+            Nodo nodo = nodos[--tope];
+            boolean completo = completos[tope];
+            nodos[tope] = null;
+            if (completo) {
+                expandir(nodo);
+            } else {
+                restantes--;
+                accion.accept(nodo.getDato());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        if (tope == 1 && completos[0]) {
+            Nodo nodo = nodos[--tope];
+            nodos[tope] = null;
+            expandir(nodo);
+        }
+        if (tope < 2) {
+            return null;
+        }
+        // El prefijo son los pendientes 1..tope-1; este se queda con el 0
+        RecorridoSpliterator prefijo = new RecorridoSpliterator(orden, nodos.length);
+        prefijo.tope = tope - 1;
+        System.arraycopy(nodos, 1, prefijo.nodos, 0, prefijo.tope);
+        System.arraycopy(completos, 1, prefijo.completos, 0, prefijo.tope);
+        Arrays.fill(nodos, 1, tope, null);
+        tope = 1;
+
+        for (int i = 0; i < prefijo.tope; i++) {
+            prefijo.restantes += prefijo.completos[i] ? prefijo.nodos[i].getTamano() : 1;
+        }
+        restantes -= prefijo.restantes;
+        return prefijo;
+    }
+
+    @Override
+    public long estimateSize() {
+        return restantes;
+    }
+
+    @Override
+    public int characteristics() {
+        int caracteristicas = ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+        if (orden == Orden.IN_ORDEN) {
+            caracteristicas |= SORTED;
+        }
+        return caracteristicas;
+    }
+
+    @Override
+    public java.util.Comparator<? super Integer> getComparator() {
+        if (orden != Orden.IN_ORDEN) {
+            throw new IllegalStateException();
+        }
+        return null; // Orden natural
+    }
+
+    /**
+     * Sustituye un subárbol pendiente por sus partes, apiladas al revés
+     * para que la cima sea la siguiente en el recorrido.
+     */
+    private void expandir(Nodo nodo) {
+        Nodo izquierdo = nodo.getIzquierdo();
+        Nodo derecho = nodo.getDerecho();
+        switch (orden) {
+            case IN_ORDEN:
+                apilar(derecho, true);
+                apilar(nodo, false);
+                apilar(izquierdo, true);
+                break;
+            case PRE_ORDEN:
+                apilar(derecho, true);
+                apilar(izquierdo, true);
+                apilar(nodo, false);
+                break;
+            case POST_ORDEN:
+                apilar(nodo, false);
+                apilar(derecho, true);
+                apilar(izquierdo, true);
+                break;
+        }
+    }
+
+    private void apilar(Nodo nodo, boolean completo) {
+        if (nodo == null) {
+            return;
+        }
+        if (tope == nodos.length) {
+            nodos = Arrays.copyOf(nodos, tope * 2);
+            completos = Arrays.copyOf(completos, tope * 2);
+        }
+        nodos[tope] = nodo;
+        completos[tope++] = completo;
+    }
+}
@@ -0,0 +1,470 @@
+package practicos.ABB;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.SplittableRandom;
+
+/**
+ * Compara y sincroniza réplicas de un ABB usando las huellas de los
+ * subárboles ({@link ArbolBusquedaBinario#huellaEnRango}) en lugar de
+ * recorrerlas completas.
+ *
+ * Como las réplicas pueden tener formas distintas (otro orden de
+ * inserción, otras rotaciones), no se comparan nodo a nodo sino por
+ * intervalos de claves: se pide al origen la cantidad y la huella de un
+ * intervalo y se comparan con las locales, que cuestan O(log n) cada una
+ * gracias a las huellas guardadas en los nodos. Los intervalos iguales se
+ * descartan enteros; los distintos se parten por la mitad hasta quedar
+ * con pocas claves, y solo esas se traen y se comparan una por una. Con d
+ * diferencias el trabajo es O(d log U log n) en lugar de O(n), y cada
+ * nivel de la bisección viaja en un solo mensaje, así que por red son
+ * unos 20 viajes de ida y vuelta aunque d sea grande.
+ *
+ * El origen puede ser otro árbol del mismo proceso ({@link #local}) o un
+ * {@link Servidor} en otro proceso, al que se accede con un {@link Cliente}.
+ *
+ * Las huellas no vienen activas por defecto: {@link #local}, el
+ * {@link Servidor} y {@link #diferencias} las activan en los árboles que
+ * reciben ({@link ArbolBusquedaBinario#activarHuellas()}), lo que cuesta
+ * una copia O(n) la primera vez. Conviene activarlas al crear los árboles
+ * que se van a replicar, así las instantáneas ya las heredan.
+ *
+ * Uso sin interfaz: java practicos.ABB.ReplicacionABB [claves]
+ * (mide la sincronización local y por loopback con distintas divergencias)
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public final class ReplicacionABB {
+    /** Con esta cantidad de claves (sumando ambos lados) o menos, se comparan una por una. */
+    private static final int CLAVES_HOJA = 256;
+
+    private static final byte FIN = 0;
+    private static final byte INICIAR = 1;
+    private static final byte RESUMIR = 2;
+    private static final byte CLAVES = 3;
+
+    private ReplicacionABB() {
+    }
+
+    /**
+     * Réplica de referencia: responde cantidades, huellas y claves por
+     * intervalos cerrados. Los arreglos traen {@code cantidad} intervalos.
+     */
+    public interface Origen {
+        /**
+         * Fija la versión del origen contra la que se va a comparar.
+         */
+        default void iniciar() throws IOException {
+        }
+
+        /**
+         * Llena {@code cuentas[i]} y {@code huellas[i]} con la cantidad y la
+         * huella de las claves de [desde[i], hasta[i]].
+         */
+        void resumir(int[] desde, int[] hasta, int cantidad, int[] cuentas, long[] huellas) throws IOException;
+
+        /**
+         * @return Las claves de cada intervalo, en orden ascendente.
+         */
+        int[][] claves(int[] desde, int[] hasta, int cantidad) throws IOException;
+    }
+
+    /**
+     * Aviso por cada clave que está en un solo lado.
+     */
+    public interface Diferencia {
+        /**
+         * @param clave Clave distinta.
+         * @param enOrigen true si está solo en el origen, false si está solo en la réplica local.
+         */
+        void encontrada(int clave, boolean enOrigen);
+    }
+
+    /**
+     * Origen respaldado por un árbol del mismo proceso.
+     */
+    public static Origen local(ArbolBusquedaBinario arbol) {
+        arbol.activarHuellas();
+        return new Origen() {
+            @Override
+            public void resumir(int[] desde, int[] hasta, int cantidad, int[] cuentas, long[] huellas) {
+                arbol.resumirRangos(desde, hasta, cantidad, cuentas, huellas);
+            }
+
+            @Override
+            public int[][] claves(int[] desde, int[] hasta, int cantidad) {
+                int[][] claves = new int[cantidad][];
+                for (int i = 0; i < cantidad; i++) {
+                    claves[i] = clavesEnRango(arbol, desde[i], hasta[i]);
+                }
+                return claves;
+            }
+        };
+    }
+
+    /**
+     * Informa las claves que difieren entre la réplica local y el origen.
+     * La réplica local puede modificarse desde el visitante (solo dentro
+     * del intervalo ya informado), que es lo que hace {@link #sincronizar}.
+     * @return Número de diferencias.
+     * @throws IOException Si falla la comunicación con el origen.
+     */
+    public static int diferencias(ArbolBusquedaBinario replica, Origen origen, Diferencia visitante) throws IOException {
+        if (replica.isMulticonjunto()) {
+            throw new IllegalArgumentException("La replicación compara claves, no ocurrencias: no admite multiconjuntos");
+        }
+        replica.activarHuellas();
+        origen.iniciar();
+        int[] desde = {Integer.MIN_VALUE};
+        int[] hasta = {Integer.MAX_VALUE};
+        int cantidad = 1;
+        int encontradas = 0;
+        while (cantidad > 0) {
+            int[] cuentas = new int[cantidad];
+            long[] huellas = new long[cantidad];
+            int[] cuentasLocales = new int[cantidad];
+            long[] huellasLocales = new long[cantidad];
+            origen.resumir(desde, hasta, cantidad, cuentas, huellas);
+            replica.resumirRangos(desde, hasta, cantidad, cuentasLocales, huellasLocales);
+
+            // Los intervalos distintos se parten o, si son chicos, se comparan clave a clave
+            int[] siguientesDesde = new int[2 * cantidad];
+            int[] siguientesHasta = new int[2 * cantidad];
+            int siguientes = 0;
+            int[] hojasDesde = new int[cantidad];
+            int[] hojasHasta = new int[cantidad];
+            int hojas = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (cuentasLocales[i] == cuentas[i] && huellasLocales[i] == huellas[i]) {
+                    continue;
+                }
+                if (cuentasLocales[i] + cuentas[i] <= CLAVES_HOJA || desde[i] == hasta[i]) {
+                    hojasDesde[hojas] = desde[i];
+                    hojasHasta[hojas++] = hasta[i];
+                } else {
+                    int medio = (int) (((long) desde[i] + hasta[i]) >> 1);
+                    siguientesDesde[siguientes] = desde[i];
+                    siguientesHasta[siguientes++] = medio;
+                    siguientesDesde[siguientes] = medio + 1;
+                    siguientesHasta[siguientes++] = hasta[i];
+                }
+            }
+            if (hojas > 0) {
+                int[][] remotas = origen.claves(hojasDesde, hojasHasta, hojas);
+                for (int i = 0; i < hojas; i++) {
+                    encontradas += comparar(clavesEnRango(replica, hojasDesde[i], hojasHasta[i]), remotas[i], visitante);
+                }
+            }
+            desde = siguientesDesde;
+            hasta = siguientesHasta;
+            cantidad = siguientes;
+        }
+        return encontradas;
+    }
+
+    /**
+     * Deja la réplica local con el mismo contenido que el origen,
+     * tocando solo las claves que difieren.
+     * @return Número de inserciones más eliminaciones hechas.
+     * @throws IOException Si falla la comunicación con el origen.
+     */
+    public static int sincronizar(ArbolBusquedaBinario replica, Origen origen) throws IOException {
+        return diferencias(replica, origen, (clave, enOrigen) -> {
+            if (enOrigen) {
+                replica.insertar(clave);
+            } else {
+                replica.eliminar(clave);
+            }
+        });
+    }
+
+    /**
+     * Mezcla dos listas ordenadas e informa las claves de un solo lado.
+     */
+    private static int comparar(int[] locales, int[] remotas, Diferencia visitante) {
+        int i = 0;
+        int j = 0;
+        int encontradas = 0;
+        while (i < locales.length || j < remotas.length) {
+            if (j == remotas.length || (i < locales.length && locales[i] < remotas[j])) {
+                visitante.encontrada(locales[i++], false);
+                encontradas++;
+            } else if (i == locales.length || remotas[j] < locales[i]) {
+                visitante.encontrada(remotas[j++], true);
+                encontradas++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return encontradas;
+    }
+
+    private static int[] clavesEnRango(ArbolBusquedaBinario arbol, int desde, int hasta) {
+        int[] claves = new int[arbol.contarEnRango(desde, hasta)];
+        int[] n = new int[1];
+        arbol.recorrerRango(desde, hasta, clave -> claves[n[0]++] = clave);
+        return claves;
+    }
+
+    // --- Réplica remota ---
+
+    /**
+     * Sirve la versión publicada de un árbol a los {@link Cliente} que se
+     * conecten, un hilo por conexión. Se publican instantáneas
+     * ({@link ArbolBusquedaBinario#snapshot()}), que no cambian, así que
+     * responder no necesita cerrojos y el dueño sigue modificando su árbol
+     * mientras tanto.
+     */
+    public static final class Servidor implements Closeable {
+        private final ServerSocket socket;
+        private volatile ArbolBusquedaBinario publicado;
+
+        /**
+         * Escucha en el puerto dado de la interfaz loopback (0 = uno libre).
+         */
+        public Servidor(int puerto, ArbolBusquedaBinario version) throws IOException {
+            version.activarHuellas();
+            this.publicado = version;
+            this.socket = new ServerSocket(puerto, 50, InetAddress.getLoopbackAddress());
+            Thread aceptador = new Thread(this::aceptar, "ReplicacionABB " + socket.getLocalPort());
+            aceptador.setDaemon(true);
+            aceptador.start();
+        }
+
+        public int getPuerto() {
+            return socket.getLocalPort();
+        }
+
+        /**
+         * Cambia la versión que ven las sincronizaciones que empiecen después.
+         */
+        public void publicar(ArbolBusquedaBinario version) {
+            version.activarHuellas();
+            this.publicado = version;
+        }
+
+        private void aceptar() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket conexion = socket.accept();
+                    Thread atencion = new Thread(() -> atender(conexion), "ReplicacionABB cliente");
+                    atencion.setDaemon(true);
+                    atencion.start();
+                } catch (IOException e) {
+                    return; // Socket cerrado
+                }
+            }
+        }
+
+        private void atender(Socket conexion) {
+            try (Socket s = conexion;
+                 DataInputStream entrada = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                 DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+                s.setTcpNoDelay(true);
+                ArbolBusquedaBinario arbol = publicado;
+                Origen origen = local(arbol);
+                while (true) {
+                    byte operacion = entrada.readByte();
+                    if (operacion == FIN) {
+                        return;
+                    }
+                    if (operacion == INICIAR) {
+                        arbol = publicado;
+                        origen = local(arbol);
+                        salida.writeInt(arbol.tamano());
+                        salida.writeLong(arbol.huella());
+                        salida.flush();
+                        continue;
+                    }
+                    int cantidad = entrada.readInt();
+                    int[] desde = new int[cantidad];
+                    int[] hasta = new int[cantidad];
+                    for (int i = 0; i < cantidad; i++) {
+                        desde[i] = entrada.readInt();
+                        hasta[i] = entrada.readInt();
+                    }
+                    if (operacion == RESUMIR) {
+                        int[] cuentas = new int[cantidad];
+                        long[] huellas = new long[cantidad];
+                        origen.resumir(desde, hasta, cantidad, cuentas, huellas);
+                        for (int i = 0; i < cantidad; i++) {
+                            salida.writeInt(cuentas[i]);
+                            salida.writeLong(huellas[i]);
+                        }
+                    } else if (operacion == CLAVES) {
+                        for (int[] claves : origen.claves(desde, hasta, cantidad)) {
+                            salida.writeInt(claves.length);
+                            for (int clave : claves) {
+                                salida.writeInt(clave);
+                            }
+                        }
+                    } else {
+                        throw new IOException("Operación desconocida: " + operacion);
+                    }
+                    salida.flush();
+                }
+            } catch (EOFException e) {
+                // El cliente cerró sin despedirse
+            } catch (IOException e) {
+                System.err.println("ReplicacionABB: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Origen remoto: habla con un {@link Servidor} por una conexión TCP.
+     * No es seguro para varios hilos a la vez.
+     */
+    public static final class Cliente implements Origen, Closeable {
+        private final Socket socket;
+        private final DataInputStream entrada;
+        private final DataOutputStream salida;
+        private long mensajes;
+
+        public Cliente(String host, int puerto) throws IOException {
+            socket = new Socket(host, puerto);
+            socket.setTcpNoDelay(true);
+            entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Toma la versión publicada en ese momento; las consultas siguientes
+         * la usan aunque el servidor publique otra.
+         */
+        @Override
+        public void iniciar() throws IOException {
+            salida.writeByte(INICIAR);
+            salida.flush();
+            mensajes++;
+            entrada.readInt();
+            entrada.readLong();
+        }
+
+        @Override
+        public void resumir(int[] desde, int[] hasta, int cantidad, int[] cuentas, long[] huellas) throws IOException {
+            enviar(RESUMIR, desde, hasta, cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                cuentas[i] = entrada.readInt();
+                huellas[i] = entrada.readLong();
+            }
+        }
+
+        @Override
+        public int[][] claves(int[] desde, int[] hasta, int cantidad) throws IOException {
+            enviar(CLAVES, desde, hasta, cantidad);
+            int[][] claves = new int[cantidad][];
+            for (int i = 0; i < cantidad; i++) {
+                claves[i] = new int[entrada.readInt()];
+                for (int j = 0; j < claves[i].length; j++) {
+                    claves[i][j] = entrada.readInt();
+                }
+            }
+            return claves;
+        }
+
+        private void enviar(byte operacion, int[] desde, int[] hasta, int cantidad) throws IOException {
+            salida.writeByte(operacion);
+            salida.writeInt(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                salida.writeInt(desde[i]);
+                salida.writeInt(hasta[i]);
+            }
+            salida.flush();
+            mensajes++;
+        }
+
+        /**
+         * @return Viajes de ida y vuelta hechos hasta ahora.
+         */
+        public long getMensajes() {
+            return mensajes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                salida.writeByte(FIN);
+                salida.flush();
+            } finally {
+                socket.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        SplittableRandom aleatorio = new SplittableRandom(n);
+        ArbolBusquedaBinario origen = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+        origen.activarHuellas();
+        origen.insertarLote(aleatorio.ints(n).toArray());
+
+        // Misma información, otra forma: insertada una a una en otro orden
+        ArbolBusquedaBinario replica = new ArbolBusquedaBinario(ModoBalanceo.AVL);
+        replica.activarHuellas();
+        int[] claves = new int[origen.tamano()];
+        origen.llenarInOrden(claves);
+        for (int i = claves.length - 1; i >= 0; i--) {
+            replica.insertar(claves[i]);
+        }
+
+        System.out.printf("=== Réplicas de %,d claves ===%n", origen.tamano());
+        long inicio = System.nanoTime();
+        boolean iguales = origen.recorridoInOrden().equals(replica.recorridoInOrden());
+        System.out.printf("recorridoInOrden().equals: %b en %.1f ms%n", iguales, (System.nanoTime() - inicio) / 1e6);
+        inicio = System.nanoTime();
+        iguales = origen.mismoContenido(replica);
+        System.out.printf("mismoContenido:            %b en %.4f ms%n", iguales, (System.nanoTime() - inicio) / 1e6);
+
+        try (Servidor servidor = new Servidor(0, origen.snapshot());
+             Cliente cliente = new Cliente(InetAddress.getLoopbackAddress().getHostAddress(), servidor.getPuerto())) {
+            // Calentamiento del JIT con copias descartables
+            for (int ronda = 0; ronda < 3; ronda++) {
+                ArbolBusquedaBinario otra = origen.snapshot();
+                for (int i = 0; i < 1_000; i++) {
+                    otra.insertar(aleatorio.nextInt());
+                }
+                servidor.publicar(otra);
+                sincronizar(replica.snapshot(), local(otra));
+                sincronizar(replica.snapshot(), cliente);
+            }
+            servidor.publicar(origen.snapshot());
+            for (int cambios : new int[] {0, 10, 1_000, 100_000}) {
+                for (int i = 0; i < cambios; i++) {
+                    int clave = aleatorio.nextInt();
+                    if (!origen.insertar(clave)) {
+                        origen.eliminar(clave);
+                    }
+                }
+                ArbolBusquedaBinario copiaLocal = replica.snapshot();
+                inicio = System.nanoTime();
+                int hechos = sincronizar(copiaLocal, local(origen));
+                double msLocal = (System.nanoTime() - inicio) / 1e6;
+
+                servidor.publicar(origen.snapshot());
+                long mensajes = cliente.getMensajes();
+                inicio = System.nanoTime();
+                sincronizar(replica, cliente);
+                double msRed = (System.nanoTime() - inicio) / 1e6;
+                System.out.printf("%,7d cambios: %,7d aplicados; local %8.2f ms, loopback %8.2f ms (%d mensajes)"
+                        + ", iguales %b%n", cambios, hechos, msLocal, msRed, cliente.getMensajes() - mensajes,
+                        replica.mismoContenido(origen));
+            }
+        }
+    }
+}
@@ -0,0 +1,667 @@
+package practicos.ABB;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Ejecutor de pruebas de estrés sin interfaz gráfica.
+ * 
+ * Aplica millones de inserciones, eliminaciones y búsquedas aleatorias al
+ * ABB y compara cada resultado con un {@link TreeSet} que sirve de
+ * oráculo; una parte de las operaciones va a un segundo árbol en modo
+ * multiconjunto ({@code agregar}, {@code eliminarUno}, {@code contar}),
+ * comparado con un {@link TreeMap} de claves a ocurrencias. Cada cierto
+ * número de operaciones valida además:
+ * - La estructura completa: orden, alturas, tamaños, balance AVL y
+ *   recorrido InOrden.
+ * - Los estadísticos de orden: {@code seleccionar} y {@code contarEnRango}.
+ * - Las operaciones de conjuntos y de unión/partición: {@code union},
+ *   {@code interseccion}, {@code diferencia}, {@code dividir} y
+ *   {@code concatenar}, también la estructura de sus resultados.
+ * - Las huellas: {@code huella}, {@code huellaEnRango} y
+ *   {@code resumirRangos} (sobre una copia con huellas, o sobre el mismo
+ *   árbol con --huellas, que las mantiene en cada operación).
+ * - El multiconjunto, y que las operaciones de conjuntos lo rechacen.
+ * - El aislamiento de las instantáneas: en árboles chicos (conjunto y
+ *   multiconjunto, con y sin huellas) se toman varias, se sigue
+ *   modificando el original y algunas de ellas, y ni las que se dejaron
+ *   quietas ni el original ven los cambios de los demás.
+ * Las operaciones de conjuntos y las instantáneas dejan los nodos del
+ * árbol compartidos, y cada escritura siguiente copiaría su camino: eso
+ * falsearía las ops/s, así que en las validaciones intermedias se hacen
+ * sobre un árbol nuevo con las mismas claves y solo en la última sobre
+ * el árbol probado.
+ * Al final imprime el rendimiento y la profundidad máxima alcanzada.
+ * 
+ * Uso: java practicos.ABB.StressRunner [--operaciones=N] [--rango=K]
+ *      [--semilla=S] [--modo=AVL|NINGUNO|SPLAY] [--minimo-ops=X] [--huellas]
+ * Termina con código 1 si encuentra una discrepancia y con 2 si el
+ * rendimiento queda por debajo de --minimo-ops, para usarse en un ciclo.
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class StressRunner {
+    private static final int VALIDAR_CADA = 250_000;
+    private static final int CONSULTAS = 32;    // Consultas al azar por validación
+    private static final int CLAVES_OTRO = 4_096; // Claves del segundo operando de las operaciones de conjuntos
+    private static final int CLAVES_INSTANTANEAS = 2_048; // Claves del árbol de la prueba de instantáneas
+    private static final int INSTANTANEAS = 4;
+    private static final int MODIFICACIONES = 256; // Entre una instantánea y la siguiente, a cada árbol
+
+    private final ArbolBusquedaBinario bst;
+    private final TreeSet<Integer> oraculo = new TreeSet<>();
+    private final ArbolBusquedaBinario multi;
+    private final TreeMap<Integer, Integer> oraculoMulti = new TreeMap<>();
+    private final SplittableRandom aleatorio;
+    private final int rango;
+    private int alturaMaxima;
+
+    /**
+     * Constructor del ejecutor de estrés.
+     * @param modo Modo de balanceo del árbol a probar.
+     * @param rango Las claves se eligen en [0, rango).
+     * @param semilla Semilla para reproducir una falla.
+     */
+    public StressRunner(ModoBalanceo modo, int rango, long semilla) {
+        this(modo, rango, semilla, false);
+    }
+
+    /**
+     * Constructor del ejecutor de estrés.
+     * @param modo Modo de balanceo del árbol a probar.
+     * @param rango Las claves se eligen en [0, rango).
+     * @param semilla Semilla para reproducir una falla.
+     * @param huellas true para activar las huellas en los árboles probados.
+     */
+    public StressRunner(ModoBalanceo modo, int rango, long semilla, boolean huellas) {
+        this.bst = new ArbolBusquedaBinario(modo);
+        this.multi = new ArbolBusquedaBinario(modo, true);
+        if (huellas) {
+            bst.activarHuellas();
+            multi.activarHuellas();
+        }
+        this.rango = rango;
+        this.aleatorio = new SplittableRandom(semilla);
+    }
+
+    public static void main(String[] args) {
+        long operaciones = 5_000_000;
+        int rango = 1_000_000;
+        long semilla = System.nanoTime();
+        ModoBalanceo modo = ModoBalanceo.AVL;
+        double minimo = 0;
+        boolean huellas = false;
+        for (String arg : args) {
+            String valor = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--operaciones=")) {
+                operaciones = Long.parseLong(valor);
+            } else if (arg.startsWith("--rango=")) {
+                rango = Integer.parseInt(valor);
+            } else if (arg.startsWith("--semilla=")) {
+                semilla = Long.parseLong(valor);
+            } else if (arg.startsWith("--modo=")) {
+                modo = ModoBalanceo.valueOf(valor);
+            } else if (arg.startsWith("--minimo-ops=")) {
+                minimo = Double.parseDouble(valor);
+            } else if (arg.equals("--huellas")) {
+                huellas = true;
+            }
+        }
+
+        System.out.printf("Modo %s%s, %,d operaciones, claves en [0, %,d), semilla %d%n",
+                modo, huellas ? " con huellas" : "", operaciones, rango, semilla);
+        StressRunner runner = new StressRunner(modo, rango, semilla, huellas);
+        try {
+            double operacionesPorSegundo = runner.ejecutar(operaciones);
+            if (operacionesPorSegundo < minimo) {
+                System.out.printf("REGRESIÓN: %,.0f ops/s por debajo del mínimo %,.0f%n",
+                        operacionesPorSegundo, minimo);
+                System.exit(2);
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("FALLA: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Ejecuta las operaciones aleatorias validando contra el oráculo.
+     * @return Operaciones por segundo (sin contar las validaciones completas).
+     * @throws IllegalStateException al primer resultado distinto al oráculo.
+     */
+    public double ejecutar(long operaciones) {
+        long nanos = 0;
+        long inicio = System.nanoTime();
+        for (long i = 1; i <= operaciones; i++) {
+            int dato = aleatorio.nextInt(rango);
+            int tipo = aleatorio.nextInt(100);
+            if (tipo < 40) {
+                comprobar(i, "insertar", dato, bst.insertar(dato), oraculo.add(dato));
+            } else if (tipo < 70) {
+                comprobar(i, "eliminar", dato, bst.eliminar(dato), oraculo.remove(dato));
+            } else if (tipo < 85) {
+                comprobar(i, "buscar", dato, bst.buscar(dato), oraculo.contains(dato));
+            } else if (tipo < 91) {
+                int veces = 1 + aleatorio.nextInt(3);
+                comprobar(i, "agregar", dato, multi.agregar(dato, veces), oraculoMulti.merge(dato, veces, Integer::sum));
+            } else if (tipo < 97) {
+                Integer veces = oraculoMulti.get(dato);
+                if (veces != null && veces > 1) {
+                    oraculoMulti.put(dato, veces - 1);
+                } else {
+                    oraculoMulti.remove(dato);
+                }
+                comprobar(i, "eliminarUno", dato, multi.eliminarUno(dato), veces != null);
+            } else {
+                comprobar(i, "contar", dato, multi.contar(dato), oraculoMulti.getOrDefault(dato, 0));
+            }
+
+            if (i % VALIDAR_CADA == 0 || i == operaciones) {
+                nanos += System.nanoTime() - inicio;
+                validar(i, i == operaciones);
+                System.out.printf("  %,12d ops  tamaño %,9d  altura %3d  %,12.0f ops/s%n",
+                        i, bst.tamano(), bst.altura(), i * 1e9 / nanos);
+                inicio = System.nanoTime();
+            }
+        }
+        double operacionesPorSegundo = operaciones * 1e9 / nanos;
+        System.out.printf("OK: %,.0f ops/s, altura máxima %d, tamaño final %,d%n",
+                operacionesPorSegundo, alturaMaxima, bst.tamano());
+        return operacionesPorSegundo;
+    }
+
+    private static void comprobar(long operacion, String nombre, int dato, boolean obtenido, boolean esperado) {
+        if (obtenido != esperado) {
+            throw new IllegalStateException("operación " + operacion + ": " + nombre + "(" + dato + ") devolvió "
+                    + obtenido + ", se esperaba " + esperado);
+        }
+    }
+
+    private static void comprobar(long operacion, String nombre, int dato, int obtenido, int esperado) {
+        if (obtenido != esperado) {
+            throw new IllegalStateException("operación " + operacion + ": " + nombre + "(" + dato + ") devolvió "
+                    + obtenido + ", se esperaba " + esperado);
+        }
+    }
+
+    /**
+     * Valida toda la estructura contra el oráculo.
+     * @param ultima true en la última validación, que puede dejar el árbol compartido.
+     */
+    private void validar(long operacion, boolean ultima) {
+        if (bst.tamano() != oraculo.size()) {
+            throw new IllegalStateException("operación " + operacion + ": tamaño " + bst.tamano()
+                    + ", se esperaba " + oraculo.size());
+        }
+        alturaMaxima = Math.max(alturaMaxima, validarNodos(bst, operacion));
+
+        Iterator<Integer> esperado = oraculo.iterator();
+        bst.recorrerInOrden(valor -> {
+            int siguiente = esperado.next();
+            if (valor != siguiente) {
+                throw new IllegalStateException("operación " + operacion + ": InOrden tiene " + valor
+                        + " donde se esperaba " + siguiente);
+            }
+        });
+
+        if (!oraculo.isEmpty()) {
+            int k = aleatorio.nextInt(oraculo.size());
+            int seleccionado = bst.seleccionar(k);
+            if (bst.rango(seleccionado) != k || !oraculo.contains(seleccionado)) {
+                throw new IllegalStateException("operación " + operacion + ": seleccionar(" + k + ") = "
+                        + seleccionado + " no es consistente con rango()");
+            }
+        }
+
+        int[] ordenados = oraculo.stream().mapToInt(Integer::intValue).toArray();
+        validarEstadisticos(operacion, ordenados);
+        validarHuellas(operacion, ordenados, ultima);
+        validarConjuntos(operacion, ordenados, ultima);
+        validarMulticonjunto(operacion);
+        validarInstantaneas(operacion, ordenados);
+    }
+
+    /**
+     * Compara {@code seleccionar} y {@code contarEnRango} con el arreglo
+     * ordenado del oráculo.
+     */
+    private void validarEstadisticos(long operacion, int[] ordenados) {
+        for (int c = 0; c < CONSULTAS && ordenados.length > 0; c++) {
+            int k = aleatorio.nextInt(ordenados.length);
+            if (bst.seleccionar(k) != ordenados[k]) {
+                throw new IllegalStateException("operación " + operacion + ": seleccionar(" + k + ") = "
+                        + bst.seleccionar(k) + ", se esperaba " + ordenados[k]);
+            }
+        }
+        for (int c = 0; c < CONSULTAS; c++) {
+            int desde = aleatorio.nextInt(rango);
+            int hasta = desde + aleatorio.nextInt(Math.max(1, rango / 8));
+            int esperado = Math.max(0, primeraPosicion(ordenados, hasta + 1L) - primeraPosicion(ordenados, desde));
+            if (bst.contarEnRango(desde, hasta) != esperado) {
+                throw new IllegalStateException("operación " + operacion + ": contarEnRango(" + desde + ", " + hasta
+                        + ") = " + bst.contarEnRango(desde, hasta) + ", se esperaba " + esperado);
+            }
+        }
+    }
+
+    /**
+     * Compara las huellas con la suma de las huellas de las claves del
+     * oráculo. Sin --huellas se prueban sobre una copia que las activa.
+     */
+    private void validarHuellas(long operacion, int[] ordenados, boolean ultima) {
+        ArbolBusquedaBinario arbol = bst;
+        if (!bst.isHuellasActivas()) {
+            arbol = ultima ? bst.snapshot() : copiar(ordenados);
+            arbol.activarHuellas();
+        }
+        long[] acumuladas = new long[ordenados.length + 1]; // acumuladas[i] = huella de ordenados[0..i)
+        for (int i = 0; i < ordenados.length; i++) {
+            acumuladas[i + 1] = acumuladas[i] + NodoHuella.huellaDe(ordenados[i]);
+        }
+        if (arbol.huella() != acumuladas[ordenados.length]) {
+            throw new IllegalStateException("operación " + operacion + ": huella() no coincide con el oráculo");
+        }
+
+        // Intervalos contiguos, como los de la bisección de ReplicacionABB, y uno vacío
+        int cantidad = CONSULTAS;
+        int[] desde = new int[cantidad];
+        int[] hasta = new int[cantidad];
+        int inicio = aleatorio.nextInt(rango);
+        for (int i = 0; i < cantidad - 1; i++) {
+            desde[i] = inicio;
+            hasta[i] = inicio + aleatorio.nextInt(Math.max(1, rango / cantidad));
+            inicio = hasta[i] + 1;
+        }
+        desde[cantidad - 1] = inicio;
+        hasta[cantidad - 1] = inicio - 1;
+        int[] cuentas = new int[cantidad];
+        long[] huellas = new long[cantidad];
+        arbol.resumirRangos(desde, hasta, cantidad, cuentas, huellas);
+        for (int i = 0; i < cantidad; i++) {
+            int primera = primeraPosicion(ordenados, desde[i]);
+            int limite = Math.max(primera, primeraPosicion(ordenados, hasta[i] + 1L));
+            long esperada = acumuladas[limite] - acumuladas[primera];
+            if (arbol.huellaEnRango(desde[i], hasta[i]) != esperada) {
+                throw new IllegalStateException("operación " + operacion + ": huellaEnRango(" + desde[i] + ", "
+                        + hasta[i] + ") no coincide con el oráculo");
+            }
+            if (cuentas[i] != limite - primera || huellas[i] != esperada) {
+                throw new IllegalStateException("operación " + operacion + ": resumirRangos en [" + desde[i] + ", "
+                        + hasta[i] + "] no coincide con el oráculo");
+            }
+        }
+    }
+
+    /**
+     * Prueba las operaciones de conjuntos contra otro árbol al azar, y
+     * dividir/concatenar por una clave al azar, comparando con mezclas de
+     * los arreglos ordenados.
+     */
+    private void validarConjuntos(long operacion, int[] ordenados, boolean ultima) {
+        ArbolBusquedaBinario arbol = ultima ? bst : copiar(ordenados);
+        ArbolBusquedaBinario otro = new ArbolBusquedaBinario(bst.getModoBalanceo());
+        if (bst.isHuellasActivas()) {
+            otro.activarHuellas();
+        }
+        TreeSet<Integer> oraculoOtro = new TreeSet<>();
+        for (int i = 0; i < CLAVES_OTRO; i++) {
+            int dato = aleatorio.nextInt(rango);
+            otro.insertar(dato);
+            oraculoOtro.add(dato);
+        }
+        int[] b = oraculoOtro.stream().mapToInt(Integer::intValue).toArray();
+
+        validarResultado(operacion, "union", arbol.union(otro), mezclar(ordenados, b, true, true, true));
+        validarResultado(operacion, "interseccion", arbol.interseccion(otro), mezclar(ordenados, b, false, false, true));
+        validarResultado(operacion, "diferencia", arbol.diferencia(otro), mezclar(ordenados, b, true, false, false));
+        validarResultado(operacion, "diferencia inversa", otro.diferencia(arbol), mezclar(ordenados, b, false, true, false));
+
+        int clave = aleatorio.nextInt(rango);
+        int corte = primeraPosicion(ordenados, clave);
+        int finMenores = corte;
+        if (corte < ordenados.length && ordenados[corte] == clave) {
+            corte++;
+        }
+        ArbolBusquedaBinario[] partes = arbol.dividir(clave);
+        validarResultado(operacion, "dividir(" + clave + ") menores", partes[0], Arrays.copyOfRange(ordenados, 0, finMenores));
+        validarResultado(operacion, "dividir(" + clave + ") mayores", partes[1],
+                Arrays.copyOfRange(ordenados, corte, ordenados.length));
+        int[] sinClave = new int[finMenores + ordenados.length - corte];
+        System.arraycopy(ordenados, 0, sinClave, 0, finMenores);
+        System.arraycopy(ordenados, corte, sinClave, finMenores, ordenados.length - corte);
+        validarResultado(operacion, "concatenar", ArbolBusquedaBinario.concatenar(partes[0], partes[1]), sinClave);
+    }
+
+    /**
+     * Árbol nuevo con las claves dadas (ya ordenadas), sin nodos compartidos
+     * con el probado, en su mismo modo y con huellas si él las tiene.
+     */
+    private ArbolBusquedaBinario copiar(int[] ordenados) {
+        ArbolBusquedaBinario copia = new ArbolBusquedaBinario(bst.getModoBalanceo());
+        if (bst.isHuellasActivas()) {
+            copia.activarHuellas();
+        }
+        copia.insertarLote(ordenados);
+        return copia;
+    }
+
+    /**
+     * Revisa la estructura de un árbol resultado y que tenga exactamente
+     * los valores esperados (y su huella, si la lleva).
+     */
+    private void validarResultado(long operacion, String caso, ArbolBusquedaBinario resultado, int[] esperado) {
+        validarNodos(resultado, operacion);
+        int[] obtenido = new int[resultado.tamano()];
+        resultado.llenarInOrden(obtenido);
+        if (!Arrays.equals(obtenido, esperado)) {
+            throw new IllegalStateException("operación " + operacion + ": " + caso + " tiene " + obtenido.length
+                    + " valores distintos de los " + esperado.length + " esperados");
+        }
+        if (resultado.isHuellasActivas()) {
+            long huella = 0;
+            for (int valor : esperado) {
+                huella += NodoHuella.huellaDe(valor);
+            }
+            if (resultado.huella() != huella) {
+                throw new IllegalStateException("operación " + operacion + ": huella de " + caso + " incorrecta");
+            }
+        }
+    }
+
+    /**
+     * Compara el multiconjunto con su oráculo (claves, ocurrencias,
+     * estructura y huella) y comprueba que las operaciones de conjuntos
+     * lo rechacen.
+     */
+    private void validarMulticonjunto(long operacion) {
+        if (multi.tamano() != oraculoMulti.size()) {
+            throw new IllegalStateException("operación " + operacion + ": el multiconjunto tiene " + multi.tamano()
+                    + " claves, se esperaban " + oraculoMulti.size());
+        }
+        validarNodos(multi, operacion);
+        long ocurrencias = 0;
+        long huella = 0;
+        for (Map.Entry<Integer, Integer> entrada : oraculoMulti.entrySet()) {
+            ocurrencias += entrada.getValue();
+            huella += entrada.getValue() * NodoHuella.huellaDe(entrada.getKey());
+        }
+        if (multi.ocurrencias() != ocurrencias) {
+            throw new IllegalStateException("operación " + operacion + ": " + multi.ocurrencias()
+                    + " ocurrencias, se esperaban " + ocurrencias);
+        }
+        if (multi.isHuellasActivas() && multi.huella() != huella) {
+            throw new IllegalStateException("operación " + operacion + ": huella del multiconjunto incorrecta");
+        }
+        Iterator<Map.Entry<Integer, Integer>> esperado = oraculoMulti.entrySet().iterator();
+        multi.recorrerConteos((dato, veces) -> {
+            Map.Entry<Integer, Integer> siguiente = esperado.next();
+            if (dato != siguiente.getKey() || veces != siguiente.getValue()) {
+                throw new IllegalStateException("operación " + operacion + ": el multiconjunto tiene " + dato + " x"
+                        + veces + " donde se esperaba " + siguiente.getKey() + " x" + siguiente.getValue());
+            }
+        });
+
+        rechazar(operacion, "union", () -> multi.union(bst));
+        rechazar(operacion, "interseccion", () -> bst.interseccion(multi));
+        rechazar(operacion, "diferencia", () -> multi.diferencia(bst));
+        rechazar(operacion, "dividir", () -> multi.dividir(0));
+        rechazar(operacion, "concatenar", () -> ArbolBusquedaBinario.concatenar(multi, bst));
+    }
+
+    /**
+     * Prueba que las instantáneas queden aisladas, en el modo del árbol
+     * probado y con cada combinación de multiconjunto y huellas. Por cada
+     * instantánea se toman dos: una queda quieta y se guarda su recorrido
+     * (con repetidos) y su huella; la otra se sigue modificando junto con
+     * el original, cada una con su propio oráculo. Al final las quietas
+     * deben seguir iguales a lo guardado, y el original y las modificadas
+     * iguales a sus oráculos: ninguna escritura pasa de un árbol a otro.
+     */
+    private void validarInstantaneas(long operacion, int[] ordenados) {
+        int paso = Math.max(1, ordenados.length / CLAVES_INSTANTANEAS);
+        for (boolean multiconjunto : new boolean[] {false, true}) {
+            for (boolean huellas : new boolean[] {false, true}) {
+                String caso = (multiconjunto ? "multiconjunto" : "conjunto") + (huellas ? " con huellas" : "");
+                ArbolBusquedaBinario original = new ArbolBusquedaBinario(bst.getModoBalanceo(), multiconjunto);
+                if (huellas) {
+                    original.activarHuellas();
+                }
+                TreeMap<Integer, Integer> esperadoOriginal = new TreeMap<>();
+                for (int i = 0; i < ordenados.length; i += paso) {
+                    original.insertar(ordenados[i]);
+                    esperadoOriginal.put(ordenados[i], 1);
+                }
+
+                List<ArbolBusquedaBinario> quietas = new ArrayList<>();
+                List<List<Integer>> recorridos = new ArrayList<>();
+                long[] huellasQuietas = new long[INSTANTANEAS];
+                List<ArbolBusquedaBinario> modificadas = new ArrayList<>();
+                List<TreeMap<Integer, Integer>> esperadoModificadas = new ArrayList<>();
+                for (int s = 0; s < INSTANTANEAS; s++) {
+                    ArbolBusquedaBinario quieta = original.snapshot();
+                    quietas.add(quieta);
+                    recorridos.add(quieta.recorridoInOrden(true));
+                    huellasQuietas[s] = huellas ? quieta.huella() : 0;
+                    compararConOraculo(operacion, caso + ", instantánea " + s + " al tomarla", quieta, esperadoOriginal);
+                    modificadas.add(original.snapshot());
+                    esperadoModificadas.add(new TreeMap<>(esperadoOriginal));
+
+                    for (int m = 0; m < MODIFICACIONES; m++) {
+                        modificarAlAzar(operacion, original, esperadoOriginal);
+                        for (int t = 0; t <= s; t++) {
+                            modificarAlAzar(operacion, modificadas.get(t), esperadoModificadas.get(t));
+                        }
+                    }
+                }
+
+                for (int s = 0; s < INSTANTANEAS; s++) {
+                    ArbolBusquedaBinario quieta = quietas.get(s);
+                    validarNodos(quieta, operacion);
+                    if (!quieta.recorridoInOrden(true).equals(recorridos.get(s))
+                            || (huellas && quieta.huella() != huellasQuietas[s])) {
+                        throw new IllegalStateException("operación " + operacion + ": " + caso + ", la instantánea " + s
+                                + " cambió después de tomarla");
+                    }
+                    compararConOraculo(operacion, caso + ", instantánea modificada " + s, modificadas.get(s),
+                            esperadoModificadas.get(s));
+                }
+                compararConOraculo(operacion, caso + ", original", original, esperadoOriginal);
+            }
+        }
+    }
+
+    /**
+     * Una inserción, eliminación o búsqueda al azar (y en un multiconjunto
+     * también agregar o eliminar una ocurrencia), comprobada contra el
+     * oráculo de ocurrencias por clave, que se actualiza igual.
+     */
+    private void modificarAlAzar(long operacion, ArbolBusquedaBinario arbol, TreeMap<Integer, Integer> esperado) {
+        int dato = aleatorio.nextInt(rango);
+        Integer veces = esperado.get(dato);
+        switch (aleatorio.nextInt(arbol.isMulticonjunto() ? 5 : 3)) {
+            case 0:
+                comprobar(operacion, "insertar en instantánea", dato, arbol.insertar(dato),
+                        veces == null || arbol.isMulticonjunto());
+                esperado.merge(dato, 1, arbol.isMulticonjunto() ? Integer::sum : (a, b) -> a);
+                break;
+            case 1:
+                comprobar(operacion, "eliminar en instantánea", dato, arbol.eliminar(dato), veces != null);
+                esperado.remove(dato);
+                break;
+            case 2:
+                comprobar(operacion, "buscar en instantánea", dato, arbol.buscar(dato), veces != null);
+                break;
+            case 3:
+                comprobar(operacion, "agregar en instantánea", dato, arbol.agregar(dato, 2), esperado.merge(dato, 2, Integer::sum));
+                break;
+            default:
+                comprobar(operacion, "eliminarUno en instantánea", dato, arbol.eliminarUno(dato), veces != null);
+                if (veces != null && veces > 1) {
+                    esperado.put(dato, veces - 1);
+                } else {
+                    esperado.remove(dato);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Compara un árbol (estructura, recorrido con repetidos y huella, si
+     * la lleva) con un oráculo de ocurrencias por clave.
+     */
+    private void compararConOraculo(long operacion, String caso, ArbolBusquedaBinario arbol,
+                                    TreeMap<Integer, Integer> esperado) {
+        validarNodos(arbol, operacion);
+        List<Integer> expandido = new ArrayList<>();
+        long huella = 0;
+        for (Map.Entry<Integer, Integer> entrada : esperado.entrySet()) {
+            for (int i = 0; i < entrada.getValue(); i++) {
+                expandido.add(entrada.getKey());
+            }
+            huella += entrada.getValue() * NodoHuella.huellaDe(entrada.getKey());
+        }
+        if (!arbol.recorridoInOrden(true).equals(expandido)) {
+            throw new IllegalStateException("operación " + operacion + ": " + caso + " no coincide con su oráculo");
+        }
+        if (arbol.isHuellasActivas() && arbol.huella() != huella) {
+            throw new IllegalStateException("operación " + operacion + ": " + caso + " tiene otra huella que su oráculo");
+        }
+    }
+
+    private static void rechazar(long operacion, String nombre, Runnable llamada) {
+        try {
+            llamada.run();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        throw new IllegalStateException("operación " + operacion + ": " + nombre + " aceptó un multiconjunto");
+    }
+
+    /**
+     * Primera posición de {@code ordenados} con un valor mayor o igual que el dato.
+     */
+    private static int primeraPosicion(int[] ordenados, long dato) {
+        int desde = 0;
+        int hasta = ordenados.length;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (ordenados[medio] < dato) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    /**
+     * Mezcla dos arreglos ordenados sin repetidos quedándose con los
+     * valores que están solo en {@code a}, solo en {@code b} o en ambos,
+     * según se pida.
+     */
+    private static int[] mezclar(int[] a, int[] b, boolean soloA, boolean soloB, boolean ambos) {
+        int[] resultado = new int[a.length + b.length];
+        int cantidad = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                if (soloA) {
+                    resultado[cantidad++] = a[i];
+                }
+                i++;
+            } else if (i == a.length || b[j] < a[i]) {
+                if (soloB) {
+                    resultado[cantidad++] = b[j];
+                }
+                j++;
+            } else {
+                if (ambos) {
+                    resultado[cantidad++] = a[i];
+                }
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, cantidad);
+    }
+
+    /**
+     * Revisa orden, altura, tamaño y balance de cada nodo con una pila
+     * explícita (en modo NINGUNO el árbol puede ser muy profundo).
+     * @return Altura real del árbol.
+     */
+    private int validarNodos(ArbolBusquedaBinario arbol, long operacion) {
+        Nodo raiz = arbol.getRaiz();
+        if (raiz == null) {
+            return 0;
+        }
+        // Postorden iterativo guardando los límites válidos de cada nodo
+        int capacidad = arbol.tamano() + 1;
+        Nodo[] pila = new Nodo[capacidad];
+        long[] minimos = new long[capacidad];
+        long[] maximos = new long[capacidad];
+        boolean[] expandido = new boolean[capacidad];
+        int tope = 0;
+        pila[tope] = raiz;
+        minimos[tope] = Long.MIN_VALUE;
+        maximos[tope] = Long.MAX_VALUE;
+        expandido[tope++] = false;
+        boolean avl = arbol.getModoBalanceo() == ModoBalanceo.AVL;
+
+        while (tope > 0) {
+            int i = tope - 1;
+            Nodo nodo = pila[i];
+            if (!expandido[i]) {
+                expandido[i] = true;
+                if (nodo.getDato() <= minimos[i] || nodo.getDato() >= maximos[i]) {
+                    throw new IllegalStateException("operación " + operacion + ": " + nodo.getDato()
+                            + " rompe el orden del ABB");
+                }
+                long minimo = minimos[i];
+                long maximo = maximos[i];
+                if (nodo.getIzquierdo() != null) {
+                    pila[tope] = nodo.getIzquierdo();
+                    minimos[tope] = minimo;
+                    maximos[tope] = nodo.getDato();
+                    expandido[tope++] = false;
+                }
+                if (nodo.getDerecho() != null) {
+                    pila[tope] = nodo.getDerecho();
+                    minimos[tope] = nodo.getDato();
+                    maximos[tope] = maximo;
+                    expandido[tope++] = false;
+                }
+            } else {
+                tope--;
+                int izquierda = altura(nodo.getIzquierdo());
+                int derecha = altura(nodo.getDerecho());
+                int tamano = 1 + tamano(nodo.getIzquierdo()) + tamano(nodo.getDerecho());
+                if (nodo.getAltura() != 1 + Math.max(izquierda, derecha) || nodo.getTamano() != tamano) {
+                    throw new IllegalStateException("operación " + operacion + ": altura o tamaño incorrectos en "
+                            + nodo.getDato());
+                }
+                if (avl && Math.abs(izquierda - derecha) > 1) {
+                    throw new IllegalStateException("operación " + operacion + ": " + nodo.getDato()
+                            + " está desbalanceado");
+                }
+            }
+        }
+        return raiz.getAltura();
+    }
+
+    private static int altura(Nodo nodo) {
+        return nodo == null ? 0 : nodo.getAltura();
+    }
+
+    private static int tamano(Nodo nodo) {
+        return nodo == null ? 0 : nodo.getTamano();
+    }
+}
@@ -4,17 +4,20 @@ package practicos.ABB;
  * Ejecutor de pruebas predefinidas para el ABB
  * Implementa todas las pruebas de la rúbrica
  * 
+ * Corre sobre cualquier {@link ConjuntoOrdenado}; los recorridos PreOrden
+ * y PostOrden solo se muestran cuando el motor es el ABB.
+ * 
  * @author Diana Mabel Garcia
  *         diabegarciamtz@gmail.com  05/12/2025
  */
 class TestRunner {
-    private ArbolBusquedaBinario bst;
+    private ConjuntoOrdenado bst;
     
     /** 
      * Constructor del ejecutor de pruebas
-     * @param bst Referencia al árbol binario de búsqueda
+     * @param bst Conjunto sobre el que se ejecutan las pruebas
      */
-    public TestRunner(ArbolBusquedaBinario bst) {
+    public TestRunner(ConjuntoOrdenado bst) {
         this.bst = bst;
     }
     
@@ -35,8 +38,11 @@ class TestRunner {
         result.append("=== P1.1: Árbol Balanceado ===\n");
         result.append("Insertados: 50, 30, 70, 20, 40, 60, 80\n");
         result.append("InOrden: ").append(bst.recorridoInOrden()).append("\n");
-        result.append("PreOrden: ").append(bst.recorridoPostOrden()).append("\n");
-        result.append("PostOrden: ").append(bst.recorridoPreOrden()).append("\n");
+        if (bst instanceof ArbolBusquedaBinario) {
+            ArbolBusquedaBinario abb = (ArbolBusquedaBinario) bst;
+            result.append("PreOrden: ").append(abb.recorridoPreOrden()).append("\n");
+            result.append("PostOrden: ").append(abb.recorridoPostOrden()).append("\n");
+        }
         
         return result.toString();
     }
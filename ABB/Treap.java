@@ -0,0 +1,278 @@
+package practicos.ABB;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Treap: ABB por clave que además es un montículo por una prioridad
+ * aleatoria asignada a cada nodo. La forma resultante es la de un ABB con
+ * las claves insertadas en orden aleatorio, así que la altura esperada es
+ * O(log n) sea cual sea el orden real de llegada, sin guardar alturas ni
+ * factores de balance.
+ *
+ * Insertar baja como en un ABB y sube el nodo nuevo con rotaciones
+ * mientras su prioridad supere la del padre; eliminar junta los dos
+ * subárboles del nodo por prioridad (merge).
+ *
+ * @author Diana Mabel Garcia
+ *         diabegarciamtz@gmail.com  05/12/2025
+ */
+public class Treap implements ConjuntoOrdenado {
+
+    private static final class NodoTreap {
+        final int clave;
+        final int prioridad;
+        NodoTreap izquierdo;
+        NodoTreap derecho;
+
+        NodoTreap(int clave, int prioridad) {
+            this.clave = clave;
+            this.prioridad = prioridad;
+        }
+    }
+
+    private final SplittableRandom aleatorio;
+    private NodoTreap raiz;
+    private int cantidad;
+    private boolean cambio; // Resultado de la última inserción o eliminación recursiva
+
+    /**
+     * Constructor del treap con prioridades no reproducibles.
+     */
+    public Treap() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor con semilla, para obtener siempre la misma forma.
+     * @param semilla Semilla de las prioridades.
+     */
+    public Treap(long semilla) {
+        this(new SplittableRandom(semilla));
+    }
+
+    private Treap(SplittableRandom aleatorio) {
+        this.aleatorio = aleatorio;
+    }
+
+    @Override
+    public boolean insertar(int dato) {
+        cambio = false;
+        raiz = insertar(raiz, dato);
+        if (cambio) {
+            cantidad++;
+        }
+        return cambio;
+    }
+
+    private NodoTreap insertar(NodoTreap nodo, int dato) {
+        if (nodo == null) {
+            cambio = true;
+            return new NodoTreap(dato, aleatorio.nextInt());
+        }
+        if (dato < nodo.clave) {
+            nodo.izquierdo = insertar(nodo.izquierdo, dato);
+            if (nodo.izquierdo.prioridad > nodo.prioridad) {
+                return rotarDerecha(nodo);
+            }
+        } else if (dato > nodo.clave) {
+            nodo.derecho = insertar(nodo.derecho, dato);
+            if (nodo.derecho.prioridad > nodo.prioridad) {
+                return rotarIzquierda(nodo);
+            }
+        }
+        return nodo;
+    }
+
+    @Override
+    public boolean eliminar(int dato) {
+        cambio = false;
+        raiz = eliminar(raiz, dato);
+        if (cambio) {
+            cantidad--;
+        }
+        return cambio;
+    }
+
+    private NodoTreap eliminar(NodoTreap nodo, int dato) {
+        if (nodo == null) {
+            return null;
+        }
+        if (dato < nodo.clave) {
+            nodo.izquierdo = eliminar(nodo.izquierdo, dato);
+        } else if (dato > nodo.clave) {
+            nodo.derecho = eliminar(nodo.derecho, dato);
+        } else {
+            cambio = true;
+            return juntar(nodo.izquierdo, nodo.derecho);
+        }
+        return nodo;
+    }
+
+    /**
+     * Une dos treaps con todas las claves del primero menores que las del
+     * segundo: la raíz es la de mayor prioridad.
+     */
+    private static NodoTreap juntar(NodoTreap menores, NodoTreap mayores) {
+        if (menores == null) {
+            return mayores;
+        }
+        if (mayores == null) {
+            return menores;
+        }
+        if (menores.prioridad > mayores.prioridad) {
+            menores.derecho = juntar(menores.derecho, mayores);
+            return menores;
+        }
+        mayores.izquierdo = juntar(menores, mayores.izquierdo);
+        return mayores;
+    }
+
+    private static NodoTreap rotarDerecha(NodoTreap nodo) {
+        NodoTreap hijo = nodo.izquierdo;
+        nodo.izquierdo = hijo.derecho;
+        hijo.derecho = nodo;
+        return hijo;
+    }
+
+    private static NodoTreap rotarIzquierda(NodoTreap nodo) {
+        NodoTreap hijo = nodo.derecho;
+        nodo.derecho = hijo.izquierdo;
+        hijo.izquierdo = nodo;
+        return hijo;
+    }
+
+    @Override
+    public boolean contiene(int dato) {
+        NodoTreap actual = raiz;
+        while (actual != null && actual.clave != dato) {
+            actual = dato < actual.clave ? actual.izquierdo : actual.derecho;
+        }
+        return actual != null;
+    }
+
+    @Override
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Altura del treap (vacío = 0). Recorre todo el árbol: O(n).
+     */
+    public int altura() {
+        if (raiz == null) {
+            return 0;
+        }
+        NodoTreap[] pila = new NodoTreap[64];
+        int[] niveles = new int[64];
+        int tope = 0;
+        int altura = 0;
+        pila[tope] = raiz;
+        niveles[tope++] = 1;
+        while (tope > 0) {
+            NodoTreap nodo = pila[--tope];
+            int nivel = niveles[tope];
+            altura = Math.max(altura, nivel);
+            if (tope + 2 > pila.length) {
+                pila = Arrays.copyOf(pila, pila.length * 2);
+                niveles = Arrays.copyOf(niveles, niveles.length * 2);
+            }
+            if (nodo.izquierdo != null) {
+                pila[tope] = nodo.izquierdo;
+                niveles[tope++] = nivel + 1;
+            }
+            if (nodo.derecho != null) {
+                pila[tope] = nodo.derecho;
+                niveles[tope++] = nivel + 1;
+            }
+        }
+        return altura;
+    }
+
+    @Override
+    public void limpiar() {
+        raiz = null;
+        cantidad = 0;
+    }
+
+    @Override
+    public OptionalInt piso(int dato) {
+        NodoTreap actual = raiz;
+        NodoTreap candidato = null;
+        while (actual != null) {
+            if (actual.clave == dato) {
+                return OptionalInt.of(dato);
+            }
+            if (actual.clave < dato) {
+                candidato = actual;
+                actual = actual.derecho;
+            } else {
+                actual = actual.izquierdo;
+            }
+        }
+        return candidato == null ? OptionalInt.empty() : OptionalInt.of(candidato.clave);
+    }
+
+    @Override
+    public OptionalInt techo(int dato) {
+        NodoTreap actual = raiz;
+        NodoTreap candidato = null;
+        while (actual != null) {
+            if (actual.clave == dato) {
+                return OptionalInt.of(dato);
+            }
+            if (actual.clave > dato) {
+                candidato = actual;
+                actual = actual.izquierdo;
+            } else {
+                actual = actual.derecho;
+            }
+        }
+        return candidato == null ? OptionalInt.empty() : OptionalInt.of(candidato.clave);
+    }
+
+    @Override
+    public void recorrerInOrden(IntConsumer visitante) {
+        recorrerRango(Integer.MIN_VALUE, Integer.MAX_VALUE, visitante);
+    }
+
+    /**
+     * Igual que {@link ArbolBusquedaBinario#recorrerRango}, con una pila
+     * que crece si hace falta porque la altura no se conoce de antemano.
+     */
+    @Override
+    public void recorrerRango(int desde, int hasta, IntConsumer visitante) {
+        NodoTreap[] pila = new NodoTreap[64];
+        int tope = 0;
+        NodoTreap actual = raiz;
+        while (true) {
+            while (actual != null) {
+                if (actual.clave < desde) {
+                    actual = actual.derecho;
+                } else {
+                    if (tope == pila.length) {
+                        pila = Arrays.copyOf(pila, tope * 2);
+                    }
+                    pila[tope++] = actual;
+                    actual = actual.izquierdo;
+                }
+            }
+            if (tope == 0) {
+                return;
+            }
+            actual = pila[--tope];
+            if (actual.clave > hasta) {
+                return;
+            }
+            visitante.accept(actual.clave);
+            actual = actual.derecho;
+        }
+    }
+
+    @Override
+    public String describir() {
+        return cantidad + " nodos, altura " + altura();
+    }
+}